@@ -25,4 +25,7 @@ public final class AppConstants {
     public static final String ROLE_ADMIN = "ROLE_ADMIN";
     public static final String ROLE_ENTERPRISE = "ROLE_ENTERPRISE";
     public static final String ROLE_COLLECTOR = "ROLE_COLLECTOR";
+
+    // Time zone the business runs in (daily resets, analytics days and hours)
+    public static final String BUSINESS_TIME_ZONE = "Asia/Ho_Chi_Minh";
 }
@@ -0,0 +1,24 @@
+package com.example.backendservice.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+    // Sent as the Retry-After header when set
+    private final Long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message) {
+        this(message, null);
+    }
+
+    public ServiceUnavailableException(String message, Long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
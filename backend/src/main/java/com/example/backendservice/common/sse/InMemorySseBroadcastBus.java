@@ -0,0 +1,31 @@
+package com.example.backendservice.common.sse;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node bus: messages are handed straight to the local subscribers on the caller's thread.
+ * Default when sse.bus.type is not set; also used by tests.
+ */
+@Component
+@ConditionalOnProperty(name = "sse.bus.type", havingValue = "in-memory", matchIfMissing = true)
+public class InMemorySseBroadcastBus implements SseBroadcastBus {
+
+    private final List<Consumer<SseBusMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(SseBusMessage message) {
+        for (Consumer<SseBusMessage> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<SseBusMessage> listener) {
+        listeners.add(listener);
+    }
+}
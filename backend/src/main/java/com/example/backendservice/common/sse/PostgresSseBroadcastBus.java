@@ -0,0 +1,160 @@
+package com.example.backendservice.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Multi-node bus built on PostgreSQL LISTEN/NOTIFY.
+ * Publishing runs pg_notify on the caller's (possibly transactional) connection, so events
+ * from a rolled-back transaction are never delivered. Every node, including the publisher,
+ * receives the notification on a dedicated listener connection outside the Hikari pool.
+ * LISTEN needs a session-level connection: point sse.bus.postgres.url at the database
+ * directly, not at a transaction-mode pooler (e.g. pgbouncer / Supabase port 6543).
+ */
+@Component
+@ConditionalOnProperty(name = "sse.bus.type", havingValue = "postgres")
+@Slf4j
+public class PostgresSseBroadcastBus implements SseBroadcastBus {
+
+    // NOTIFY payloads must be shorter than 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final int POLL_TIMEOUT_MS = 500;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final List<Consumer<SseBusMessage>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresSseBroadcastBus(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            @Value("${sse.bus.postgres.channel:sse_events}") String channel,
+            @Value("${sse.bus.postgres.url:${spring.datasource.url}}") String url,
+            @Value("${sse.bus.postgres.username:${spring.datasource.username:}}") String username,
+            @Value("${sse.bus.postgres.password:${spring.datasource.password:}}") String password) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid sse.bus.postgres.channel: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public void publish(SseBusMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize SSE bus message " + message.id(), e);
+        }
+
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            // Too large for NOTIFY: deliver on this node only rather than dropping it
+            log.warn("SSE event {} ({}) exceeds NOTIFY payload limit, delivering locally only",
+                    message.id(), message.eventName());
+            dispatch(message);
+            return;
+        }
+
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, payload);
+    }
+
+    @Override
+    public void subscribe(Consumer<SseBusMessage> listener) {
+        listeners.add(listener);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .name("sse-bus-listener")
+                .daemon(true)
+                .start(this::listenLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("SSE bus listening on PostgreSQL channel '{}'", channel);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.error("SSE bus listener connection failed, retrying in {} ms: {}",
+                        RECONNECT_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void handle(String payload) {
+        try {
+            dispatch(objectMapper.readValue(payload, SseBusMessage.class));
+        } catch (Exception e) {
+            log.error("Failed to handle SSE bus message: {}", e.getMessage());
+        }
+    }
+
+    private void dispatch(SseBusMessage message) {
+        for (Consumer<SseBusMessage> listener : listeners) {
+            listener.accept(message);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backendservice.common.sse;
+
+/**
+ * How the audiences of a published event are addressed
+ */
+public enum SseAudienceType {
+
+    /**
+     * "All" or a role name
+     */
+    ROLE,
+
+    /**
+     * A single user id
+     */
+    USER,
+
+    /**
+     * One or more {@link SseTopic}s in "TYPE:key" form
+     */
+    TOPIC
+}
@@ -0,0 +1,21 @@
+package com.example.backendservice.common.sse;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport that carries published SSE events to every API node.
+ * Each node subscribes once and delivers received messages to its own local connections,
+ * so a client gets events no matter which node it is connected to.
+ */
+public interface SseBroadcastBus {
+
+    /**
+     * Send a message to all nodes, including this one
+     */
+    void publish(SseBusMessage message);
+
+    /**
+     * Register the local handler that receives every message published on the bus
+     */
+    void subscribe(Consumer<SseBusMessage> listener);
+}
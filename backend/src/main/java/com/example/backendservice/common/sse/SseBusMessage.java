@@ -0,0 +1,18 @@
+package com.example.backendservice.common.sse;
+
+import java.util.List;
+
+/**
+ * An event as it travels over the {@link SseBroadcastBus}: already assigned an id
+ * and serialized once by the publishing node, so receivers only have to frame it.
+ *
+ * @param id           event id assigned by the publishing node
+ * @param audienceType how the audiences are addressed
+ * @param audiences    "All" / role names, user ids, or topics; a connection matching
+ *                     several of them still receives the event once
+ * @param eventName    SSE event name (e.g. NOTIFICATION)
+ * @param data         serialized event data
+ */
+public record SseBusMessage(long id, SseAudienceType audienceType, List<String> audiences,
+        String eventName, String data) {
+}
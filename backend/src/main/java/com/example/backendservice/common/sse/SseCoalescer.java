@@ -0,0 +1,127 @@
+package com.example.backendservice.common.sse;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional conflation stage in front of publishing.
+ * Events with the same coalescing key (event type + key, e.g. a notification id) that arrive
+ * within the window configured for their event type are merged: only the latest one is
+ * published when the window closes. The window starts at the first event, so an update is
+ * never held back longer than one window however fast edits keep coming.
+ */
+@Slf4j
+public class SseCoalescer {
+
+    private final Map<String, Long> windowMillisByType;
+    private final ScheduledExecutorService scheduler;
+
+    // Event type + key -> latest pending publish
+    private final Map<String, AtomicReference<Runnable>> pending = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> conflatedByType = new ConcurrentHashMap<>();
+
+    public SseCoalescer(Map<String, Long> windowMillisByType) {
+        this.windowMillisByType = Map.copyOf(windowMillisByType);
+        this.scheduler = this.windowMillisByType.isEmpty() ? null
+                : Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("sse-coalescer").daemon(true).factory());
+    }
+
+    /**
+     * Parse "TYPE=millis,TYPE=millis" (e.g. "NOTIFICATION_UPDATE=500")
+     */
+    public static Map<String, Long> parseWindows(String spec) {
+        Map<String, Long> windows = new HashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return windows;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid sse.coalesce.windows entry: " + entry);
+            }
+            long millis = Long.parseLong(parts[1].trim());
+            if (millis > 0) {
+                windows.put(parts[0].trim().toUpperCase(Locale.ROOT), millis);
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Publish now, or hold the publish until the window of its event type closes.
+     * A later submit with the same key inside the window replaces the held one.
+     */
+    public void submit(String eventType, String key, Runnable publish) {
+        Long window = key != null && eventType != null ? windowMillisByType.get(eventType) : null;
+        if (window == null) {
+            publish.run();
+            return;
+        }
+
+        String pendingKey = eventType + "|" + key;
+        boolean[] scheduled = {false};
+        pending.compute(pendingKey, (k, held) -> {
+            if (held == null) {
+                scheduled[0] = true;
+                return new AtomicReference<>(publish);
+            }
+            held.set(publish);
+            conflatedByType.computeIfAbsent(eventType, t -> new AtomicLong()).incrementAndGet();
+            return held;
+        });
+        if (scheduled[0]) {
+            scheduler.schedule(() -> fire(pendingKey), window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Publish everything still held, without waiting for the windows to close
+     */
+    public void flush() {
+        for (String pendingKey : pending.keySet()) {
+            fire(pendingKey);
+        }
+    }
+
+    /**
+     * Number of events dropped in favour of a newer one, by event type
+     */
+    public Map<String, Long> getConflatedCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        conflatedByType.forEach((type, count) -> counts.put(type, count.get()));
+        return counts;
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        flush();
+    }
+
+    private void fire(String pendingKey) {
+        AtomicReference<Runnable> held = pending.remove(pendingKey);
+        if (held == null) {
+            return;
+        }
+        try {
+            held.get().run();
+        } catch (Exception e) {
+            log.error("Failed to publish coalesced SSE event {}: {}", pendingKey, e.getMessage());
+        }
+    }
+}
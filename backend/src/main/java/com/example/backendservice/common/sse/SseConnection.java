@@ -0,0 +1,255 @@
+package com.example.backendservice.common.sse;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A single SSE client connection with its own bounded outbound queue.
+ * Producers only enqueue; at most one writer task drains the queue at a time,
+ * so a slow socket only delays its own events.
+ * A new connection is held (events queue but are not written) until {@link #start(List)}
+ * puts any replayed history in front of the live events.
+ */
+@Slf4j
+public class SseConnection {
+
+    // Handle the client uses to manage its topic subscriptions
+    @Getter
+    private final String id;
+    @Getter
+    private final String userId;
+    @Getter
+    private final String role;
+    @Getter
+    private final SseEmitter emitter;
+
+    // Maintained by SseConnectionRegistry alongside its topic index
+    @Getter
+    private final Set<SseTopic> topics = ConcurrentHashMap.newKeySet();
+
+    private final int queueCapacity;
+    private final SseOverflowPolicy overflowPolicy;
+    private final Executor writer;
+    private final Consumer<SseConnection> onFailure;
+    private final SseMetrics metrics;
+
+    // Set before onFailure runs when the connection closes itself
+    @Getter
+    private volatile SseDisconnectReason failureReason;
+
+    // Time of the last successful write, read by the heartbeat wheel
+    @Getter
+    private volatile long lastWriteMillis = System.currentTimeMillis();
+
+    // Guarded by "this"
+    private final Deque<SseFrame> queue = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+    private boolean started;
+    private boolean completing;
+    private Set<String> replayedIds = Set.of();
+
+    public SseConnection(String userId, String role, SseEmitter emitter,
+            int queueCapacity, SseOverflowPolicy overflowPolicy,
+            Executor writer, Consumer<SseConnection> onFailure) {
+        this(UUID.randomUUID().toString(), userId, role, emitter, queueCapacity, overflowPolicy, writer, onFailure,
+                SseMetrics.DISABLED);
+    }
+
+    public SseConnection(String id, String userId, String role, SseEmitter emitter,
+            int queueCapacity, SseOverflowPolicy overflowPolicy,
+            Executor writer, Consumer<SseConnection> onFailure, SseMetrics metrics) {
+        this.id = id;
+        this.userId = userId;
+        this.role = role;
+        this.emitter = emitter;
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.writer = writer;
+        this.onFailure = onFailure;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Queue an event for this connection and schedule the writer if idle
+     *
+     * @return false if the event was not accepted (connection closed or disconnected on overflow)
+     */
+    public boolean enqueue(SseFrame frame) {
+        boolean schedule = false;
+        boolean disconnect = false;
+        synchronized (this) {
+            if (closed || completing) {
+                return false;
+            }
+            if (frame.getId() != null && replayedIds.contains(frame.getId())) {
+                // Already delivered as part of the reconnect replay
+                return true;
+            }
+            if (queue.size() >= queueCapacity) {
+                if (overflowPolicy == SseOverflowPolicy.DISCONNECT) {
+                    disconnect = true;
+                } else {
+                    queue.pollFirst();
+                    metrics.recordDropped();
+                    log.debug("SSE queue full for user {}, dropped oldest event", userId);
+                }
+            }
+            if (!disconnect) {
+                queue.addLast(frame);
+                if (started && !draining) {
+                    draining = true;
+                    schedule = true;
+                }
+            }
+        }
+
+        if (disconnect) {
+            log.warn("SSE queue full for user {}, disconnecting", userId);
+            fail(SseDisconnectReason.OVERFLOW, null);
+            return false;
+        }
+        if (schedule) {
+            writer.execute(this::drain);
+        }
+        return true;
+    }
+
+    /**
+     * Release the connection to the writer, first placing the replayed frames
+     * (in id order) ahead of anything that was queued while it was held
+     */
+    public void start(List<SseFrame> replay) {
+        boolean schedule;
+        synchronized (this) {
+            if (closed || started) {
+                return;
+            }
+            if (!replay.isEmpty()) {
+                Set<String> queuedIds = new HashSet<>();
+                for (SseFrame queued : queue) {
+                    if (queued.getId() != null) {
+                        queuedIds.add(queued.getId());
+                    }
+                }
+                Set<String> replayed = new HashSet<>();
+                for (int i = replay.size() - 1; i >= 0; i--) {
+                    SseFrame frame = replay.get(i);
+                    if (frame.getId() == null || queuedIds.add(frame.getId())) {
+                        queue.addFirst(frame);
+                    }
+                    if (frame.getId() != null) {
+                        replayed.add(frame.getId());
+                    }
+                }
+                replayedIds = replayed;
+            }
+            started = true;
+            schedule = !queue.isEmpty() && !draining;
+            draining = draining || schedule;
+        }
+        if (schedule) {
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Discard pending events, write a final notice and then complete the emitter
+     */
+    public void evict(SseFrame notice) {
+        boolean schedule;
+        synchronized (this) {
+            if (closed || completing) {
+                return;
+            }
+            queue.clear();
+            queue.addLast(notice);
+            completing = true;
+            schedule = started && !draining;
+            draining = draining || schedule;
+        }
+        if (schedule) {
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * Number of events waiting to be written
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    public synchronized boolean isClosed() {
+        return closed || completing;
+    }
+
+    /**
+     * Mark the connection closed and drop anything still queued
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            queue.clear();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            SseFrame next;
+            boolean finished = false;
+            synchronized (this) {
+                next = closed ? null : queue.pollFirst();
+                if (next == null) {
+                    draining = false;
+                    finished = completing && !closed;
+                    closed = closed || completing;
+                }
+            }
+            if (next == null) {
+                if (finished) {
+                    emitter.complete();
+                }
+                return;
+            }
+
+            long startNanos = System.nanoTime();
+            try {
+                emitter.send(next.getPayload());
+                metrics.recordSend(System.nanoTime() - startNanos);
+                lastWriteMillis = System.currentTimeMillis();
+            } catch (IOException | IllegalStateException e) {
+                log.warn("Failed to send to user {}: {}", userId, e.getMessage());
+                metrics.recordSendFailure(e);
+                synchronized (this) {
+                    draining = false;
+                }
+                fail(SseDisconnectReason.SEND_FAILED, e);
+                return;
+            }
+        }
+    }
+
+    private void fail(SseDisconnectReason reason, Exception cause) {
+        failureReason = reason;
+        close();
+        onFailure.accept(this);
+        if (cause != null) {
+            emitter.completeWithError(cause);
+        } else {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.backendservice.common.sse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of live SSE connections by role, by user and by subscribed topic.
+ * Adds and removals are O(1) hash operations (no list copying), and each user may hold
+ * several connections (tabs, devices) up to a cap, evicting the oldest beyond it.
+ * The topic index is inverted (topic -> connections), so publishing to a topic only
+ * touches the connections that subscribed to it.
+ */
+public class SseConnectionRegistry {
+
+    public static final String ALL = "All";
+
+    private final int maxConnectionsPerUser;
+
+    // Role name (and "All") -> connections; concurrent sets iterate without copying
+    private final Map<String, Set<SseConnection>> byRole = new ConcurrentHashMap<>();
+
+    // User id -> connections in connect order; each set is only touched inside compute()
+    private final Map<String, LinkedHashSet<SseConnection>> byUser = new ConcurrentHashMap<>();
+
+    // Topic -> subscribed connections; empty sets are dropped inside compute()
+    private final Map<SseTopic, Set<SseConnection>> byTopic = new ConcurrentHashMap<>();
+
+    private final Map<String, SseConnection> byId = new ConcurrentHashMap<>();
+
+    public SseConnectionRegistry(int maxConnectionsPerUser) {
+        if (maxConnectionsPerUser <= 0) {
+            throw new IllegalArgumentException("maxConnectionsPerUser must be positive");
+        }
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+    }
+
+    /**
+     * Register a connection
+     *
+     * @return connections of the same user evicted to stay within the per-user cap (oldest first)
+     */
+    public List<SseConnection> add(SseConnection connection) {
+        List<SseConnection> evicted = new ArrayList<>();
+        byUser.compute(connection.getUserId(), (userId, connections) -> {
+            if (connections == null) {
+                connections = new LinkedHashSet<>();
+            }
+            connections.add(connection);
+            Iterator<SseConnection> oldest = connections.iterator();
+            while (connections.size() > maxConnectionsPerUser) {
+                evicted.add(oldest.next());
+                oldest.remove();
+            }
+            return connections;
+        });
+
+        byId.put(connection.getId(), connection);
+        roleSet(connection.getRole()).add(connection);
+        roleSet(ALL).add(connection);
+        for (SseConnection old : evicted) {
+            removeFromIndexes(old);
+        }
+        return evicted;
+    }
+
+    /**
+     * Add a topic to a registered connection
+     */
+    public void subscribe(SseConnection connection, SseTopic topic) {
+        if (!byId.containsKey(connection.getId()) || !connection.getTopics().add(topic)) {
+            return;
+        }
+        byTopic.compute(topic, (t, connections) -> {
+            if (connections == null) {
+                connections = ConcurrentHashMap.newKeySet();
+            }
+            connections.add(connection);
+            return connections;
+        });
+    }
+
+    public void unsubscribe(SseConnection connection, SseTopic topic) {
+        if (connection.getTopics().remove(topic)) {
+            removeFromTopic(connection, topic);
+        }
+    }
+
+    /**
+     * Remove a connection; safe to call more than once
+     *
+     * @return true only for the call that actually removed it
+     */
+    public boolean remove(SseConnection connection) {
+        byUser.computeIfPresent(connection.getUserId(), (userId, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        return removeFromIndexes(connection);
+    }
+
+    public SseConnection findById(String connectionId) {
+        return byId.get(connectionId);
+    }
+
+    /**
+     * Snapshot of a user's connections
+     */
+    public List<SseConnection> forUser(String userId) {
+        List<SseConnection> result = new ArrayList<>();
+        byUser.computeIfPresent(userId, (id, connections) -> {
+            result.addAll(connections);
+            return connections;
+        });
+        return result;
+    }
+
+    /**
+     * Live view of a role's connections ("All" for everyone)
+     */
+    public Collection<SseConnection> forRole(String role) {
+        Set<SseConnection> connections = byRole.get(role);
+        return connections != null ? connections : Set.of();
+    }
+
+    /**
+     * Live view of a topic's subscribers
+     */
+    public Collection<SseConnection> forTopic(SseTopic topic) {
+        Set<SseConnection> connections = byTopic.get(topic);
+        return connections != null ? connections : Set.of();
+    }
+
+    public int getTopicCount() {
+        return byTopic.size();
+    }
+
+    public int getConnectionCount() {
+        return forRole(ALL).size();
+    }
+
+    public int getUserCount() {
+        return byUser.size();
+    }
+
+    public Map<String, Integer> getConnectionCountByRole() {
+        Map<String, Integer> counts = new ConcurrentHashMap<>();
+        byRole.forEach((role, connections) -> counts.put(role, connections.size()));
+        return counts;
+    }
+
+    private Set<SseConnection> roleSet(String role) {
+        return byRole.computeIfAbsent(role, k -> ConcurrentHashMap.newKeySet());
+    }
+
+    private boolean removeFromIndexes(SseConnection connection) {
+        boolean removed = byId.remove(connection.getId(), connection);
+        for (SseTopic topic : connection.getTopics()) {
+            removeFromTopic(connection, topic);
+        }
+        connection.getTopics().clear();
+
+        Set<SseConnection> roleConnections = byRole.get(connection.getRole());
+        if (roleConnections != null) {
+            roleConnections.remove(connection);
+        }
+        Set<SseConnection> all = byRole.get(ALL);
+        if (all != null) {
+            all.remove(connection);
+        }
+        return removed;
+    }
+
+    private void removeFromTopic(SseConnection connection, SseTopic topic) {
+        byTopic.computeIfPresent(topic, (t, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backendservice.common.sse;
 
+import com.example.backendservice.common.exception.ResourceNotFoundException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -26,27 +28,62 @@ public class SseController {
 
     /**
      * Subscribe to SSE events
-     * Frontend should call this endpoint to establish a connection
+     * Frontend should call this endpoint to establish a connection.
+     * Browsers resend the last received event id on reconnect, and only missed events are replayed.
+     * Optional topics (e.g. AREA:&lt;areaId&gt;, COLLECTION_REQUEST:&lt;requestId&gt;) narrow events to what the page shows.
      */
     @Operation(summary = "Subscribe to SSE", description = "Establishes SSE connection for real-time notifications")
     @GetMapping(value = "/subscribe/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter subscribe(
             @Parameter(description = "User ID") @PathVariable String userId,
-            @Parameter(description = "User role (Citizen, Collector, Enterprise, Admin)") @RequestParam(defaultValue = "Citizen") String role) {
+            @Parameter(description = "User role (Citizen, Collector, Enterprise, Admin)") @RequestParam(defaultValue = "Citizen") String role,
+            @Parameter(description = "Id of the last event received before reconnecting") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Topics to subscribe to, as TYPE:key (AREA, ENTERPRISE, COLLECTOR, COLLECTION_REQUEST)") @RequestParam(required = false) List<String> topics) {
 
-        log.info("SSE subscription request from user: {}, role: {}", userId, role);
-        return sseService.createConnection(userId, role);
+        log.info("SSE subscription request from user: {}, role: {}, lastEventId: {}", userId, role, lastEventId);
+        List<SseTopic> parsed = topics != null ? topics.stream().map(SseTopic::parse).toList() : List.of();
+        return sseService.createConnection(userId, role, lastEventId, parsed);
+    }
+
+    /**
+     * Add a topic to an open connection (connection id comes from the "connected" event)
+     */
+    @Operation(summary = "Subscribe connection to topic", description = "Adds a topic subscription to an open SSE connection")
+    @PostMapping("/connections/{connectionId}/topics")
+    public ResponseEntity<String> addTopic(
+            @PathVariable String connectionId,
+            @Parameter(description = "Topic as TYPE:key") @RequestParam String topic) {
+
+        SseTopic parsed = SseTopic.parse(topic);
+        if (!sseService.subscribe(connectionId, parsed)) {
+            throw new ResourceNotFoundException("SSE connection", "id", connectionId);
+        }
+        return ResponseEntity.ok("Subscribed to: " + parsed);
+    }
+
+    /**
+     * Remove a topic from an open connection
+     */
+    @Operation(summary = "Unsubscribe connection from topic", description = "Removes a topic subscription from an open SSE connection")
+    @DeleteMapping("/connections/{connectionId}/topics")
+    public ResponseEntity<String> removeTopic(
+            @PathVariable String connectionId,
+            @Parameter(description = "Topic as TYPE:key") @RequestParam String topic) {
+
+        SseTopic parsed = SseTopic.parse(topic);
+        if (!sseService.unsubscribe(connectionId, parsed)) {
+            throw new ResourceNotFoundException("SSE connection", "id", connectionId);
+        }
+        return ResponseEntity.ok("Unsubscribed from: " + parsed);
     }
 
     /**
      * Get SSE connection statistics (Admin only)
      */
-    @Operation(summary = "Get SSE statistics", description = "Returns the count of active SSE connections")
+    @Operation(summary = "Get SSE statistics", description = "Returns active connections, queue depths, send/fan-out latencies, failures and disconnects by reason")
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
-        return ResponseEntity.ok(Map.of(
-                "totalConnections", sseService.getActiveConnectionCount(),
-                "connectionsByRole", sseService.getConnectionCountByRole()));
+        return ResponseEntity.ok(sseService.getStats());
     }
 
     /**
@@ -0,0 +1,37 @@
+package com.example.backendservice.common.sse;
+
+/**
+ * Why a connection left the registry, used to tag disconnect metrics
+ */
+public enum SseDisconnectReason {
+
+    /**
+     * The emitter completed (client went away or the server completed it)
+     */
+    COMPLETED,
+
+    /**
+     * The emitter reached its timeout
+     */
+    TIMEOUT,
+
+    /**
+     * The container reported an error on the async request
+     */
+    ERROR,
+
+    /**
+     * Writing to the socket failed
+     */
+    SEND_FAILED,
+
+    /**
+     * The outbound queue was full under the DISCONNECT overflow policy
+     */
+    OVERFLOW,
+
+    /**
+     * Closed to make room for a newer connection of the same user
+     */
+    EVICTED
+}
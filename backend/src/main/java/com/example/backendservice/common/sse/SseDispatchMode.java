@@ -0,0 +1,17 @@
+package com.example.backendservice.common.sse;
+
+/**
+ * How queued SSE events are written to the client sockets
+ */
+public enum SseDispatchMode {
+
+    /**
+     * Broadcasts only enqueue; a virtual-thread writer drains each connection
+     */
+    ASYNC,
+
+    /**
+     * Queues are drained on the caller's thread (legacy behaviour, useful in tests)
+     */
+    SYNC
+}
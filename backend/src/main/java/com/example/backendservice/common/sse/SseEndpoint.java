@@ -0,0 +1,25 @@
+package com.example.backendservice.common.sse;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint (/actuator/sse) with the same statistics as /api/v1/sse/stats.
+ * The individual meters are also available under /actuator/metrics/sse.*
+ */
+@Component
+@Endpoint(id = "sse")
+@RequiredArgsConstructor
+public class SseEndpoint {
+
+    private final SseService sseService;
+
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return sseService.getStats();
+    }
+}
@@ -17,7 +17,7 @@ public class SseEventData {
     private String eventType; // NOTIFICATION, COMPLAINT_UPDATE, SYSTEM_ALERT
     private Object payload; // The actual data
     private LocalDateTime timestamp;
-    private String targetAudience; // All, Citizen, Collector, Enterprise, or specific userId
+    private String targetAudience; // All, Citizen, Collector, Enterprise, specific userId, or topic TYPE:key
 
     public static SseEventData notification(Object payload, String targetAudience) {
         return SseEventData.builder()
@@ -0,0 +1,70 @@
+package com.example.backendservice.common.sse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * An SSE event rendered once into its wire format.
+ * The same instance (and the same bytes) is written to every recipient of a broadcast,
+ * so Jackson runs once per event instead of once per connection.
+ */
+@Getter
+public final class SseFrame {
+
+    private final String id;
+    private final String eventName;
+    private final int sizeInBytes;
+
+    // Pre-built payload handed to ResponseBodyEmitter; never mutated after construction
+    private final Set<ResponseBodyEmitter.DataWithMediaType> payload;
+
+    private SseFrame(String id, String eventName, byte[] bytes) {
+        this.id = id;
+        this.eventName = eventName;
+        this.sizeInBytes = bytes.length;
+        this.payload = Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM));
+    }
+
+    /**
+     * Serialize the event data with the given mapper and encode the complete frame
+     *
+     * @param id may be null when the event carries no id
+     */
+    public static SseFrame render(String id, SseEventData eventData, ObjectMapper objectMapper) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(eventData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize SSE event " + eventData.getEventType(), e);
+        }
+        return of(id, eventData.getEventType(), json);
+    }
+
+    /**
+     * Encode a frame from an already serialized data string
+     */
+    public static SseFrame of(String id, String eventName, String data) {
+        StringBuilder sb = new StringBuilder(data.length() + 64);
+        if (id != null) {
+            sb.append("id:").append(id).append('\n');
+        }
+        if (eventName != null) {
+            sb.append("event:").append(eventName).append('\n');
+        }
+        // Multi-line data must be split into one "data:" field per line
+        int start = 0;
+        int newline;
+        while ((newline = data.indexOf('\n', start)) >= 0) {
+            sb.append("data:").append(data, start, newline).append('\n');
+            start = newline + 1;
+        }
+        sb.append("data:").append(data, start, data.length()).append("\n\n");
+        return new SseFrame(id, eventName, sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.backendservice.common.sse;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Hashed timer wheel that pings only idle connections.
+ * The wheel spans one heartbeat interval split into slots of tickMillis. Each connection sits
+ * in the slot of its next deadline (last write + interval); every tick visits one slot, pings
+ * the connections that are still idle and re-files the rest at their new deadline. Work per tick
+ * is roughly connections / slots instead of one burst of N writes per interval.
+ */
+public class SseHeartbeatWheel {
+
+    private final long intervalMillis;
+    private final long tickMillis;
+    private final ConcurrentLinkedQueue<Entry>[] slots;
+
+    // Only touched by the ticking thread
+    private long lastTick = -1;
+
+    private record Entry(SseConnection connection, long deadline) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public SseHeartbeatWheel(long intervalMillis, long tickMillis) {
+        if (tickMillis <= 0 || intervalMillis < tickMillis) {
+            throw new IllegalArgumentException("Heartbeat interval must be at least one tick");
+        }
+        this.intervalMillis = intervalMillis;
+        this.tickMillis = tickMillis;
+        int slotCount = (int) Math.ceil((double) intervalMillis / tickMillis);
+        this.slots = new ConcurrentLinkedQueue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Add a new connection with a random first deadline within one interval,
+     * so a reconnect storm does not line every connection up on the same tick
+     */
+    public void add(SseConnection connection, long nowMillis) {
+        long jitter = ThreadLocalRandom.current().nextLong(intervalMillis);
+        file(connection, nowMillis + jitter);
+    }
+
+    /**
+     * Advance the wheel to nowMillis, visiting every slot passed since the previous tick
+     *
+     * @return number of heartbeats enqueued
+     */
+    public int tick(long nowMillis, Supplier<SseFrame> heartbeat) {
+        long currentTick = nowMillis / tickMillis;
+        long firstTick = lastTick < 0 ? currentTick : Math.max(lastTick + 1, currentTick - slots.length + 1);
+        lastTick = currentTick;
+
+        SseFrame frame = null;
+        int pings = 0;
+        for (long t = firstTick; t <= currentTick; t++) {
+            ConcurrentLinkedQueue<Entry> slot = slots[(int) (t % slots.length)];
+            // Only visit entries present now; re-filed entries may land in this same slot
+            for (int remaining = slot.size(); remaining > 0; remaining--) {
+                Entry entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                SseConnection connection = entry.connection();
+                if (connection.isClosed()) {
+                    continue; // lazily dropped
+                }
+                if (entry.deadline() / tickMillis > currentTick) {
+                    slot.add(entry); // due in a later rotation
+                    continue;
+                }
+
+                long idleDeadline = connection.getLastWriteMillis() + intervalMillis;
+                if (idleDeadline / tickMillis <= currentTick) {
+                    if (frame == null) {
+                        frame = heartbeat.get();
+                    }
+                    if (connection.enqueue(frame)) {
+                        pings++;
+                    }
+                    file(connection, nowMillis + intervalMillis);
+                } else {
+                    // Had real traffic recently: only ping once it has been idle a full interval
+                    file(connection, idleDeadline);
+                }
+            }
+        }
+        return pings;
+    }
+
+    private void file(SseConnection connection, long deadline) {
+        slots[(int) ((deadline / tickMillis) % slots.length)].add(new Entry(connection, deadline));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.backendservice.common.sse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the SSE pipeline (exported as sse.*):
+ * fan-out latency per audience type, per-connection send time, send failures by exception,
+ * events dropped on overflow and disconnects by reason and role.
+ */
+public class SseMetrics {
+
+    /**
+     * Meters that record nothing, for connections created outside {@link SseService}
+     */
+    public static final SseMetrics DISABLED = new SseMetrics(new CompositeMeterRegistry());
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private final MeterRegistry registry;
+    private final Timer sendTimer;
+    private final Counter droppedOnOverflow;
+    private final Map<SseAudienceType, Timer> fanOutTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> sendFailures = new ConcurrentHashMap<>();
+
+    public SseMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.sendTimer = Timer.builder("sse.send")
+                .description("Time to write one event to one connection")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry);
+        this.droppedOnOverflow = Counter.builder("sse.events.dropped")
+                .description("Events discarded because a connection queue was full")
+                .register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    public void recordSend(long nanos) {
+        sendTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFanOut(SseAudienceType audienceType, long nanos) {
+        fanOutTimers.computeIfAbsent(audienceType, type -> Timer.builder("sse.fanout")
+                .description("Time to queue one event for every local recipient")
+                .tag("audience", type.name())
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSendFailure(Exception cause) {
+        sendFailures.computeIfAbsent(cause.getClass().getSimpleName(), exception -> Counter.builder("sse.send.failures")
+                .description("Failed writes to a connection")
+                .tag("exception", exception)
+                .register(registry))
+                .increment();
+    }
+
+    public void recordDropped() {
+        droppedOnOverflow.increment();
+    }
+
+    public void recordDisconnect(SseDisconnectReason reason, String role) {
+        registry.counter("sse.disconnects", "reason", reason.name(), "role", role).increment();
+    }
+
+    /**
+     * Current values for the stats endpoint
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("send", timerSummary(sendTimer));
+
+        Map<String, Object> fanOut = new LinkedHashMap<>();
+        fanOutTimers.forEach((type, timer) -> fanOut.put(type.name(), timerSummary(timer)));
+        snapshot.put("fanOut", fanOut);
+
+        Map<String, Double> failures = new HashMap<>();
+        sendFailures.forEach((exception, counter) -> failures.put(exception, counter.count()));
+        snapshot.put("sendFailures", failures);
+        snapshot.put("droppedOnOverflow", droppedOnOverflow.count());
+
+        // reason -> role -> count
+        Map<String, Map<String, Double>> disconnects = new HashMap<>();
+        registry.find("sse.disconnects").counters().forEach(counter -> disconnects
+                .computeIfAbsent(counter.getId().getTag("reason"), reason -> new HashMap<>())
+                .put(counter.getId().getTag("role"), counter.count()));
+        snapshot.put("disconnects", disconnects);
+        return snapshot;
+    }
+
+    private static Map<String, Object> timerSummary(Timer timer) {
+        HistogramSnapshot histogram = timer.takeSnapshot();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.count());
+        summary.put("meanMs", histogram.mean(TimeUnit.MILLISECONDS));
+        summary.put("maxMs", histogram.max(TimeUnit.MILLISECONDS));
+        for (ValueAtPercentile percentile : histogram.percentileValues()) {
+            summary.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                    percentile.value(TimeUnit.MILLISECONDS));
+        }
+        return summary;
+    }
+}
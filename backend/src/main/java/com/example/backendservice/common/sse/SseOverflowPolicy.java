@@ -0,0 +1,17 @@
+package com.example.backendservice.common.sse;
+
+/**
+ * What to do when a connection's outbound queue is full
+ */
+public enum SseOverflowPolicy {
+
+    /**
+     * Discard the oldest queued event to make room for the new one
+     */
+    DROP_OLDEST,
+
+    /**
+     * Close the connection; the client is expected to reconnect
+     */
+    DISCONNECT
+}
@@ -0,0 +1,160 @@
+package com.example.backendservice.common.sse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-memory history of recently published SSE frames, one ring per audience
+ * ("All", a role, a single user or a topic). Lets a reconnecting client that sends
+ * Last-Event-ID receive only what it missed instead of refetching everything.
+ */
+public class SseReplayBuffer {
+
+    private final int capacityPerAudience;
+    private final long firstIdOfProcess;
+
+    // Shared audiences ("All" and roles) are few and long-lived
+    private final Map<String, Ring> sharedRings = new ConcurrentHashMap<>();
+
+    // Per-user and per-topic rings are bounded in number, least recently used evicted first
+    private final Map<String, Ring> privateRings;
+
+    // Highest id held by any evicted private ring; guarded by privateRings
+    private long privateEvictionFloor = Long.MIN_VALUE;
+
+    public SseReplayBuffer(int capacityPerAudience, int maxPrivateAudiences, long firstIdOfProcess) {
+        this.capacityPerAudience = capacityPerAudience;
+        this.firstIdOfProcess = firstIdOfProcess;
+        this.privateRings = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Ring> eldest) {
+                if (size() <= maxPrivateAudiences) {
+                    return false;
+                }
+                privateEvictionFloor = Math.max(privateEvictionFloor, eldest.getValue().newestId());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Result of a replay lookup
+     *
+     * @param frames   missed frames in id order
+     * @param complete false when some events after the requested id were already evicted,
+     *                 either from a ring or with a whole private ring (or were published
+     *                 before this process started)
+     */
+    public record Replay(List<SseFrame> frames, boolean complete) {
+    }
+
+    /**
+     * @param shared true for "All" and roles, false for per-user and per-topic audiences
+     */
+    public void append(String audience, boolean shared, long id, SseFrame frame) {
+        if (capacityPerAudience <= 0) {
+            return;
+        }
+        Ring ring;
+        if (!shared) {
+            synchronized (privateRings) {
+                ring = privateRings.computeIfAbsent(audience, k -> new Ring(capacityPerAudience));
+            }
+        } else {
+            ring = sharedRings.computeIfAbsent(audience, k -> new Ring(capacityPerAudience));
+        }
+        ring.add(id, frame);
+    }
+
+    /**
+     * Collect frames with id greater than lastEventId from the given audiences
+     */
+    public Replay since(long lastEventId, Collection<String> sharedAudiences, Collection<String> privateAudiences) {
+        List<Entry> collected = new ArrayList<>();
+        boolean complete = lastEventId >= firstIdOfProcess - 1;
+
+        for (String audience : sharedAudiences) {
+            Ring ring = sharedRings.get(audience);
+            if (ring != null) {
+                complete &= ring.collectAfter(lastEventId, collected);
+            }
+        }
+        for (String audience : privateAudiences) {
+            Ring ring;
+            synchronized (privateRings) {
+                // The ring may have been evicted (and maybe recreated) since the client's last event
+                complete &= lastEventId >= privateEvictionFloor;
+                ring = privateRings.get(audience);
+            }
+            if (ring != null) {
+                complete &= ring.collectAfter(lastEventId, collected);
+            }
+        }
+
+        // The same event may be stored under several audiences (e.g. two topics)
+        collected.sort(Comparator.comparingLong(Entry::id));
+        List<SseFrame> frames = new ArrayList<>(collected.size());
+        long previousId = Long.MIN_VALUE;
+        for (Entry entry : collected) {
+            if (entry.id() != previousId) {
+                frames.add(entry.frame());
+                previousId = entry.id();
+            }
+        }
+        return new Replay(frames, complete);
+    }
+
+    private record Entry(long id, SseFrame frame) {
+    }
+
+    /**
+     * Fixed-size ring of (id, frame); ids are appended in increasing order
+     */
+    private static final class Ring {
+
+        private final long[] ids;
+        private final SseFrame[] frames;
+        private int head; // next write position
+        private int size;
+        private long highestEvictedId = Long.MIN_VALUE;
+
+        Ring(int capacity) {
+            this.ids = new long[capacity];
+            this.frames = new SseFrame[capacity];
+        }
+
+        synchronized void add(long id, SseFrame frame) {
+            if (size == ids.length) {
+                highestEvictedId = Math.max(highestEvictedId, ids[head]);
+            } else {
+                size++;
+            }
+            ids[head] = id;
+            frames[head] = frame;
+            head = (head + 1) % ids.length;
+        }
+
+        synchronized long newestId() {
+            return size == 0 ? Long.MIN_VALUE : ids[(head - 1 + ids.length) % ids.length];
+        }
+
+        /**
+         * @return false if an event newer than lastEventId has already been evicted
+         */
+        synchronized boolean collectAfter(long lastEventId, List<Entry> out) {
+            int start = (head - size + ids.length) % ids.length;
+            for (int i = 0; i < size; i++) {
+                int index = (start + i) % ids.length;
+                if (ids[index] > lastEventId) {
+                    out.add(new Entry(ids[index], frames[index]));
+                }
+            }
+            return highestEvictedId <= lastEventId;
+        }
+    }
+}
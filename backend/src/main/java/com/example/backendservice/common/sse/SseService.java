@@ -1,175 +1,529 @@
 package com.example.backendservice.common.sse;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service to manage SSE connections and broadcast events to clients
+ * Service to manage SSE connections and broadcast events to clients.
+ * Every connection owns a bounded outbound queue; broadcasts only enqueue and
+ * the writer (virtual threads in ASYNC mode) pushes events to the sockets.
+ * Each event is rendered once into an {@link SseFrame} shared by all recipients,
+ * gets a monotonically increasing id and is kept in a {@link SseReplayBuffer}
+ * so reconnecting clients can resume from their Last-Event-ID.
+ * Published events go through the {@link SseBroadcastBus}; every node delivers
+ * what it receives from the bus to its own local connections.
+ * Besides roles and users, events can target {@link SseTopic}s (an area, an enterprise,
+ * a collector, a collection request); only connections subscribed to a topic receive them.
+ * Bursty updates can be conflated per coalescing key by the {@link SseCoalescer}.
+ * Fan-out, send and disconnect metrics are recorded through {@link SseMetrics}.
  */
 @Service
 @Slf4j
 public class SseService {
 
-    // Store emitters by user role (for broadcast to role-based groups)
-    private final Map<String, CopyOnWriteArrayList<SseEmitter>> roleEmitters = new ConcurrentHashMap<>();
-
-    // Store emitters by user ID (for targeted notifications)
-    private final Map<String, SseEmitter> userEmitters = new ConcurrentHashMap<>();
+    // Connections by role (for broadcasts), by user (several tabs/devices per user) and by topic
+    private final SseConnectionRegistry registry;
 
     // Default timeout: 30 minutes
     private static final long SSE_TIMEOUT = 30 * 60 * 1000L;
 
+    private final int queueCapacity;
+    private final SseOverflowPolicy overflowPolicy;
+    private final ExecutorService writerExecutor;
+    private final ObjectMapper objectMapper;
+    private final SseBroadcastBus broadcastBus;
+
+    // Event ids are time-seeded so they keep increasing across restarts
+    private final AtomicLong lastEventId = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final SseReplayBuffer replayBuffer;
+    private final SseHeartbeatWheel heartbeatWheel;
+    private final SseCoalescer coalescer;
+    private final SseMetrics metrics;
+
+    public SseService(
+            ObjectMapper objectMapper,
+            SseBroadcastBus broadcastBus,
+            MeterRegistry meterRegistry,
+            @Value("${sse.dispatch.mode:ASYNC}") SseDispatchMode dispatchMode,
+            @Value("${sse.dispatch.queue-capacity:256}") int queueCapacity,
+            @Value("${sse.dispatch.overflow-policy:DROP_OLDEST}") SseOverflowPolicy overflowPolicy,
+            @Value("${sse.replay.buffer-size:100}") int replayBufferSize,
+            @Value("${sse.replay.max-user-audiences:10000}") int maxUserAudiences,
+            @Value("${sse.connections.max-per-user:5}") int maxConnectionsPerUser,
+            @Value("${sse.heartbeat.interval-ms:30000}") long heartbeatIntervalMs,
+            @Value("${sse.heartbeat.tick-ms:1000}") long heartbeatTickMs,
+            @Value("${sse.coalesce.windows:}") String coalesceWindows) {
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("sse.dispatch.queue-capacity must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.broadcastBus = broadcastBus;
+        this.registry = new SseConnectionRegistry(maxConnectionsPerUser);
+        this.heartbeatWheel = new SseHeartbeatWheel(heartbeatIntervalMs, heartbeatTickMs);
+        this.coalescer = new SseCoalescer(SseCoalescer.parseWindows(coalesceWindows));
+        this.metrics = new SseMetrics(meterRegistry);
+        registerGauges(meterRegistry);
+        this.replayBuffer = new SseReplayBuffer(replayBufferSize, maxUserAudiences, lastEventId.get() + 1);
+        this.queueCapacity = queueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.writerExecutor = dispatchMode == SseDispatchMode.ASYNC
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-writer-", 0).factory())
+                : null;
+        broadcastBus.subscribe(this::onBusMessage);
+        log.info("SSE dispatcher: mode={}, queueCapacity={}, overflowPolicy={}, bus={}",
+                dispatchMode, queueCapacity, overflowPolicy, broadcastBus.getClass().getSimpleName());
+    }
+
     /**
      * Create a new SSE connection for a user
-     * 
+     *
      * @param userId   User's ID
-     * @param userRole User's role (Citizen, Collector, Enterprise, Admin)
+     * @param userRole    User's role (Citizen, Collector, Enterprise, Admin)
+     * @param lastEventId Last-Event-ID sent by a reconnecting client, or null
+     * @param topics      Topics to subscribe to right away
      * @return SseEmitter for the connection
      */
-    public SseEmitter createConnection(String userId, String userRole) {
+    public SseEmitter createConnection(String userId, String userRole, String lastEventId,
+            Collection<SseTopic> topics) {
         SseEmitter emitter = new SseEmitter(SSE_TIMEOUT);
+        String connectionId = UUID.randomUUID().toString();
+
+        // Send initial connection event; the id lets the client change its topics later
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("connected")
+                    .data(Map.of(
+                            "message", "Connection established for user: " + userId,
+                            "connectionId", connectionId)));
+        } catch (IOException e) {
+            log.error("Failed to send initial SSE event: {}", e.getMessage());
+            emitter.complete();
+            return emitter;
+        }
 
-        // Store by user ID
-        userEmitters.put(userId, emitter);
+        register(connectionId, userId, userRole, emitter, parseEventId(lastEventId), topics);
+        log.info("SSE connection established for user: {}, role: {}, topics: {}", userId, userRole, topics);
+        return emitter;
+    }
 
-        // Store by role
-        roleEmitters.computeIfAbsent(userRole, k -> new CopyOnWriteArrayList<>()).add(emitter);
-        roleEmitters.computeIfAbsent("All", k -> new CopyOnWriteArrayList<>()).add(emitter);
+    SseConnection register(String userId, String userRole, SseEmitter emitter, Long lastEventId) {
+        return register(UUID.randomUUID().toString(), userId, userRole, emitter, lastEventId, List.of());
+    }
+
+    /**
+     * Register an emitter with its own outbound queue and wire up cleanup callbacks.
+     * When lastEventId is given, missed events (including those of the initial topics)
+     * are replayed before live ones.
+     */
+    SseConnection register(String connectionId, String userId, String userRole, SseEmitter emitter,
+            Long lastEventId, Collection<SseTopic> topics) {
+        SseConnection connection = new SseConnection(connectionId, userId, userRole, emitter,
+                queueCapacity, overflowPolicy,
+                writerExecutor != null ? writerExecutor : Runnable::run,
+                failed -> removeEmitter(failed, failed.getFailureReason()), metrics);
+
+        // Oldest connections of this user beyond the cap are told why and closed
+        for (SseConnection evicted : registry.add(connection)) {
+            log.info("Evicting oldest SSE connection of user {} (max per user reached)", userId);
+            metrics.recordDisconnect(SseDisconnectReason.EVICTED, evicted.getRole());
+            evicted.evict(SseFrame.of(null, "evicted", "Too many connections for user: " + userId));
+        }
+        for (SseTopic topic : topics) {
+            registry.subscribe(connection, topic);
+        }
 
         // Cleanup on completion/error/timeout
-        emitter.onCompletion(() -> removeEmitter(userId, userRole, emitter));
+        emitter.onCompletion(() -> removeEmitter(connection, SseDisconnectReason.COMPLETED));
         emitter.onError(e -> {
             log.warn("SSE error for user {}: {}", userId, e.getMessage());
-            removeEmitter(userId, userRole, emitter);
+            removeEmitter(connection, SseDisconnectReason.ERROR);
         });
         emitter.onTimeout(() -> {
             log.info("SSE timeout for user {}", userId);
-            removeEmitter(userId, userRole, emitter);
+            removeEmitter(connection, SseDisconnectReason.TIMEOUT);
         });
 
-        // Send initial connection event
+        heartbeatWheel.add(connection, System.currentTimeMillis());
+        connection.start(lastEventId != null ? replay(connection, lastEventId) : List.of());
+        return connection;
+    }
+
+    private List<SseFrame> replay(SseConnection connection, long lastEventId) {
+        List<String> privateAudiences = new ArrayList<>(connection.getTopics().size() + 1);
+        privateAudiences.add(userKey(connection.getUserId()));
+        for (SseTopic topic : connection.getTopics()) {
+            privateAudiences.add(topicKey(topic.toString()));
+        }
+        SseReplayBuffer.Replay replay = replayBuffer.since(lastEventId,
+                List.of(SseConnectionRegistry.ALL, connection.getRole()), privateAudiences);
+
+        List<SseFrame> frames = new ArrayList<>(replay.frames().size() + 1);
+        if (!replay.complete()) {
+            // Tell the client that part of the history is gone and it should refetch
+            frames.add(SseFrame.of(null, "replay-incomplete", String.valueOf(lastEventId)));
+        }
+        frames.addAll(replay.frames());
+        log.debug("Replaying {} SSE events to user {} after id {} (complete: {})",
+                replay.frames().size(), connection.getUserId(), lastEventId, replay.complete());
+        return frames;
+    }
+
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
         try {
-            emitter.send(SseEmitter.event()
-                    .name("connected")
-                    .data("Connection established for user: " + userId));
-            log.info("SSE connection established for user: {}, role: {}", userId, userRole);
-        } catch (IOException e) {
-            log.error("Failed to send initial SSE event: {}", e.getMessage());
-            emitter.complete();
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return null;
         }
+    }
 
-        return emitter;
+    /**
+     * Subscribe a live connection to a topic
+     *
+     * @return false if the connection does not exist (anymore)
+     */
+    public boolean subscribe(String connectionId, SseTopic topic) {
+        SseConnection connection = registry.findById(connectionId);
+        if (connection == null || connection.isClosed()) {
+            return false;
+        }
+        registry.subscribe(connection, topic);
+        return true;
+    }
+
+    /**
+     * Unsubscribe a live connection from a topic
+     *
+     * @return false if the connection does not exist (anymore)
+     */
+    public boolean unsubscribe(String connectionId, SseTopic topic) {
+        SseConnection connection = registry.findById(connectionId);
+        if (connection == null) {
+            return false;
+        }
+        registry.unsubscribe(connection, topic);
+        return true;
     }
 
     /**
      * Send event to a specific user
      */
     public void sendToUser(String userId, SseEventData eventData) {
-        SseEmitter emitter = userEmitters.get(userId);
-        if (emitter != null) {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name(eventData.getEventType())
-                        .data(eventData));
-                log.debug("Event sent to user {}: {}", userId, eventData.getEventType());
-            } catch (IOException e) {
-                log.warn("Failed to send to user {}: {}", userId, e.getMessage());
-                userEmitters.remove(userId);
-            }
-        }
+        publish(SseAudienceType.USER, List.of(userId), eventData);
     }
 
     /**
-     * Broadcast event to all users with a specific role
+     * Broadcast event to all users with a specific role.
+     * Only enqueues, so the caller never waits on a client socket.
      */
     public void sendToRole(String role, SseEventData eventData) {
-        CopyOnWriteArrayList<SseEmitter> emitters = roleEmitters.get(role);
-        if (emitters != null) {
-            for (SseEmitter emitter : emitters) {
-                try {
-                    emitter.send(SseEmitter.event()
-                            .name(eventData.getEventType())
-                            .data(eventData));
-                } catch (IOException e) {
-                    emitters.remove(emitter);
-                }
-            }
-            log.debug("Event broadcasted to role {}: {} recipients", role, emitters.size());
-        }
+        publish(SseAudienceType.ROLE, List.of(role), eventData);
     }
 
     /**
      * Broadcast event to all connected users
      */
     public void sendToAll(SseEventData eventData) {
-        sendToRole("All", eventData);
+        sendToRole(SseConnectionRegistry.ALL, eventData);
     }
 
     /**
-     * Send event based on target audience
+     * Send event to the subscribers of a topic
+     */
+    public void sendToTopic(SseTopic topic, SseEventData eventData) {
+        sendToTopics(List.of(topic), eventData);
+    }
+
+    /**
+     * Send event to the subscribers of several topics as one event;
+     * a connection subscribed to more than one of them receives it once
+     */
+    public void sendToTopics(Collection<SseTopic> topics, SseEventData eventData) {
+        if (topics.isEmpty()) {
+            return;
+        }
+        List<String> audiences = new ArrayList<>(topics.size());
+        for (SseTopic topic : topics) {
+            audiences.add(topic.toString());
+        }
+        publish(SseAudienceType.TOPIC, audiences, eventData);
+    }
+
+    /**
+     * Send event based on target audience: "All", a topic ("TYPE:key"), a user id
+     * (UUID or numeric) or otherwise a role name
      */
     public void sendEvent(SseEventData eventData) {
         String target = eventData.getTargetAudience();
 
-        if ("All".equalsIgnoreCase(target)) {
+        if (SseConnectionRegistry.ALL.equalsIgnoreCase(target)) {
             sendToAll(eventData);
-        } else if (target != null && target.matches("\\d+")) {
-            // If target is a numeric ID, send to specific user
+        } else if (SseTopic.isTopic(target)) {
+            sendToTopic(SseTopic.parse(target), eventData);
+        } else if (isUserId(target)) {
             sendToUser(target, eventData);
         } else {
-            // Otherwise, treat as role
             sendToRole(target, eventData);
         }
     }
 
     /**
-     * Remove emitter from all collections
+     * Send event based on target audience, conflating it with other events of the same
+     * type and coalescing key (e.g. a notification id) published within the window
+     * configured for its type in sse.coalesce.windows. Only the latest one is delivered.
      */
-    private void removeEmitter(String userId, String userRole, SseEmitter emitter) {
-        userEmitters.remove(userId);
+    public void sendEvent(SseEventData eventData, String coalescingKey) {
+        coalescer.submit(eventData.getEventType(), coalescingKey, () -> sendEvent(eventData));
+    }
 
-        CopyOnWriteArrayList<SseEmitter> roleList = roleEmitters.get(userRole);
-        if (roleList != null) {
-            roleList.remove(emitter);
+    private static boolean isUserId(String target) {
+        if (target == null || target.isEmpty()) {
+            return false;
         }
+        if (target.length() == 36 && target.charAt(8) == '-') {
+            try {
+                UUID.fromString(target);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        for (int i = 0; i < target.length(); i++) {
+            if (!Character.isDigit(target.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        CopyOnWriteArrayList<SseEmitter> allList = roleEmitters.get("All");
-        if (allList != null) {
-            allList.remove(emitter);
+    /**
+     * Assign the next event id, serialize the event once and hand it to the bus
+     */
+    private void publish(SseAudienceType audienceType, List<String> audiences, SseEventData eventData) {
+        long id = lastEventId.accumulateAndGet(System.currentTimeMillis() * 1000,
+                (previous, now) -> Math.max(previous + 1, now));
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(eventData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize SSE event " + eventData.getEventType(), e);
+        }
+        broadcastBus.publish(new SseBusMessage(id, audienceType, audiences, eventData.getEventType(), data));
+    }
+
+    /**
+     * Frame a message received from the bus, remember it for replay and deliver it locally
+     */
+    private void onBusMessage(SseBusMessage message) {
+        // Keep local ids ahead of ids issued by other nodes
+        lastEventId.accumulateAndGet(message.id(), Math::max);
+
+        SseFrame frame = SseFrame.of(String.valueOf(message.id()), message.eventName(), message.data());
+        for (String audience : message.audiences()) {
+            switch (message.audienceType()) {
+                case ROLE -> replayBuffer.append(audience, true, message.id(), frame);
+                case USER -> replayBuffer.append(userKey(audience), false, message.id(), frame);
+                case TOPIC -> replayBuffer.append(topicKey(audience), false, message.id(), frame);
+            }
+        }
+
+        long startNanos = System.nanoTime();
+        switch (message.audienceType()) {
+            case ROLE -> message.audiences().forEach(role -> deliverToRole(role, frame));
+            case USER -> message.audiences().forEach(userId -> deliverToUser(userId, frame));
+            case TOPIC -> deliverToTopics(message.audiences(), frame);
         }
+        metrics.recordFanOut(message.audienceType(), System.nanoTime() - startNanos);
+    }
 
-        log.debug("Removed SSE emitter for user: {}", userId);
+    // Private replay rings share one namespace, so user ids and topics are prefixed
+    private static String userKey(String userId) {
+        return "user:" + userId;
+    }
+
+    private static String topicKey(String topic) {
+        return "topic:" + topic;
+    }
+
+    private void deliverToUser(String userId, SseFrame frame) {
+        int recipients = 0;
+        for (SseConnection connection : registry.forUser(userId)) {
+            if (connection.enqueue(frame)) {
+                recipients++;
+            }
+        }
+        log.debug("Event queued for user {}: {} ({} connections)", userId, frame.getEventName(), recipients);
+    }
+
+    private void deliverToRole(String role, SseFrame frame) {
+        Collection<SseConnection> connections = registry.forRole(role);
+        for (SseConnection connection : connections) {
+            connection.enqueue(frame);
+        }
+        log.debug("Event queued for role {}: {} recipients", role, connections.size());
+    }
+
+    private void deliverToTopics(List<String> topics, SseFrame frame) {
+        if (topics.size() == 1) {
+            Collection<SseConnection> connections = registry.forTopic(SseTopic.parse(topics.get(0)));
+            for (SseConnection connection : connections) {
+                connection.enqueue(frame);
+            }
+            log.debug("Event queued for topic {}: {} recipients", topics.get(0), connections.size());
+            return;
+        }
+        // Union of the subscriber sets, so overlapping subscribers get the event once
+        Set<SseConnection> recipients = new HashSet<>();
+        for (String topic : topics) {
+            recipients.addAll(registry.forTopic(SseTopic.parse(topic)));
+        }
+        for (SseConnection connection : recipients) {
+            connection.enqueue(frame);
+        }
+        log.debug("Event queued for topics {}: {} recipients", topics, recipients.size());
+    }
+
+    /**
+     * Remove connection from the registry; O(1), safe to call more than once.
+     * Only the first call for a connection counts as a disconnect.
+     */
+    void removeEmitter(SseConnection connection, SseDisconnectReason reason) {
+        connection.close();
+        if (registry.remove(connection)) {
+            metrics.recordDisconnect(reason, connection.getRole());
+            log.debug("Removed SSE emitter for user: {} ({})", connection.getUserId(), reason);
+        }
     }
 
     /**
      * Get count of active connections
      */
     public int getActiveConnectionCount() {
-        return userEmitters.size();
+        return registry.getConnectionCount();
+    }
+
+    /**
+     * Get count of distinct connected users
+     */
+    public int getConnectedUserCount() {
+        return registry.getUserCount();
     }
 
     /**
      * Get count of connections by role
      */
     public Map<String, Integer> getConnectionCountByRole() {
-        Map<String, Integer> counts = new ConcurrentHashMap<>();
-        roleEmitters.forEach((role, emitters) -> counts.put(role, emitters.size()));
-        return counts;
+        return registry.getConnectionCountByRole();
     }
 
     /**
-     * Heartbeat to keep connections alive
-     * Runs every 30 seconds
+     * Get count of events dropped by conflation, by event type
      */
-    @Scheduled(fixedRate = 30000)
+    public Map<String, Long> getConflatedEventCounts() {
+        return coalescer.getConflatedCounts();
+    }
+
+    /**
+     * Full statistics: connection counts, queue depths and the recorded metrics
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalConnections", getActiveConnectionCount());
+        stats.put("connectedUsers", getConnectedUserCount());
+        stats.put("connectionsByRole", getConnectionCountByRole());
+        stats.put("activeTopics", getActiveTopicCount());
+        stats.put("conflatedEvents", getConflatedEventCounts());
+        stats.put("queueDepthTotal", getTotalQueueDepth());
+        stats.put("queueDepthMax", getMaxQueueDepth());
+        stats.putAll(metrics.snapshot());
+        return stats;
+    }
+
+    /**
+     * Events waiting in all connection queues
+     */
+    public long getTotalQueueDepth() {
+        long total = 0;
+        for (SseConnection connection : registry.forRole(SseConnectionRegistry.ALL)) {
+            total += connection.getQueueDepth();
+        }
+        return total;
+    }
+
+    /**
+     * Deepest connection queue, i.e. the slowest client
+     */
+    public int getMaxQueueDepth() {
+        int max = 0;
+        for (SseConnection connection : registry.forRole(SseConnectionRegistry.ALL)) {
+            max = Math.max(max, connection.getQueueDepth());
+        }
+        return max;
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry) {
+        Gauge.builder("sse.connections.active", this, SseService::getActiveConnectionCount)
+                .description("Open SSE connections on this node")
+                .register(meterRegistry);
+        Gauge.builder("sse.users.connected", this, SseService::getConnectedUserCount)
+                .register(meterRegistry);
+        Gauge.builder("sse.topics.active", this, SseService::getActiveTopicCount)
+                .register(meterRegistry);
+        Gauge.builder("sse.queue.depth.total", this, SseService::getTotalQueueDepth)
+                .description("Events waiting in all connection queues")
+                .register(meterRegistry);
+        Gauge.builder("sse.queue.depth.max", this, SseService::getMaxQueueDepth)
+                .description("Events waiting in the deepest connection queue")
+                .register(meterRegistry);
+        Gauge.builder("sse.coalesce.pending", coalescer, SseCoalescer::getPendingCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get count of topics with at least one subscriber
+     */
+    public int getActiveTopicCount() {
+        return registry.getTopicCount();
+    }
+
+    /**
+     * Heartbeat to keep connections alive.
+     * Each tick visits one slot of the timer wheel and pings only connections
+     * that have been idle for a full interval, spreading pings across the period.
+     */
+    @Scheduled(fixedRateString = "${sse.heartbeat.tick-ms:1000}")
     public void sendHeartbeat() {
+        int pings = heartbeatWheel.tick(System.currentTimeMillis(), this::renderHeartbeat);
+        if (pings > 0) {
+            log.trace("Heartbeat sent to {} idle connections", pings);
+        }
+    }
+
+    private SseFrame renderHeartbeat() {
         SseEventData heartbeat = SseEventData.builder()
                 .eventType("HEARTBEAT")
                 .payload("ping")
@@ -177,7 +531,22 @@ public class SseService {
                 .targetAudience("All")
                 .build();
 
-        sendToAll(heartbeat);
-        log.trace("Heartbeat sent to {} connections", getActiveConnectionCount());
+        // Heartbeats carry no id and are not kept for replay
+        return SseFrame.render(null, heartbeat, objectMapper);
+    }
+
+    /**
+     * Publish events still held by the conflation window right away
+     */
+    void flushCoalesced() {
+        coalescer.flush();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.shutdown();
+        if (writerExecutor != null) {
+            writerExecutor.shutdownNow();
+        }
     }
 }
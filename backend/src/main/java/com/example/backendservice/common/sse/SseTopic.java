@@ -0,0 +1,61 @@
+package com.example.backendservice.common.sse;
+
+import com.example.backendservice.common.exception.BadRequestException;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * A typed subscription topic such as "AREA:&lt;areaId&gt;" or "COLLECTION_REQUEST:&lt;requestId&gt;"
+ */
+public record SseTopic(SseTopicType type, String key) {
+
+    public SseTopic {
+        if (type == null || key == null || key.isBlank()) {
+            throw new BadRequestException("Topic type and key are required");
+        }
+    }
+
+    public static SseTopic of(SseTopicType type, UUID id) {
+        return new SseTopic(type, id.toString());
+    }
+
+    /**
+     * Parse "TYPE:key" (type is case-insensitive)
+     */
+    public static SseTopic parse(String value) {
+        int separator = value != null ? value.indexOf(':') : -1;
+        if (separator <= 0) {
+            throw new BadRequestException("Invalid topic '" + value + "', expected TYPE:key");
+        }
+        SseTopicType type;
+        try {
+            type = SseTopicType.valueOf(value.substring(0, separator).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown topic type in '" + value + "'");
+        }
+        return new SseTopic(type, value.substring(separator + 1).trim());
+    }
+
+    /**
+     * True when the value looks like "TYPE:key" with a known type
+     */
+    public static boolean isTopic(String value) {
+        int separator = value != null ? value.indexOf(':') : -1;
+        if (separator <= 0) {
+            return false;
+        }
+        String type = value.substring(0, separator).toUpperCase(Locale.ROOT);
+        for (SseTopicType candidate : SseTopicType.values()) {
+            if (candidate.name().equals(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return type + ":" + key;
+    }
+}
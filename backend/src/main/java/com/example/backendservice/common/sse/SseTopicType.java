@@ -0,0 +1,11 @@
+package com.example.backendservice.common.sse;
+
+/**
+ * Kinds of topics a client can subscribe to
+ */
+public enum SseTopicType {
+    AREA,
+    ENTERPRISE,
+    COLLECTOR,
+    COLLECTION_REQUEST
+}
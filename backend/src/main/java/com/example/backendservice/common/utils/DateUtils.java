@@ -1,6 +1,10 @@
 package com.example.backendservice.common.utils;
 
+import com.example.backendservice.common.constants.AppConstants;
+
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
 public final class DateUtils {
@@ -9,6 +13,8 @@ public final class DateUtils {
         throw new IllegalStateException("Utility class");
     }
 
+    public static final ZoneId BUSINESS_ZONE = ZoneId.of(AppConstants.BUSINESS_TIME_ZONE);
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
@@ -23,4 +29,26 @@ public final class DateUtils {
     public static LocalDateTime parseDateTime(String dateTimeStr) {
         return dateTimeStr != null ? LocalDateTime.parse(dateTimeStr, DATE_TIME_FORMATTER) : null;
     }
+
+    /**
+     * Server-local timestamp (as @CreationTimestamp writes it) read on the business clock
+     */
+    public static LocalDateTime toBusinessTime(LocalDateTime serverTime) {
+        return serverTime != null
+                ? serverTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(BUSINESS_ZONE).toLocalDateTime()
+                : null;
+    }
+
+    /**
+     * Business-clock timestamp converted back to server-local time, for comparing with stored columns
+     */
+    public static LocalDateTime fromBusinessTime(LocalDateTime businessTime) {
+        return businessTime != null
+                ? businessTime.atZone(BUSINESS_ZONE).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime()
+                : null;
+    }
+
+    public static LocalDate businessToday() {
+        return LocalDate.now(BUSINESS_ZONE);
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.backendservice.common.utils;
+
+import java.util.List;
+
+/**
+ * Great-circle distances and a numeric geohash for indexed proximity search.
+ * A point's cell is its latitude and longitude, each quantized to {@link #CELL_BITS} bits and
+ * interleaved (Z-order): the top 2L bits of a cell are the level-L cell containing it, so every
+ * level-L cell is one contiguous range of cell values and can be read with a B-tree range scan.
+ */
+public final class GeoUtils {
+
+    private GeoUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+    public static final int CELL_BITS = 30;
+
+    private static final long CELLS_PER_AXIS = 1L << CELL_BITS;
+
+    public record CellRange(long start, long end) {
+    }
+
+    /**
+     * Bounding box of a circle and the (at most four) cells covering it; may list a cell twice
+     */
+    public record SearchArea(double minLat, double maxLat, double minLng, double maxLng, List<CellRange> cells) {
+
+        public boolean contains(double lat, double lng) {
+            return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+        }
+    }
+
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Finest-level cell of a point
+     */
+    public static long cellOf(double lat, double lng) {
+        return spread(quantize(lng + 180, 360)) << 1 | spread(quantize(lat + 90, 180));
+    }
+
+    /**
+     * Cells to scan for the points within radiusKm of (lat, lng): the four cells at the box's corners,
+     * on the finest level whose cells are at least as tall and wide as the box, so no other cell
+     * can overlap it. Boxes reaching past the antimeridian are cut at +/-180.
+     */
+    public static SearchArea searchArea(double lat, double lng, double radiusKm) {
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double minLat = Math.max(lat - dLat, -90);
+        double maxLat = Math.min(lat + dLat, 90);
+        double widestLat = Math.max(Math.abs(minLat), Math.abs(maxLat));
+        double cos = Math.cos(Math.toRadians(widestLat));
+        double dLng = cos > 1e-9 ? dLat / cos : 180;
+        double minLng = Math.max(lng - dLng, -180);
+        double maxLng = Math.min(lng + dLng, 180);
+
+        int level = CELL_BITS;
+        while (level > 0 && (180.0 / (1L << level) < maxLat - minLat || 360.0 / (1L << level) < maxLng - minLng)) {
+            level--;
+        }
+        List<CellRange> cells = List.of(
+                cellRange(cellOf(minLat, minLng), level),
+                cellRange(cellOf(minLat, maxLng), level),
+                cellRange(cellOf(maxLat, minLng), level),
+                cellRange(cellOf(maxLat, maxLng), level));
+        return new SearchArea(minLat, maxLat, minLng, maxLng, cells);
+    }
+
+    // Range of finest-level cells inside the level-L cell containing cell
+    private static CellRange cellRange(long cell, int level) {
+        int shift = 2 * (CELL_BITS - level);
+        long start = cell >>> shift << shift;
+        return new CellRange(start, start | ((1L << shift) - 1));
+    }
+
+    private static long quantize(double offset, double span) {
+        long index = (long) Math.floor(offset / span * CELLS_PER_AXIS);
+        return Math.max(0, Math.min(index, CELLS_PER_AXIS - 1));
+    }
+
+    // Bits of a 30-bit value moved to the even positions of a long
+    private static long spread(long value) {
+        long x = value;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        x = (x | x << 4) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | x << 2) & 0x3333333333333333L;
+        x = (x | x << 1) & 0x5555555555555555L;
+        return x;
+    }
+}
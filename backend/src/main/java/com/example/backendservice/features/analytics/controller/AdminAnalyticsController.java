@@ -0,0 +1,55 @@
+package com.example.backendservice.features.analytics.controller;
+
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.features.analytics.service.PlatformAnalyticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("api/v1/admin/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Admin Analytics", description = "APIs báo cáo thống kê toàn hệ thống")
+public class AdminAnalyticsController {
+
+        private final PlatformAnalyticsService platformAnalyticsService;
+        private final ObjectMapper objectMapper;
+
+        @GetMapping(value = "/platform", produces = MediaType.APPLICATION_NDJSON_VALUE)
+        @PreAuthorize("hasRole('ADMIN')")
+        @Operation(summary = "Thống kê toàn hệ thống theo doanh nghiệp và khu vực (NDJSON)",
+                        description = "Mỗi dòng một doanh nghiệp khi phân vùng của nó xong, sau đó từng khu vực, cuối cùng là tổng hệ thống")
+        public ResponseEntity<StreamingResponseBody> streamPlatformAnalytics(
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+                if (endDate.isBefore(startDate)) {
+                        throw new BadRequestException("endDate must not be before startDate");
+                }
+
+                StreamingResponseBody body = out -> platformAnalyticsService.streamPlatformAnalytics(
+                                startDate, endDate, line -> {
+                                        try {
+                                                out.write(objectMapper.writeValueAsBytes(line));
+                                                out.write('\n');
+                                                out.flush();
+                                        } catch (IOException e) {
+                                                throw new UncheckedIOException(e);
+                                        }
+                                });
+                return ResponseEntity.ok()
+                                .contentType(MediaType.APPLICATION_NDJSON)
+                                .body(body);
+        }
+}
@@ -2,7 +2,9 @@ package com.example.backendservice.features.analytics.controller;
 
 import com.example.backendservice.common.dto.ApiResponse;
 import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
 import com.example.backendservice.features.analytics.service.AnalyticsService;
+import com.example.backendservice.features.analytics.service.CompletionTimeStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +23,7 @@ import java.util.UUID;
 public class AnalyticsController {
 
         private final AnalyticsService analyticsService;
+        private final CompletionTimeStatsService completionTimeStatsService;
 
         @GetMapping("/enterprise/{enterpriseId}")
         @Operation(summary = "Lấy toàn bộ thống kê của doanh nghiệp")
@@ -81,4 +84,41 @@ public class AnalyticsController {
                                 enterpriseId, startDate, endDate);
                 return ResponseEntity.ok(ApiResponse.success(response));
         }
+
+        @GetMapping("/enterprise/{enterpriseId}/series")
+        @Operation(summary = "Thống kê theo giờ/ngày/tuần/tháng (giờ Việt Nam)")
+        public ResponseEntity<ApiResponse<List<TimeBucketStatDTO>>> getTimeSeries(
+                        @PathVariable UUID enterpriseId,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                        @RequestParam(defaultValue = "DAY") AnalyticsGranularity granularity) {
+
+                List<TimeBucketStatDTO> response = analyticsService.getTimeSeries(
+                                enterpriseId, startDate, endDate, granularity);
+                return ResponseEntity.ok(ApiResponse.success(response));
+        }
+
+        @GetMapping("/enterprise/{enterpriseId}/comparison")
+        @Operation(summary = "So sánh với kỳ trước hoặc cùng kỳ năm trước (chênh lệch và tăng trưởng)")
+        public ResponseEntity<ApiResponse<PeriodComparisonDTO>> getPeriodComparison(
+                        @PathVariable UUID enterpriseId,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+                        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+                        @RequestParam(defaultValue = "PREVIOUS_PERIOD") ComparisonBaseline baseline) {
+
+                PeriodComparisonDTO response = analyticsService.getPeriodComparison(
+                                enterpriseId, startDate, endDate, baseline);
+                return ResponseEntity.ok(ApiResponse.success(response));
+        }
+
+        @GetMapping("/completion-time/{dimension}/{dimensionId}")
+        @Operation(summary = "Phân vị thời gian hoàn thành (p50/p90/p99) theo người thu gom, doanh nghiệp hoặc khu vực")
+        public ResponseEntity<ApiResponse<CompletionTimePercentilesDTO>> getCompletionTimePercentiles(
+                        @PathVariable CompletionTimeDimension dimension,
+                        @PathVariable UUID dimensionId) {
+
+                CompletionTimePercentilesDTO response = completionTimeStatsService.getPercentiles(
+                                dimension, dimensionId);
+                return ResponseEntity.ok(ApiResponse.success(response));
+        }
 }
@@ -0,0 +1,51 @@
+package com.example.backendservice.features.analytics.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of one bucket of an analytics time series, on the business (Asia/Ho_Chi_Minh) clock
+ */
+public enum AnalyticsGranularity {
+
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS),
+
+    /**
+     * ISO weeks, starting on Monday
+     */
+    WEEK(ChronoUnit.WEEKS),
+
+    MONTH(ChronoUnit.MONTHS);
+
+    private final ChronoUnit unit;
+
+    AnalyticsGranularity(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    /**
+     * Start of the bucket containing the given time
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Position of a bucket start in a series starting at first
+     */
+    public int index(LocalDateTime first, LocalDateTime bucketStart) {
+        return (int) unit.between(first, bucketStart);
+    }
+
+    public LocalDateTime plus(LocalDateTime bucketStart, long buckets) {
+        return bucketStart.plus(buckets, unit);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.backendservice.features.analytics.dto;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Window a period is compared against in period-over-period analytics
+ */
+public enum ComparisonBaseline {
+
+    /**
+     * The same number of days right before the period: this week vs last week
+     */
+    PREVIOUS_PERIOD,
+
+    /**
+     * The same dates one year earlier: this month vs the same month last year
+     */
+    PREVIOUS_YEAR;
+
+    public LocalDate baselineStart(LocalDate startDate, LocalDate endDate) {
+        return switch (this) {
+            case PREVIOUS_PERIOD -> startDate.minusDays(ChronoUnit.DAYS.between(startDate, endDate) + 1);
+            case PREVIOUS_YEAR -> startDate.minusYears(1);
+        };
+    }
+
+    public LocalDate baselineEnd(LocalDate startDate, LocalDate endDate) {
+        return switch (this) {
+            case PREVIOUS_PERIOD -> startDate.minusDays(1);
+            case PREVIOUS_YEAR -> endDate.minusYears(1);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One collected request as read for a sketch rebuild: who collected it, for which enterprise
+ * and area (null when its report has none), and when it was assigned and collected
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionSample {
+
+    private UUID collectorId;
+    private UUID enterpriseId;
+    private UUID areaId;
+    private Instant assignedAt;
+    private Instant collectedAt;
+}
@@ -0,0 +1,28 @@
+package com.example.backendservice.features.analytics.dto;
+
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Completion time (assignedAt to collectedAt) percentiles of a collector, enterprise or area.
+ * Percentiles are within 1% of the exact value; all minute fields are null when nothing was collected.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionTimePercentilesDTO {
+
+    private CompletionTimeDimension dimension;
+    private UUID dimensionId;
+    private long sampleCount;
+    private Double averageMinutes;
+    private Double p50Minutes;
+    private Double p90Minutes;
+    private Double p99Minutes;
+}
@@ -0,0 +1,29 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * One enterprise_daily_stats row with the area and waste type names resolved.
+ * Names are null when the task had no area or waste type.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class DailyRollupRow {
+
+    private LocalDate date;
+    private UUID areaId;
+    private String areaName;
+    private UUID wasteTypeId;
+    private String wasteTypeName;
+    private long taskCount;
+    private long pendingCount;
+    private long completedCount;
+    private long cancelledCount;
+    private long completedSameDayCount;
+    private double weightKg;
+    private long points;
+}
@@ -0,0 +1,21 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnterpriseTotalsDTO {
+
+    private UUID enterpriseId;
+    private String enterpriseName;
+    private Long totalTasks;
+    private Long pendingTasks;
+    private Long completedTasks;
+    private Long cancelledTasks;
+    private Double totalWeightKg;
+    private Long totalPoints;
+}
@@ -0,0 +1,26 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MetricComparisonDTO {
+
+    private Double current;
+    private Double baseline;
+    private Double delta;
+
+    // (current - baseline) / baseline * 100; null when the baseline is zero
+    private Double growthPercent;
+
+    public static MetricComparisonDTO of(double current, double baseline) {
+        return MetricComparisonDTO.builder()
+                .current(current)
+                .baseline(baseline)
+                .delta(current - baseline)
+                .growthPercent(baseline != 0 ? (current - baseline) / baseline * 100 : null)
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * An enterprise's totals over a period next to those of its baseline window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeriodComparisonDTO {
+
+    private ComparisonBaseline baseline;
+
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private LocalDate baselineStart;
+    private LocalDate baselineEnd;
+
+    private MetricComparisonDTO totalTasks;
+    private MetricComparisonDTO completedTasks;
+    private MetricComparisonDTO cancelledTasks;
+    private MetricComparisonDTO weightCollectedKg;
+    private MetricComparisonDTO pointsAwarded;
+}
@@ -0,0 +1,25 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+/**
+ * Rollup totals of one enterprise over a period and its baseline window, read in one query.
+ * Sums are null when neither window has rows.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class PeriodComparisonRow {
+
+    private Long currentTasks;
+    private Long currentCompleted;
+    private Long currentCancelled;
+    private Double currentWeightKg;
+    private Long currentPoints;
+
+    private Long baselineTasks;
+    private Long baselineCompleted;
+    private Long baselineCancelled;
+    private Double baselineWeightKg;
+    private Long baselinePoints;
+}
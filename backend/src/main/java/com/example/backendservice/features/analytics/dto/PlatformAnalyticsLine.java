@@ -0,0 +1,24 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+/**
+ * One line of the streamed platform analytics (NDJSON).
+ * Enterprise lines arrive as their partitions finish, then one line per area,
+ * then a single platform summary line.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformAnalyticsLine {
+
+    public static final String ENTERPRISE = "enterprise";
+    public static final String AREA = "area";
+    public static final String PLATFORM = "platform";
+
+    private String type;
+
+    // EnterpriseTotalsDTO, AreaSummaryDTO or EnterpriseSummaryDTO, by type
+    private Object data;
+}
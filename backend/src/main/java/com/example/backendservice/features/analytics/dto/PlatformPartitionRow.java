@@ -0,0 +1,26 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+import java.util.UUID;
+
+/**
+ * Rollup totals of one enterprise in one area over a period.
+ * The area is EnterpriseDailyStatsId.NONE (name null) for tasks without an area.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class PlatformPartitionRow {
+
+    private UUID enterpriseId;
+    private String enterpriseName;
+    private UUID areaId;
+    private String areaName;
+    private Long taskCount;
+    private Long pendingCount;
+    private Long completedCount;
+    private Long cancelledCount;
+    private Double weightKg;
+    private Long points;
+}
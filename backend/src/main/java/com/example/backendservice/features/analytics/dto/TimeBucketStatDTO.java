@@ -0,0 +1,19 @@
+package com.example.backendservice.features.analytics.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeBucketStatDTO {
+
+    // Asia/Ho_Chi_Minh local time
+    private LocalDateTime bucketStart;
+    private Long tasksCreated;
+    private Long tasksCompleted;
+    private Double weightCollectedKg;
+    private Integer pointsAwarded;
+}
@@ -0,0 +1,10 @@
+package com.example.backendservice.features.analytics.entity;
+
+/**
+ * Nhóm thống kê thời gian hoàn thành: theo người thu gom, doanh nghiệp hoặc khu vực
+ */
+public enum CompletionTimeDimension {
+    COLLECTOR,
+    ENTERPRISE,
+    AREA
+}
@@ -0,0 +1,27 @@
+package com.example.backendservice.features.analytics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Khóa của một sketch: nhóm thống kê và id của người thu gom / doanh nghiệp / khu vực
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionTimeSketchId implements Serializable {
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dimension", length = 20, nullable = false)
+    private CompletionTimeDimension dimension;
+
+    @Column(name = "dimension_id", columnDefinition = "uuid", nullable = false)
+    private UUID dimensionId;
+}
@@ -0,0 +1,46 @@
+package com.example.backendservice.features.analytics.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Thống kê task theo ngày (Enterprise Daily Stats)
+ * Bảng tổng hợp được cập nhật tăng dần khi task thay đổi, để báo cáo không phải quét bảng tasks.
+ * Task được tính vào ngày tạo; các cột trạng thái phản ánh trạng thái hiện tại của task.
+ */
+@Entity
+@Table(name = "enterprise_daily_stats", indexes = {
+        // Analytics read one enterprise's rows over a stat_date range; the primary key leads with stat_date
+        @Index(name = "idx_enterprise_daily_stats_enterprise_date", columnList = "enterprise_id, stat_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnterpriseDailyStats {
+
+    @EmbeddedId
+    private EnterpriseDailyStatsId id;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    @Column(name = "pending_count", nullable = false)
+    private long pendingCount;
+
+    @Column(name = "completed_count", nullable = false)
+    private long completedCount;
+
+    @Column(name = "cancelled_count", nullable = false)
+    private long cancelledCount;
+
+    // Completed on the day they were created
+    @Column(name = "completed_same_day_count", nullable = false)
+    private long completedSameDayCount;
+
+    @Column(name = "weight_kg", nullable = false)
+    private double weightKg;
+
+    @Column(name = "points", nullable = false)
+    private long points;
+}
@@ -0,0 +1,35 @@
+package com.example.backendservice.features.analytics.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Khóa của một dòng thống kê ngày: doanh nghiệp, ngày tạo task, khu vực, loại rác.
+ * Task không có khu vực / loại rác dùng {@link #NONE} để khóa luôn khác null
+ * (ON CONFLICT không so khớp được NULL).
+ */
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnterpriseDailyStatsId implements Serializable {
+
+    public static final UUID NONE = new UUID(0L, 0L);
+
+    @Column(name = "enterprise_id", columnDefinition = "uuid", nullable = false)
+    private UUID enterpriseId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "area_id", columnDefinition = "uuid", nullable = false)
+    private UUID areaId;
+
+    @Column(name = "waste_type_id", columnDefinition = "uuid", nullable = false)
+    private UUID wasteTypeId;
+}
@@ -0,0 +1,38 @@
+package com.example.backendservice.features.analytics.repository;
+
+import com.example.backendservice.features.analytics.dto.CompletionSample;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketch;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketchId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface CompletionTimeSketchRepository extends JpaRepository<CompletionTimeSketch, CompletionTimeSketchId> {
+
+    /**
+     * Row lock held until the flush commits, so two nodes merging into one sketch cannot lose each other's samples
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CompletionTimeSketch s WHERE s.id = :id")
+    Optional<CompletionTimeSketch> findForUpdate(@Param("id") CompletionTimeSketchId id);
+
+    /**
+     * Every collected request with both timestamps, for rebuilding the sketches; must be closed
+     * inside a transaction
+     */
+    @Query("SELECT new com.example.backendservice.features.analytics.dto.CompletionSample(" +
+            "c.collectorId, c.enterpriseId, a.id, c.assignedAt, c.collectedAt) " +
+            "FROM CollectionRequest c " +
+            "LEFT JOIN WasteReport r ON r.id = c.reportId " +
+            "LEFT JOIN r.area a " +
+            "WHERE c.status = 'COLLECTED' AND c.assignedAt IS NOT NULL AND c.collectedAt IS NOT NULL")
+    Stream<CompletionSample> streamCompletionSamples();
+}
@@ -0,0 +1,186 @@
+package com.example.backendservice.features.analytics.repository;
+
+import com.example.backendservice.features.analytics.dto.DailyRollupRow;
+import com.example.backendservice.features.analytics.dto.PeriodComparisonRow;
+import com.example.backendservice.features.analytics.dto.PlatformPartitionRow;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStats;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EnterpriseDailyStatsRepository extends JpaRepository<EnterpriseDailyStats, EnterpriseDailyStatsId> {
+
+    // Series queries: [bucket start, tasks created, completed the same day, weight, points] per bucket
+    // that has rows; each one differs only in the bucket expression
+    String SERIES_SELECT = "SELECT b.bucket, SUM(b.task_count), SUM(b.completed_same_day_count), " +
+            "SUM(b.weight_kg), SUM(b.points) FROM (SELECT ";
+    String SERIES_FROM = " AS bucket, task_count, completed_same_day_count, weight_kg, points " +
+            "FROM enterprise_daily_stats WHERE enterprise_id = :enterpriseId " +
+            "AND stat_date >= :startDate AND stat_date <= :endDate) b GROUP BY b.bucket";
+
+    // Period comparison: each sum only counts rows inside its window
+    String IN_PERIOD = "s.id.statDate >= :startDate AND s.id.statDate <= :endDate";
+    String IN_BASELINE = "s.id.statDate >= :baselineStart AND s.id.statDate <= :baselineEnd";
+
+    @Query("SELECT new com.example.backendservice.features.analytics.dto.DailyRollupRow(" +
+            "s.id.statDate, s.id.areaId, a.name, s.id.wasteTypeId, wt.name, " +
+            "s.taskCount, s.pendingCount, s.completedCount, s.cancelledCount, s.completedSameDayCount, " +
+            "s.weightKg, s.points) " +
+            "FROM EnterpriseDailyStats s " +
+            "LEFT JOIN ServiceArea a ON a.id = s.id.areaId " +
+            "LEFT JOIN WasteType wt ON wt.id = s.id.wasteTypeId " +
+            "WHERE s.id.enterpriseId = :enterpriseId " +
+            "AND s.id.statDate >= :startDate AND s.id.statDate <= :endDate")
+    List<DailyRollupRow> findRows(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Totals of a period and of its baseline window in one pass over both date ranges.
+     * The windows may overlap; a row inside both counts in both.
+     */
+    @Query("SELECT new com.example.backendservice.features.analytics.dto.PeriodComparisonRow(" +
+            "SUM(CASE WHEN " + IN_PERIOD + " THEN s.taskCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_PERIOD + " THEN s.completedCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_PERIOD + " THEN s.cancelledCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_PERIOD + " THEN s.weightKg ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_PERIOD + " THEN s.points ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_BASELINE + " THEN s.taskCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_BASELINE + " THEN s.completedCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_BASELINE + " THEN s.cancelledCount ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_BASELINE + " THEN s.weightKg ELSE 0 END), " +
+            "SUM(CASE WHEN " + IN_BASELINE + " THEN s.points ELSE 0 END)) " +
+            "FROM EnterpriseDailyStats s " +
+            "WHERE s.id.enterpriseId = :enterpriseId " +
+            "AND ((" + IN_PERIOD + ") OR (" + IN_BASELINE + "))")
+    PeriodComparisonRow findPeriodComparison(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate,
+            @Param("baselineStart") LocalDate baselineStart,
+            @Param("baselineEnd") LocalDate baselineEnd);
+
+    @Query("SELECT DISTINCT s.id.enterpriseId FROM EnterpriseDailyStats s " +
+            "WHERE s.id.statDate >= :startDate AND s.id.statDate <= :endDate")
+    List<UUID> findEnterpriseIds(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Per enterprise and area totals of a group of enterprises (one platform analytics partition)
+     */
+    @Query("SELECT new com.example.backendservice.features.analytics.dto.PlatformPartitionRow(" +
+            "s.id.enterpriseId, e.name, s.id.areaId, a.name, " +
+            "SUM(s.taskCount), SUM(s.pendingCount), SUM(s.completedCount), SUM(s.cancelledCount), " +
+            "SUM(s.weightKg), SUM(s.points)) " +
+            "FROM EnterpriseDailyStats s " +
+            "LEFT JOIN Enterprise e ON e.id = s.id.enterpriseId " +
+            "LEFT JOIN ServiceArea a ON a.id = s.id.areaId " +
+            "WHERE s.id.enterpriseId IN :enterpriseIds " +
+            "AND s.id.statDate >= :startDate AND s.id.statDate <= :endDate " +
+            "GROUP BY s.id.enterpriseId, e.name, s.id.areaId, a.name")
+    List<PlatformPartitionRow> findPartitionTotals(
+            @Param("enterpriseIds") Collection<UUID> enterpriseIds,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query(value = SERIES_SELECT + "CAST(stat_date AS TIMESTAMP)" + SERIES_FROM, nativeQuery = true)
+    List<Object[]> findDailySeries(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query(value = SERIES_SELECT + "DATE_TRUNC('week', CAST(stat_date AS TIMESTAMP))" + SERIES_FROM,
+            nativeQuery = true)
+    List<Object[]> findWeeklySeries(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    @Query(value = SERIES_SELECT + "DATE_TRUNC('month', CAST(stat_date AS TIMESTAMP))" + SERIES_FROM,
+            nativeQuery = true)
+    List<Object[]> findMonthlySeries(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Add a (possibly negative) delta to one row, creating it if needed.
+     * Concurrent task changes on the same row serialize on the row lock instead of failing.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO enterprise_daily_stats (enterprise_id, stat_date, area_id, waste_type_id,
+                task_count, pending_count, completed_count, cancelled_count, completed_same_day_count,
+                weight_kg, points)
+            VALUES (:enterpriseId, :statDate, :areaId, :wasteTypeId,
+                :taskCount, :pendingCount, :completedCount, :cancelledCount, :completedSameDayCount,
+                :weightKg, :points)
+            ON CONFLICT (enterprise_id, stat_date, area_id, waste_type_id) DO UPDATE SET
+                task_count = enterprise_daily_stats.task_count + EXCLUDED.task_count,
+                pending_count = enterprise_daily_stats.pending_count + EXCLUDED.pending_count,
+                completed_count = enterprise_daily_stats.completed_count + EXCLUDED.completed_count,
+                cancelled_count = enterprise_daily_stats.cancelled_count + EXCLUDED.cancelled_count,
+                completed_same_day_count = enterprise_daily_stats.completed_same_day_count
+                    + EXCLUDED.completed_same_day_count,
+                weight_kg = enterprise_daily_stats.weight_kg + EXCLUDED.weight_kg,
+                points = enterprise_daily_stats.points + EXCLUDED.points
+            """, nativeQuery = true)
+    void upsertDelta(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("statDate") LocalDate statDate,
+            @Param("areaId") UUID areaId,
+            @Param("wasteTypeId") UUID wasteTypeId,
+            @Param("taskCount") long taskCount,
+            @Param("pendingCount") long pendingCount,
+            @Param("completedCount") long completedCount,
+            @Param("cancelledCount") long cancelledCount,
+            @Param("completedSameDayCount") long completedSameDayCount,
+            @Param("weightKg") double weightKg,
+            @Param("points") long points);
+
+    @Modifying
+    @Query("DELETE FROM EnterpriseDailyStats")
+    int deleteAllRows();
+
+    /**
+     * Recompute every row from the tasks table (backfill and drift repair).
+     * created_at and completed_at hold server-local time, which the session time zone (the JVM's)
+     * turns into instants; days are counted in businessZone, as TaskStatsContribution does.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO enterprise_daily_stats (enterprise_id, stat_date, area_id, waste_type_id,
+                task_count, pending_count, completed_count, cancelled_count, completed_same_day_count,
+                weight_kg, points)
+            SELECT t.enterprise_id, t.created_day, t.area_id, t.waste_type_id,
+                COUNT(*),
+                SUM(CASE WHEN t.status = 'PENDING' THEN 1 ELSE 0 END),
+                SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END),
+                SUM(CASE WHEN t.status = 'CANCELLED' THEN 1 ELSE 0 END),
+                SUM(CASE WHEN t.status = 'COMPLETED' AND t.completed_day = t.created_day THEN 1 ELSE 0 END),
+                COALESCE(SUM(t.actual_weight_kg), 0),
+                COALESCE(SUM(t.points_awarded), 0)
+            FROM (
+                SELECT enterprise_id, status, actual_weight_kg, points_awarded,
+                    COALESCE(area_id, CAST('00000000-0000-0000-0000-000000000000' AS UUID)) AS area_id,
+                    COALESCE(waste_type_id, CAST('00000000-0000-0000-0000-000000000000' AS UUID)) AS waste_type_id,
+                    CAST(CAST(created_at AS TIMESTAMP WITH TIME ZONE) AT TIME ZONE :businessZone AS DATE) AS created_day,
+                    CAST(CAST(completed_at AS TIMESTAMP WITH TIME ZONE) AT TIME ZONE :businessZone AS DATE) AS completed_day
+                FROM tasks
+                WHERE created_at IS NOT NULL
+            ) t
+            GROUP BY t.enterprise_id, t.created_day, t.area_id, t.waste_type_id
+            """, nativeQuery = true)
+    int insertFromTasks(@Param("businessZone") String businessZone);
+}
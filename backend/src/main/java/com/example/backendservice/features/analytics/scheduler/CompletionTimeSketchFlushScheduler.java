@@ -0,0 +1,53 @@
+package com.example.backendservice.features.analytics.scheduler;
+
+import com.example.backendservice.features.analytics.repository.CompletionTimeSketchRepository;
+import com.example.backendservice.features.analytics.service.CompletionTimeStatsService;
+import com.example.backendservice.features.collector.repository.CollectionRequestRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for persisting completion time sketches. Backfills an empty table from
+ * collection_requests on startup, then merges in-memory completions every flush interval
+ * and once more on shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CompletionTimeSketchFlushScheduler {
+
+    private final CompletionTimeStatsService completionTimeStatsService;
+    private final CompletionTimeSketchRepository sketchRepository;
+    private final CollectionRequestRepository collectionRequestRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (sketchRepository.count() == 0 && collectionRequestRepository.count() > 0) {
+                log.info("completion_time_sketches is empty, backfilling from collection_requests");
+                completionTimeStatsService.rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Error during completion_time_sketches backfill", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.completion-time.flush-interval-ms:60000}")
+    public void flush() {
+        try {
+            completionTimeStatsService.flush();
+        } catch (Exception e) {
+            log.error("Error flushing completion time sketches", e);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
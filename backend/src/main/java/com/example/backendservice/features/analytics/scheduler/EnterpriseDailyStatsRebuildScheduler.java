@@ -0,0 +1,51 @@
+package com.example.backendservice.features.analytics.scheduler;
+
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.analytics.service.EnterpriseDailyStatsService;
+import com.example.backendservice.features.task.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for rebuilding the enterprise_daily_stats rollup from the tasks table.
+ * Backfills an empty rollup on startup, and rebuilds nightly to repair drift from
+ * task changes made outside TaskService (manual SQL, imports).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EnterpriseDailyStatsRebuildScheduler {
+
+    private final EnterpriseDailyStatsService dailyStatsService;
+    private final EnterpriseDailyStatsRepository dailyStatsRepository;
+    private final TaskRepository taskRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        try {
+            if (dailyStatsRepository.count() == 0 && taskRepository.count() > 0) {
+                log.info("enterprise_daily_stats is empty, backfilling from tasks");
+                dailyStatsService.rebuild();
+            }
+        } catch (Exception e) {
+            log.error("Error during enterprise_daily_stats backfill", e);
+        }
+    }
+
+    /**
+     * Runs off-peak: task changes committed while it runs may be counted twice until the next rebuild
+     */
+    @Scheduled(cron = "${analytics.rollup.rebuild-cron:0 30 2 * * ?}", zone = "Asia/Ho_Chi_Minh")
+    public void rebuildNightly() {
+        log.info("Starting scheduled enterprise_daily_stats rebuild");
+        try {
+            dailyStatsService.rebuild();
+        } catch (Exception e) {
+            log.error("Error during enterprise_daily_stats rebuild", e);
+        }
+    }
+}
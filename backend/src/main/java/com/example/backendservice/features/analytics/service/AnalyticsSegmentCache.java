@@ -0,0 +1,153 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.common.utils.TransactionUtils;
+import com.example.backendservice.features.analytics.dto.DailyRollupRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-day segments of enterprise_daily_stats rows, so repeated dashboard reads only go to the
+ * database for today and for days not seen yet.
+ * A closed day (before today) is cached as an immutable segment until a task of that enterprise
+ * and day changes; today is always read fresh. Invalidation runs after the writing transaction
+ * commits, and a per-enterprise version stops a read that overlapped a write from caching what
+ * it saw. Segments also expire after a TTL, which bounds staleness on other nodes that did not
+ * see the write.
+ */
+@Component
+@Slf4j
+public class AnalyticsSegmentCache {
+
+    /**
+     * Loads rollup rows for an enterprise and an inclusive day range
+     */
+    @FunctionalInterface
+    public interface RowLoader {
+        List<DailyRollupRow> load(UUID enterpriseId, LocalDate startDate, LocalDate endDate);
+    }
+
+    private record Segment(List<DailyRollupRow> rows, long loadedAtMillis) {
+    }
+
+    private static final class EnterpriseSegments {
+        private final Map<LocalDate, Segment> byDay = new ConcurrentHashMap<>();
+        private final AtomicLong version = new AtomicLong();
+    }
+
+    private final int maxEnterprises;
+    private final long ttlMillis;
+
+    // Access-ordered, so the least recently read enterprise is dropped first
+    private final Map<UUID, EnterpriseSegments> enterprises;
+
+    public AnalyticsSegmentCache(
+            @Value("${analytics.cache.max-enterprises:500}") int maxEnterprises,
+            @Value("${analytics.cache.segment-ttl-ms:600000}") long ttlMillis) {
+        this.maxEnterprises = maxEnterprises;
+        this.ttlMillis = ttlMillis;
+        this.enterprises = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, EnterpriseSegments> eldest) {
+                return size() > AnalyticsSegmentCache.this.maxEnterprises;
+            }
+        });
+    }
+
+    /**
+     * Rows of every day in [startDate, endDate]: cached closed days from memory, everything else
+     * with at most one loader call covering the first missing day through the last one needed
+     */
+    public List<DailyRollupRow> rows(UUID enterpriseId, LocalDate startDate, LocalDate endDate, RowLoader loader) {
+        if (maxEnterprises <= 0) {
+            return loader.load(enterpriseId, startDate, endDate);
+        }
+
+        LocalDate today = DateUtils.businessToday();
+        long now = System.currentTimeMillis();
+        EnterpriseSegments segments = enterprises.computeIfAbsent(enterpriseId, id -> new EnterpriseSegments());
+        long version = segments.version.get();
+
+        List<DailyRollupRow> result = new ArrayList<>();
+        Set<LocalDate> fromCache = new HashSet<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            Segment segment = day.isBefore(today) ? segments.byDay.get(day) : null;
+            if (segment != null && now - segment.loadedAtMillis() < ttlMillis) {
+                result.addAll(segment.rows());
+                fromCache.add(day);
+            } else {
+                if (firstMissing == null) {
+                    firstMissing = day;
+                }
+                lastMissing = day;
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        Map<LocalDate, List<DailyRollupRow>> loadedByDay = new HashMap<>();
+        for (DailyRollupRow row : loader.load(enterpriseId, firstMissing, lastMissing)) {
+            loadedByDay.computeIfAbsent(row.getDate(), day -> new ArrayList<>()).add(row);
+        }
+
+        for (LocalDate day = firstMissing; !day.isAfter(lastMissing); day = day.plusDays(1)) {
+            if (fromCache.contains(day)) {
+                // Already added; the load only spanned it to stay one query
+                continue;
+            }
+            List<DailyRollupRow> dayRows = loadedByDay.getOrDefault(day, List.of());
+            result.addAll(dayRows);
+            if (day.isBefore(today)) {
+                Segment segment = new Segment(List.copyOf(dayRows), now);
+                segments.byDay.put(day, segment);
+                // A write that committed since the read began may not be in what was loaded;
+                // checked after the put so an invalidation can never land in between
+                if (segments.version.get() != version) {
+                    segments.byDay.remove(day, segment);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drop the segment of one enterprise day once the current transaction commits
+     */
+    public void invalidateAfterCommit(UUID enterpriseId, LocalDate day) {
+        TransactionUtils.afterCommit(() -> {
+            EnterpriseSegments segments = enterprises.get(enterpriseId);
+            if (segments != null) {
+                segments.version.incrementAndGet();
+                segments.byDay.remove(day);
+            }
+        });
+    }
+
+    /**
+     * Drop everything once the current transaction commits (rollup rebuilt)
+     */
+    public void clearAfterCommit() {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (enterprises) {
+                enterprises.values().forEach(segments -> segments.version.incrementAndGet());
+                enterprises.clear();
+            }
+            log.debug("Analytics segment cache cleared");
+        });
+    }
+
+    public int getCachedSegmentCount() {
+        synchronized (enterprises) {
+            return enterprises.values().stream().mapToInt(segments -> segments.byDay.size()).sum();
+        }
+    }
+}
@@ -31,4 +31,23 @@ public interface AnalyticsService {
             UUID enterpriseId,
             LocalDate startDate,
             LocalDate endDate);
+
+    /**
+     * Gap-filled series of granularity-wide buckets covering [startDate, endDate],
+     * on the Asia/Ho_Chi_Minh clock
+     */
+    java.util.List<TimeBucketStatDTO> getTimeSeries(
+            UUID enterpriseId,
+            LocalDate startDate,
+            LocalDate endDate,
+            AnalyticsGranularity granularity);
+
+    /**
+     * Totals over [startDate, endDate] next to those of the baseline window, with deltas and growth
+     */
+    PeriodComparisonDTO getPeriodComparison(
+            UUID enterpriseId,
+            LocalDate startDate,
+            LocalDate endDate,
+            ComparisonBaseline baseline);
 }
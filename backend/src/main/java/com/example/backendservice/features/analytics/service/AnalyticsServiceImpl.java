@@ -1,25 +1,34 @@
 package com.example.backendservice.features.analytics.service;
 
+import com.example.backendservice.common.constants.AppConstants;
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.common.utils.DateUtils;
 import com.example.backendservice.features.analytics.dto.*;
-import com.example.backendservice.features.task.entity.Task;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
 import com.example.backendservice.features.task.repository.TaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AnalyticsServiceImpl implements AnalyticsService {
 
+    private final EnterpriseDailyStatsRepository dailyStatsRepository;
+    private final AnalyticsSegmentCache segmentCache;
     private final TaskRepository taskRepository;
 
+    // Longest series one request may ask for: several years of days, or about three months of hours
+    private static final int MAX_SERIES_BUCKETS = 2_500;
+
     @Override
     @Transactional(readOnly = true)
     public EnterpriseAnalyticsResponse getEnterpriseAnalytics(
@@ -28,210 +37,151 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         log.info("Generating analytics for enterprise: {} from {} to {}",
                 enterpriseId, startDate, endDate);
 
-        return EnterpriseAnalyticsResponse.builder()
-                .summary(getEnterpriseSummary(enterpriseId, startDate, endDate))
-                .byWasteType(getWasteTypeBreakdown(enterpriseId, startDate, endDate))
-                .byArea(getAreaBreakdown(enterpriseId, startDate, endDate))
-                .dailyStats(getDailyStats(enterpriseId, startDate, endDate))
-                .build();
+        return accumulate(enterpriseId, startDate, endDate).toResponse();
     }
 
     @Override
     @Transactional(readOnly = true)
     public EnterpriseSummaryDTO getEnterpriseSummary(
             UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
-
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-
-        // Get all tasks for the enterprise in date range
-        List<Task> tasks = taskRepository.findByEnterpriseId(enterpriseId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent()
-                .stream()
-                .filter(t -> t.getCreatedAt() != null &&
-                        t.getCreatedAt().isAfter(start) &&
-                        t.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
-
-        long totalTasks = tasks.size();
-        long pendingTasks = tasks.stream().filter(t -> "PENDING".equals(t.getStatus())).count();
-        long completedTasks = tasks.stream().filter(t -> "COMPLETED".equals(t.getStatus())).count();
-        long cancelledTasks = tasks.stream().filter(t -> "CANCELLED".equals(t.getStatus())).count();
-
-        Double totalWeight = tasks.stream()
-                .filter(t -> t.getActualWeightKg() != null)
-                .mapToDouble(Task::getActualWeightKg)
-                .sum();
-
-        Double avgWeight = completedTasks > 0 ? totalWeight / completedTasks : 0.0;
-
-        Integer totalPoints = tasks.stream()
-                .filter(t -> t.getPointsAwarded() != null)
-                .mapToInt(Task::getPointsAwarded)
-                .sum();
-
-        return EnterpriseSummaryDTO.builder()
-                .totalTasks(totalTasks)
-                .pendingTasks(pendingTasks)
-                .completedTasks(completedTasks)
-                .cancelledTasks(cancelledTasks)
-                .totalWeightCollectedKg(totalWeight)
-                .averageWeightPerTaskKg(avgWeight)
-                .totalPointsAwarded(totalPoints)
-                .periodStart(startDate)
-                .periodEnd(endDate)
-                .build();
+        return accumulate(enterpriseId, startDate, endDate).summary();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<WasteTypeSummaryDTO> getWasteTypeBreakdown(
             UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
-
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-
-        List<Task> tasks = taskRepository.findByEnterpriseId(enterpriseId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent()
-                .stream()
-                .filter(t -> t.getCreatedAt() != null &&
-                        t.getCreatedAt().isAfter(start) &&
-                        t.getCreatedAt().isBefore(end) &&
-                        t.getWasteType() != null)
-                .collect(Collectors.toList());
-
-        Double totalWeight = tasks.stream()
-                .filter(t -> t.getActualWeightKg() != null)
-                .mapToDouble(Task::getActualWeightKg)
-                .sum();
-
-        Map<UUID, List<Task>> groupedByWasteType = tasks.stream()
-                .collect(Collectors.groupingBy(t -> t.getWasteType().getId()));
-
-        return groupedByWasteType.entrySet().stream()
-                .map(entry -> {
-                    List<Task> typeTasks = entry.getValue();
-                    Task sample = typeTasks.get(0);
-                    Double typeWeight = typeTasks.stream()
-                            .filter(t -> t.getActualWeightKg() != null)
-                            .mapToDouble(Task::getActualWeightKg)
-                            .sum();
-                    Integer typePoints = typeTasks.stream()
-                            .filter(t -> t.getPointsAwarded() != null)
-                            .mapToInt(Task::getPointsAwarded)
-                            .sum();
-
-                    return WasteTypeSummaryDTO.builder()
-                            .wasteTypeId(entry.getKey())
-                            .wasteTypeName(sample.getWasteType().getName())
-                            .taskCount((long) typeTasks.size())
-                            .totalWeightKg(typeWeight)
-                            .percentageOfTotal(totalWeight > 0 ? (typeWeight / totalWeight) * 100 : 0)
-                            .pointsAwarded(typePoints)
-                            .build();
-                })
-                .sorted(Comparator.comparingDouble(WasteTypeSummaryDTO::getTotalWeightKg).reversed())
-                .collect(Collectors.toList());
+        return accumulate(enterpriseId, startDate, endDate).wasteTypes();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<AreaSummaryDTO> getAreaBreakdown(
             UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
-
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-
-        List<Task> tasks = taskRepository.findByEnterpriseId(enterpriseId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent()
-                .stream()
-                .filter(t -> t.getCreatedAt() != null &&
-                        t.getCreatedAt().isAfter(start) &&
-                        t.getCreatedAt().isBefore(end) &&
-                        t.getArea() != null)
-                .collect(Collectors.toList());
-
-        Double totalWeight = tasks.stream()
-                .filter(t -> t.getActualWeightKg() != null)
-                .mapToDouble(Task::getActualWeightKg)
-                .sum();
-
-        Map<UUID, List<Task>> groupedByArea = tasks.stream()
-                .collect(Collectors.groupingBy(t -> t.getArea().getId()));
-
-        return groupedByArea.entrySet().stream()
-                .map(entry -> {
-                    List<Task> areaTasks = entry.getValue();
-                    Task sample = areaTasks.get(0);
-                    Double areaWeight = areaTasks.stream()
-                            .filter(t -> t.getActualWeightKg() != null)
-                            .mapToDouble(Task::getActualWeightKg)
-                            .sum();
-                    long completed = areaTasks.stream()
-                            .filter(t -> "COMPLETED".equals(t.getStatus()))
-                            .count();
-
-                    return AreaSummaryDTO.builder()
-                            .areaId(entry.getKey())
-                            .areaName(sample.getArea().getName())
-                            .taskCount((long) areaTasks.size())
-                            .completedTasks(completed)
-                            .totalWeightKg(areaWeight)
-                            .percentageOfTotal(totalWeight > 0 ? (areaWeight / totalWeight) * 100 : 0)
-                            .build();
-                })
-                .sorted(Comparator.comparingDouble(AreaSummaryDTO::getTotalWeightKg).reversed())
-                .collect(Collectors.toList());
+        return accumulate(enterpriseId, startDate, endDate).areas();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<DailyStatDTO> getDailyStats(
             UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return accumulate(enterpriseId, startDate, endDate).dailyStats();
+    }
 
-        LocalDateTime start = startDate.atStartOfDay();
-        LocalDateTime end = endDate.plusDays(1).atStartOfDay();
-
-        List<Task> tasks = taskRepository.findByEnterpriseId(enterpriseId,
-                org.springframework.data.domain.Pageable.unpaged()).getContent()
-                .stream()
-                .filter(t -> t.getCreatedAt() != null &&
-                        t.getCreatedAt().isAfter(start) &&
-                        t.getCreatedAt().isBefore(end))
-                .collect(Collectors.toList());
-
-        Map<LocalDate, List<Task>> groupedByDate = tasks.stream()
-                .collect(Collectors.groupingBy(t -> t.getCreatedAt().toLocalDate()));
-
-        List<DailyStatDTO> dailyStats = new ArrayList<>();
-
-        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            List<Task> dayTasks = groupedByDate.getOrDefault(date, Collections.emptyList());
-
-            long created = dayTasks.size();
-            long completed = dayTasks.stream()
-                    .filter(t -> "COMPLETED".equals(t.getStatus()) &&
-                            t.getCompletedAt() != null &&
-                            t.getCompletedAt().toLocalDate().equals(date))
-                    .count();
-            Double weight = dayTasks.stream()
-                    .filter(t -> t.getActualWeightKg() != null)
-                    .mapToDouble(Task::getActualWeightKg)
-                    .sum();
-            Integer points = dayTasks.stream()
-                    .filter(t -> t.getPointsAwarded() != null)
-                    .mapToInt(Task::getPointsAwarded)
-                    .sum();
-
-            dailyStats.add(DailyStatDTO.builder()
-                    .date(date)
-                    .tasksCreated(created)
-                    .tasksCompleted(completed)
-                    .weightCollectedKg(weight)
-                    .pointsAwarded(points)
+    @Override
+    @Transactional(readOnly = true)
+    public List<TimeBucketStatDTO> getTimeSeries(
+            UUID enterpriseId, LocalDate startDate, LocalDate endDate, AnalyticsGranularity granularity) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        LocalDateTime first = granularity.bucketStart(startDate.atStartOfDay());
+        LocalDateTime last = granularity.bucketStart(endDate.atTime(23, 0));
+        int buckets = granularity.index(first, last) + 1;
+        if (buckets > MAX_SERIES_BUCKETS) {
+            throw new BadRequestException("Range too long for " + granularity + " buckets (max "
+                    + MAX_SERIES_BUCKETS + "), use a coarser granularity");
+        }
+
+        // Bucketed in the database: hours from tasks, days and up from the daily rollup
+        List<Object[]> rows = switch (granularity) {
+            case HOUR -> taskRepository.findHourlySeries(enterpriseId,
+                    DateUtils.fromBusinessTime(startDate.atStartOfDay()),
+                    DateUtils.fromBusinessTime(endDate.plusDays(1).atStartOfDay()),
+                    AppConstants.BUSINESS_TIME_ZONE);
+            case DAY -> dailyStatsRepository.findDailySeries(enterpriseId, startDate, endDate);
+            case WEEK -> dailyStatsRepository.findWeeklySeries(enterpriseId, startDate, endDate);
+            case MONTH -> dailyStatsRepository.findMonthlySeries(enterpriseId, startDate, endDate);
+        };
+
+        // Gap-fill: every row lands in its slot by index, empty buckets stay zero
+        long[] created = new long[buckets];
+        long[] completed = new long[buckets];
+        double[] weight = new double[buckets];
+        long[] points = new long[buckets];
+        for (Object[] row : rows) {
+            int i = granularity.index(first, toLocalDateTime(row[0]));
+            if (i >= 0 && i < buckets) {
+                created[i] += ((Number) row[1]).longValue();
+                completed[i] += ((Number) row[2]).longValue();
+                weight[i] += ((Number) row[3]).doubleValue();
+                points[i] += ((Number) row[4]).longValue();
+            }
+        }
+
+        List<TimeBucketStatDTO> result = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            result.add(TimeBucketStatDTO.builder()
+                    .bucketStart(granularity.plus(first, i))
+                    .tasksCreated(created[i])
+                    .tasksCompleted(completed[i])
+                    .weightCollectedKg(weight[i])
+                    .pointsAwarded((int) points[i])
                     .build());
         }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PeriodComparisonDTO getPeriodComparison(
+            UUID enterpriseId, LocalDate startDate, LocalDate endDate, ComparisonBaseline baseline) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+        LocalDate baselineStart = baseline.baselineStart(startDate, endDate);
+        LocalDate baselineEnd = baseline.baselineEnd(startDate, endDate);
+
+        // One query over both windows of the rollup, not one summary per window
+        PeriodComparisonRow row = dailyStatsRepository.findPeriodComparison(
+                enterpriseId, startDate, endDate, baselineStart, baselineEnd);
+
+        return PeriodComparisonDTO.builder()
+                .baseline(baseline)
+                .periodStart(startDate)
+                .periodEnd(endDate)
+                .baselineStart(baselineStart)
+                .baselineEnd(baselineEnd)
+                .totalTasks(compare(row.getCurrentTasks(), row.getBaselineTasks()))
+                .completedTasks(compare(row.getCurrentCompleted(), row.getBaselineCompleted()))
+                .cancelledTasks(compare(row.getCurrentCancelled(), row.getBaselineCancelled()))
+                .weightCollectedKg(compare(row.getCurrentWeightKg(), row.getBaselineWeightKg()))
+                .pointsAwarded(compare(row.getCurrentPoints(), row.getBaselinePoints()))
+                .build();
+    }
 
-        return dailyStats;
+    private static MetricComparisonDTO compare(Number current, Number baseline) {
+        return MetricComparisonDTO.of(
+                current != null ? current.doubleValue() : 0,
+                baseline != null ? baseline.doubleValue() : 0);
+    }
+
+    // Native bucket columns come back as whatever the driver maps the timestamp type to
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toLocalDateTime();
+        }
+        if (value instanceof java.sql.Date date) {
+            return date.toLocalDate().atStartOfDay();
+        }
+        if (value instanceof LocalDate date) {
+            return date.atStartOfDay();
+        }
+        return (LocalDateTime) value;
+    }
+
+    // Reads the enterprise_daily_stats rollup: at most one row per day, area and waste type,
+    // however many tasks the enterprise has. Closed days usually come from the segment cache.
+    private EnterpriseAnalyticsAccumulator accumulate(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        EnterpriseAnalyticsAccumulator accumulator = new EnterpriseAnalyticsAccumulator(startDate, endDate);
+        for (DailyRollupRow row : segmentCache.rows(enterpriseId, startDate, endDate, dailyStatsRepository::findRows)) {
+            accumulator.add(row);
+        }
+        return accumulator;
     }
 }
@@ -0,0 +1,174 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.common.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for analytics reads: while one caller (the leader) computes a result, callers
+ * asking for the same operation and arguments wait for it instead of running the same queries.
+ * Nothing is kept once the flight lands; the next caller starts a new one.
+ * Each flight has a deadline set by its operation's timeout. Followers wait at most until then
+ * and get a 503 with Retry-After set to that timeout rather than piling onto the pool; a caller
+ * arriving after the deadline starts a fresh flight, so one stuck query cannot block a key forever.
+ * Metrics (analytics.singleflight.*): calls by role, follower timeouts, leader duration, flights in progress.
+ */
+@Component
+@Slf4j
+public class AnalyticsSingleFlight {
+
+    public enum Operation {
+        ENTERPRISE_ANALYTICS,
+        SUMMARY,
+        WASTE_TYPES,
+        AREAS,
+        DAILY,
+        SERIES,
+        COMPARISON
+    }
+
+    private record Key(Operation operation, List<Object> args) {
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final long deadlineNanos;
+
+        private Flight(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private final Map<Key, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<Operation, Long> timeoutNanos = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> leaders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> followers = new EnumMap<>(Operation.class);
+    private final Map<Operation, Counter> timeouts = new EnumMap<>(Operation.class);
+    private final Map<Operation, Timer> leaderTimers = new EnumMap<>(Operation.class);
+
+    public AnalyticsSingleFlight(
+            MeterRegistry meterRegistry,
+            @Value("${analytics.single-flight.timeout-ms:10000}") long defaultTimeoutMillis,
+            @Value("${analytics.single-flight.timeouts:}") String timeoutOverrides) {
+        Map<Operation, Long> overrides = parseTimeouts(timeoutOverrides);
+        for (Operation operation : Operation.values()) {
+            long millis = overrides.getOrDefault(operation, defaultTimeoutMillis);
+            timeoutNanos.put(operation, TimeUnit.MILLISECONDS.toNanos(millis));
+            String tag = operation.name();
+            leaders.put(operation, Counter.builder("analytics.singleflight.calls")
+                    .description("Analytics calls, by whether they ran the query or shared another call's")
+                    .tag("operation", tag).tag("role", "leader")
+                    .register(meterRegistry));
+            followers.put(operation, Counter.builder("analytics.singleflight.calls")
+                    .description("Analytics calls, by whether they ran the query or shared another call's")
+                    .tag("operation", tag).tag("role", "follower")
+                    .register(meterRegistry));
+            timeouts.put(operation, Counter.builder("analytics.singleflight.timeouts")
+                    .description("Callers that gave up waiting for an identical call in progress")
+                    .tag("operation", tag)
+                    .register(meterRegistry));
+            leaderTimers.put(operation, Timer.builder("analytics.singleflight.duration")
+                    .description("Time the leader of a flight took to compute its result")
+                    .tag("operation", tag)
+                    .publishPercentiles(PERCENTILES)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("analytics.singleflight.inflight", inFlight, Map::size)
+                .description("Analytics computations in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run loader, or wait for an identical call of the same operation already running it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Operation operation, Supplier<T> loader, Object... args) {
+        Key key = new Key(operation, Arrays.asList(args));
+        long now = System.nanoTime();
+        Flight mine = new Flight(now + timeoutNanos.get(operation));
+        Flight flight = inFlight.compute(key, (k, existing) ->
+                existing != null && existing.deadlineNanos - now > 0 ? existing : mine);
+
+        if (flight == mine) {
+            return lead(operation, key, mine, loader);
+        }
+        followers.get(operation).increment();
+        try {
+            return (T) flight.result.get(Math.max(flight.deadlineNanos - now, 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.get(operation).increment();
+            log.warn("Gave up waiting for in-flight {} {}", operation, key.args());
+            // The operation's timeout in whole seconds, rounded up
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                    timeoutNanos.get(operation) + TimeUnit.SECONDS.toNanos(1) - 1));
+            throw new ServiceUnavailableException(
+                    "Analytics are still being computed for this request, please retry", retryAfterSeconds);
+        } catch (ExecutionException e) {
+            // The leader's own exception, e.g. BadRequestException for an invalid range
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for analytics");
+        }
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private <T> T lead(Operation operation, Key key, Flight flight, Supplier<T> loader) {
+        leaders.get(operation).increment();
+        long start = System.nanoTime();
+        try {
+            T value = loader.get();
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only if still ours: an expired flight may already have been replaced
+            inFlight.remove(key, flight);
+            leaderTimers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Parse "OPERATION=millis,OPERATION=millis"
+     */
+    private static Map<Operation, Long> parseTimeouts(String spec) {
+        Map<Operation, Long> result = new EnumMap<>(Operation.class);
+        if (spec == null || spec.isBlank()) {
+            return result;
+        }
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid analytics.single-flight.timeouts entry: " + entry);
+            }
+            result.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Long.parseLong(parts[1].trim()));
+        }
+        return result;
+    }
+}
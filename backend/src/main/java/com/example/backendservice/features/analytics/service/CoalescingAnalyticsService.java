@@ -0,0 +1,83 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.service.AnalyticsSingleFlight.Operation;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The AnalyticsService controllers get: identical concurrent calls share one computation of
+ * {@link AnalyticsServiceImpl} through {@link AnalyticsSingleFlight}. Waiting callers hold no
+ * database connection, so a burst of identical dashboard loads uses one connection, not one each.
+ * Callers of one flight receive the same result instance and must not modify it.
+ */
+@Service
+@Primary
+public class CoalescingAnalyticsService implements AnalyticsService {
+
+    private final AnalyticsService delegate;
+    private final AnalyticsSingleFlight singleFlight;
+
+    public CoalescingAnalyticsService(
+            @Qualifier("analyticsServiceImpl") AnalyticsService delegate,
+            AnalyticsSingleFlight singleFlight) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public EnterpriseAnalyticsResponse getEnterpriseAnalytics(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return singleFlight.execute(Operation.ENTERPRISE_ANALYTICS,
+                () -> delegate.getEnterpriseAnalytics(enterpriseId, startDate, endDate),
+                enterpriseId, startDate, endDate);
+    }
+
+    @Override
+    public EnterpriseSummaryDTO getEnterpriseSummary(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return singleFlight.execute(Operation.SUMMARY,
+                () -> delegate.getEnterpriseSummary(enterpriseId, startDate, endDate),
+                enterpriseId, startDate, endDate);
+    }
+
+    @Override
+    public List<WasteTypeSummaryDTO> getWasteTypeBreakdown(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return singleFlight.execute(Operation.WASTE_TYPES,
+                () -> delegate.getWasteTypeBreakdown(enterpriseId, startDate, endDate),
+                enterpriseId, startDate, endDate);
+    }
+
+    @Override
+    public List<AreaSummaryDTO> getAreaBreakdown(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return singleFlight.execute(Operation.AREAS,
+                () -> delegate.getAreaBreakdown(enterpriseId, startDate, endDate),
+                enterpriseId, startDate, endDate);
+    }
+
+    @Override
+    public List<DailyStatDTO> getDailyStats(UUID enterpriseId, LocalDate startDate, LocalDate endDate) {
+        return singleFlight.execute(Operation.DAILY,
+                () -> delegate.getDailyStats(enterpriseId, startDate, endDate),
+                enterpriseId, startDate, endDate);
+    }
+
+    @Override
+    public List<TimeBucketStatDTO> getTimeSeries(UUID enterpriseId, LocalDate startDate, LocalDate endDate,
+                                                 AnalyticsGranularity granularity) {
+        return singleFlight.execute(Operation.SERIES,
+                () -> delegate.getTimeSeries(enterpriseId, startDate, endDate, granularity),
+                enterpriseId, startDate, endDate, granularity);
+    }
+
+    @Override
+    public PeriodComparisonDTO getPeriodComparison(UUID enterpriseId, LocalDate startDate, LocalDate endDate,
+                                                   ComparisonBaseline baseline) {
+        return singleFlight.execute(Operation.COMPARISON,
+                () -> delegate.getPeriodComparison(enterpriseId, startDate, endDate, baseline),
+                enterpriseId, startDate, endDate, baseline);
+    }
+}
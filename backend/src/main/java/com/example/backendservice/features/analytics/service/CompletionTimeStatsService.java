@@ -0,0 +1,37 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.CompletionTimePercentilesDTO;
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
+import com.example.backendservice.features.collector.entity.CollectionRequest;
+
+import java.util.UUID;
+
+public interface CompletionTimeStatsService {
+
+    /**
+     * Count a request that reached COLLECTED towards its collector, enterprise and area,
+     * once the caller's transaction commits
+     *
+     * @param areaId service area of the request's report, or null when it has none
+     */
+    void recordCompletion(CollectionRequest request, UUID areaId);
+
+    /**
+     * Percentiles from the stored sketch plus completions this node has not flushed yet
+     */
+    CompletionTimePercentilesDTO getPercentiles(CompletionTimeDimension dimension, UUID dimensionId);
+
+    /**
+     * Merge the completions recorded since the last flush into the stored sketches
+     *
+     * @return number of sketches written
+     */
+    int flush();
+
+    /**
+     * Recompute every sketch from collection_requests
+     *
+     * @return number of sketches written
+     */
+    int rebuild();
+}
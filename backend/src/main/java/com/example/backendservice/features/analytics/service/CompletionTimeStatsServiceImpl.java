@@ -0,0 +1,199 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.common.utils.TransactionUtils;
+import com.example.backendservice.features.analytics.dto.CompletionSample;
+import com.example.backendservice.features.analytics.dto.CompletionTimePercentilesDTO;
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketch;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketchId;
+import com.example.backendservice.features.analytics.repository.CompletionTimeSketchRepository;
+import com.example.backendservice.features.collector.entity.CollectionRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Completion time percentiles kept as quantile sketches per collector, enterprise and area.
+ * Completions are added to in-memory delta sketches after their transaction commits; a scheduled
+ * flush merges the deltas into completion_time_sketches under a row lock, so several nodes can
+ * flush into the same sketch. Reads merge the stored sketch with this node's unflushed delta.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CompletionTimeStatsServiceImpl implements CompletionTimeStatsService {
+
+    private final CompletionTimeSketchRepository sketchRepository;
+
+    // Completions not flushed yet; a sketch is only mutated inside compute for its key
+    private final Map<CompletionTimeSketchId, QuantileSketch> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public void recordCompletion(CollectionRequest request, UUID areaId) {
+        if (request.getAssignedAt() == null || request.getCollectedAt() == null) {
+            return;
+        }
+        double seconds = Duration.between(request.getAssignedAt(), request.getCollectedAt()).toMillis() / 1000.0;
+
+        List<CompletionTimeSketchId> keys = new ArrayList<>(3);
+        if (request.getCollectorId() != null) {
+            keys.add(new CompletionTimeSketchId(CompletionTimeDimension.COLLECTOR, request.getCollectorId()));
+        }
+        if (request.getEnterpriseId() != null) {
+            keys.add(new CompletionTimeSketchId(CompletionTimeDimension.ENTERPRISE, request.getEnterpriseId()));
+        }
+        if (areaId != null) {
+            keys.add(new CompletionTimeSketchId(CompletionTimeDimension.AREA, areaId));
+        }
+
+        TransactionUtils.afterCommit(() -> keys.forEach(key -> pending.compute(key, (k, sketch) -> {
+            QuantileSketch target = sketch != null ? sketch : new QuantileSketch();
+            target.add(seconds);
+            return target;
+        })));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CompletionTimePercentilesDTO getPercentiles(CompletionTimeDimension dimension, UUID dimensionId) {
+        CompletionTimeSketchId key = new CompletionTimeSketchId(dimension, dimensionId);
+        QuantileSketch sketch = sketchRepository.findById(key)
+                .map(row -> QuantileSketch.fromBytes(row.getSketch()))
+                .orElseGet(QuantileSketch::new);
+        pending.computeIfPresent(key, (k, delta) -> {
+            sketch.merge(delta);
+            return delta;
+        });
+
+        return CompletionTimePercentilesDTO.builder()
+                .dimension(dimension)
+                .dimensionId(dimensionId)
+                .sampleCount(sketch.getCount())
+                .averageMinutes(sketch.isEmpty() ? null : toMinutes(sketch.getSum() / sketch.getCount()))
+                .p50Minutes(toMinutes(sketch.quantile(0.5)))
+                .p90Minutes(toMinutes(sketch.quantile(0.9)))
+                .p99Minutes(toMinutes(sketch.quantile(0.99)))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public int flush() {
+        Map<CompletionTimeSketchId, QuantileSketch> batch = new HashMap<>();
+        for (CompletionTimeSketchId key : pending.keySet()) {
+            QuantileSketch delta = pending.remove(key);
+            if (delta != null) {
+                batch.put(key, delta);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        restoreUnlessCommitted(batch);
+
+        Instant now = Instant.now();
+        // Fixed lock order, so two nodes flushing overlapping keys cannot deadlock
+        List<CompletionTimeSketchId> keys = new ArrayList<>(batch.keySet());
+        keys.sort(Comparator.comparing(CompletionTimeSketchId::getDimension)
+                .thenComparing(CompletionTimeSketchId::getDimensionId));
+        for (CompletionTimeSketchId key : keys) {
+            QuantileSketch delta = batch.get(key);
+            CompletionTimeSketch row = sketchRepository.findForUpdate(key).orElse(null);
+            QuantileSketch merged = row != null
+                    ? QuantileSketch.fromBytes(row.getSketch()).merge(delta)
+                    : delta;
+            if (row == null) {
+                row = CompletionTimeSketch.builder().id(key).build();
+            }
+            row.setSampleCount(merged.getCount());
+            row.setSketch(merged.toBytes());
+            row.setUpdatedAt(now);
+            sketchRepository.save(row);
+        }
+        log.debug("Flushed {} completion time sketches", keys.size());
+        return keys.size();
+    }
+
+    /**
+     * Runs off-peak or on an empty table: completions committed while it runs may be counted twice
+     */
+    @Override
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        // Everything pending is committed and will be read back below
+        pending.clear();
+
+        Map<CompletionTimeSketchId, QuantileSketch> sketches = new HashMap<>();
+        long samples = 0;
+        try (Stream<CompletionSample> stream = sketchRepository.streamCompletionSamples()) {
+            Iterator<CompletionSample> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                CompletionSample sample = iterator.next();
+                double seconds = Duration.between(sample.getAssignedAt(), sample.getCollectedAt()).toMillis() / 1000.0;
+                add(sketches, CompletionTimeDimension.COLLECTOR, sample.getCollectorId(), seconds);
+                add(sketches, CompletionTimeDimension.ENTERPRISE, sample.getEnterpriseId(), seconds);
+                add(sketches, CompletionTimeDimension.AREA, sample.getAreaId(), seconds);
+                samples++;
+            }
+        }
+
+        // Rows are updated in place rather than bulk-deleted, so sketches already loaded in this
+        // persistence context stay consistent with the table
+        Map<CompletionTimeSketchId, CompletionTimeSketch> stale = new HashMap<>();
+        sketchRepository.findAll().forEach(row -> stale.put(row.getId(), row));
+        Instant now = Instant.now();
+        List<CompletionTimeSketch> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> {
+            CompletionTimeSketch row = stale.remove(key);
+            if (row == null) {
+                row = CompletionTimeSketch.builder().id(key).build();
+            }
+            row.setSampleCount(sketch.getCount());
+            row.setSketch(sketch.toBytes());
+            row.setUpdatedAt(now);
+            rows.add(row);
+        });
+        sketchRepository.deleteAll(stale.values());
+        sketchRepository.saveAll(rows);
+        log.info("Rebuilt completion_time_sketches from {} collected requests: {} sketches in {} ms",
+                samples, rows.size(), System.currentTimeMillis() - start);
+        return rows.size();
+    }
+
+    private static void add(Map<CompletionTimeSketchId, QuantileSketch> sketches,
+                            CompletionTimeDimension dimension, UUID id, double seconds) {
+        if (id != null) {
+            sketches.computeIfAbsent(new CompletionTimeSketchId(dimension, id), key -> new QuantileSketch()).add(seconds);
+        }
+    }
+
+    private static Double toMinutes(Double seconds) {
+        return seconds != null ? Math.round(seconds / 60.0 * 100.0) / 100.0 : null;
+    }
+
+    // A failed flush puts its deltas back, to be merged by the next one
+    private void restoreUnlessCommitted(Map<CompletionTimeSketchId, QuantileSketch> batch) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    batch.forEach((key, delta) -> pending.merge(key, delta, QuantileSketch::merge));
+                    log.warn("Completion time flush did not commit; {} sketches kept for the next flush", batch.size());
+                }
+            }
+        });
+    }
+}
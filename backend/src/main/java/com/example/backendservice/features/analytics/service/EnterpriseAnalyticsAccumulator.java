@@ -0,0 +1,169 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Builds the enterprise dashboard (summary, waste type and area breakdowns, daily series)
+ * in one pass over the enterprise_daily_stats rows of the period. Totals live in primitive
+ * fields and arrays: one slot per day of the period, one small bucket per waste type and per area.
+ */
+class EnterpriseAnalyticsAccumulator {
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+
+    // Summary
+    private long totalTasks;
+    private long pendingTasks;
+    private long completedTasks;
+    private long cancelledTasks;
+    private double totalWeight;
+    private long totalPoints;
+
+    // Daily series, indexed by days since startDate
+    private final long[] dayCreated;
+    private final long[] dayCompleted;
+    private final double[] dayWeight;
+    private final long[] dayPoints;
+
+    private final Map<UUID, Bucket> byWasteType = new HashMap<>();
+    private final Map<UUID, Bucket> byArea = new HashMap<>();
+
+    private static final class Bucket {
+        private final String name;
+        private long taskCount;
+        private long completedTasks;
+        private double weight;
+        private long points;
+
+        private Bucket(String name) {
+            this.name = name;
+        }
+    }
+
+    EnterpriseAnalyticsAccumulator(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        int days = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        this.dayCreated = new long[days];
+        this.dayCompleted = new long[days];
+        this.dayWeight = new double[days];
+        this.dayPoints = new long[days];
+    }
+
+    void add(DailyRollupRow row) {
+        totalTasks += row.getTaskCount();
+        pendingTasks += row.getPendingCount();
+        completedTasks += row.getCompletedCount();
+        cancelledTasks += row.getCancelledCount();
+        totalWeight += row.getWeightKg();
+        totalPoints += row.getPoints();
+
+        int day = (int) ChronoUnit.DAYS.between(startDate, row.getDate());
+        if (day >= 0 && day < dayCreated.length) {
+            dayCreated[day] += row.getTaskCount();
+            dayCompleted[day] += row.getCompletedSameDayCount();
+            dayWeight[day] += row.getWeightKg();
+            dayPoints[day] += row.getPoints();
+        }
+
+        if (!EnterpriseDailyStatsId.NONE.equals(row.getWasteTypeId())) {
+            Bucket bucket = byWasteType.computeIfAbsent(row.getWasteTypeId(), id -> new Bucket(row.getWasteTypeName()));
+            bucket.taskCount += row.getTaskCount();
+            bucket.weight += row.getWeightKg();
+            bucket.points += row.getPoints();
+        }
+        if (!EnterpriseDailyStatsId.NONE.equals(row.getAreaId())) {
+            Bucket bucket = byArea.computeIfAbsent(row.getAreaId(), id -> new Bucket(row.getAreaName()));
+            bucket.taskCount += row.getTaskCount();
+            bucket.completedTasks += row.getCompletedCount();
+            bucket.weight += row.getWeightKg();
+        }
+    }
+
+    EnterpriseAnalyticsResponse toResponse() {
+        return EnterpriseAnalyticsResponse.builder()
+                .summary(summary())
+                .byWasteType(wasteTypes())
+                .byArea(areas())
+                .dailyStats(dailyStats())
+                .build();
+    }
+
+    EnterpriseSummaryDTO summary() {
+        return EnterpriseSummaryDTO.builder()
+                .totalTasks(totalTasks)
+                .pendingTasks(pendingTasks)
+                .completedTasks(completedTasks)
+                .cancelledTasks(cancelledTasks)
+                .totalWeightCollectedKg(totalWeight)
+                .averageWeightPerTaskKg(completedTasks > 0 ? totalWeight / completedTasks : 0.0)
+                .totalPointsAwarded((int) totalPoints)
+                .periodStart(startDate)
+                .periodEnd(endDate)
+                .build();
+    }
+
+    List<WasteTypeSummaryDTO> wasteTypes() {
+        double weightWithType = 0;
+        for (Bucket bucket : byWasteType.values()) {
+            weightWithType += bucket.weight;
+        }
+
+        List<WasteTypeSummaryDTO> result = new ArrayList<>(byWasteType.size());
+        for (Map.Entry<UUID, Bucket> entry : byWasteType.entrySet()) {
+            Bucket bucket = entry.getValue();
+            result.add(WasteTypeSummaryDTO.builder()
+                    .wasteTypeId(entry.getKey())
+                    .wasteTypeName(bucket.name)
+                    .taskCount(bucket.taskCount)
+                    .totalWeightKg(bucket.weight)
+                    .percentageOfTotal(weightWithType > 0 ? (bucket.weight / weightWithType) * 100 : 0)
+                    .pointsAwarded((int) bucket.points)
+                    .build());
+        }
+        result.sort(Comparator.comparingDouble(WasteTypeSummaryDTO::getTotalWeightKg).reversed());
+        return result;
+    }
+
+    List<AreaSummaryDTO> areas() {
+        double weightWithArea = 0;
+        for (Bucket bucket : byArea.values()) {
+            weightWithArea += bucket.weight;
+        }
+
+        List<AreaSummaryDTO> result = new ArrayList<>(byArea.size());
+        for (Map.Entry<UUID, Bucket> entry : byArea.entrySet()) {
+            Bucket bucket = entry.getValue();
+            result.add(AreaSummaryDTO.builder()
+                    .areaId(entry.getKey())
+                    .areaName(bucket.name)
+                    .taskCount(bucket.taskCount)
+                    .completedTasks(bucket.completedTasks)
+                    .totalWeightKg(bucket.weight)
+                    .percentageOfTotal(weightWithArea > 0 ? (bucket.weight / weightWithArea) * 100 : 0)
+                    .build());
+        }
+        result.sort(Comparator.comparingDouble(AreaSummaryDTO::getTotalWeightKg).reversed());
+        return result;
+    }
+
+    List<DailyStatDTO> dailyStats() {
+        List<DailyStatDTO> result = new ArrayList<>(dayCreated.length);
+        for (int day = 0; day < dayCreated.length; day++) {
+            result.add(DailyStatDTO.builder()
+                    .date(startDate.plusDays(day))
+                    .tasksCreated(dayCreated[day])
+                    .tasksCompleted(dayCompleted[day])
+                    .weightCollectedKg(dayWeight[day])
+                    .pointsAwarded((int) dayPoints[day])
+                    .build());
+        }
+        return result;
+    }
+}
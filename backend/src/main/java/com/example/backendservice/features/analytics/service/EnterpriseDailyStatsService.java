@@ -0,0 +1,21 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.task.entity.Task;
+
+public interface EnterpriseDailyStatsService {
+
+    /**
+     * Apply a task change to the rollup, in the caller's transaction.
+     *
+     * @param before the task's contribution before the change, or null for a new task
+     * @param after  the task after the change
+     */
+    void recordTaskChange(TaskStatsContribution before, Task after);
+
+    /**
+     * Recompute the whole rollup from the tasks table
+     *
+     * @return number of rollup rows written
+     */
+    int rebuild();
+}
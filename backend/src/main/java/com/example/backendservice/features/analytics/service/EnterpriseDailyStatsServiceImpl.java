@@ -0,0 +1,58 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.common.constants.AppConstants;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.task.entity.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EnterpriseDailyStatsServiceImpl implements EnterpriseDailyStatsService {
+
+    private final EnterpriseDailyStatsRepository dailyStatsRepository;
+    private final AnalyticsSegmentCache segmentCache;
+
+    @Override
+    @Transactional
+    public void recordTaskChange(TaskStatsContribution before, Task after) {
+        TaskStatsContribution current = TaskStatsContribution.of(after);
+
+        if (before == null) {
+            apply(current);
+        } else if (before.key().equals(current.key())) {
+            apply(current.minus(before));
+        } else {
+            // Moved to another row (e.g. area changed): take it out of the old one
+            apply(before.negate());
+            apply(current);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        long start = System.currentTimeMillis();
+        int deleted = dailyStatsRepository.deleteAllRows();
+        int written = dailyStatsRepository.insertFromTasks(AppConstants.BUSINESS_TIME_ZONE);
+        segmentCache.clearAfterCommit();
+        log.info("Rebuilt enterprise_daily_stats: {} rows replaced by {} in {} ms",
+                deleted, written, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    private void apply(TaskStatsContribution delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        EnterpriseDailyStatsId key = delta.key();
+        dailyStatsRepository.upsertDelta(key.getEnterpriseId(), key.getStatDate(), key.getAreaId(),
+                key.getWasteTypeId(), delta.taskCount(), delta.pendingCount(), delta.completedCount(),
+                delta.cancelledCount(), delta.completedSameDayCount(), delta.weightKg(), delta.points());
+        segmentCache.invalidateAfterCommit(key.getEnterpriseId(), key.getStatDate());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Merges platform analytics partitions as they finish. Every enterprise lives in exactly one
+ * partition, so its totals are final once its partition is added; areas and the platform
+ * summary span partitions and are read after the last one. Used from a single thread.
+ */
+class PlatformAnalyticsMerger {
+
+    private long totalTasks;
+    private long pendingTasks;
+    private long completedTasks;
+    private long cancelledTasks;
+    private double totalWeight;
+    private long totalPoints;
+
+    private final Map<UUID, AreaBucket> byArea = new HashMap<>();
+
+    private static final class AreaBucket {
+        private final String name;
+        private long taskCount;
+        private long completedTasks;
+        private double weight;
+
+        private AreaBucket(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Fold one partition in and return the totals of its enterprises
+     */
+    List<EnterpriseTotalsDTO> addPartition(List<PlatformPartitionRow> rows) {
+        Map<UUID, EnterpriseTotalsDTO> enterprises = new LinkedHashMap<>();
+        for (PlatformPartitionRow row : rows) {
+            long tasks = value(row.getTaskCount());
+            long completed = value(row.getCompletedCount());
+            double weight = row.getWeightKg() != null ? row.getWeightKg() : 0.0;
+
+            totalTasks += tasks;
+            pendingTasks += value(row.getPendingCount());
+            completedTasks += completed;
+            cancelledTasks += value(row.getCancelledCount());
+            totalWeight += weight;
+            totalPoints += value(row.getPoints());
+
+            EnterpriseTotalsDTO enterprise = enterprises.computeIfAbsent(row.getEnterpriseId(), id ->
+                    EnterpriseTotalsDTO.builder()
+                            .enterpriseId(id)
+                            .enterpriseName(row.getEnterpriseName())
+                            .totalTasks(0L).pendingTasks(0L).completedTasks(0L).cancelledTasks(0L)
+                            .totalWeightKg(0.0).totalPoints(0L)
+                            .build());
+            enterprise.setTotalTasks(enterprise.getTotalTasks() + tasks);
+            enterprise.setPendingTasks(enterprise.getPendingTasks() + value(row.getPendingCount()));
+            enterprise.setCompletedTasks(enterprise.getCompletedTasks() + completed);
+            enterprise.setCancelledTasks(enterprise.getCancelledTasks() + value(row.getCancelledCount()));
+            enterprise.setTotalWeightKg(enterprise.getTotalWeightKg() + weight);
+            enterprise.setTotalPoints(enterprise.getTotalPoints() + value(row.getPoints()));
+
+            if (!EnterpriseDailyStatsId.NONE.equals(row.getAreaId())) {
+                AreaBucket area = byArea.computeIfAbsent(row.getAreaId(), id -> new AreaBucket(row.getAreaName()));
+                area.taskCount += tasks;
+                area.completedTasks += completed;
+                area.weight += weight;
+            }
+        }
+        return new ArrayList<>(enterprises.values());
+    }
+
+    List<AreaSummaryDTO> areas() {
+        double weightWithArea = 0;
+        for (AreaBucket bucket : byArea.values()) {
+            weightWithArea += bucket.weight;
+        }
+
+        List<AreaSummaryDTO> result = new ArrayList<>(byArea.size());
+        for (Map.Entry<UUID, AreaBucket> entry : byArea.entrySet()) {
+            AreaBucket bucket = entry.getValue();
+            result.add(AreaSummaryDTO.builder()
+                    .areaId(entry.getKey())
+                    .areaName(bucket.name)
+                    .taskCount(bucket.taskCount)
+                    .completedTasks(bucket.completedTasks)
+                    .totalWeightKg(bucket.weight)
+                    .percentageOfTotal(weightWithArea > 0 ? (bucket.weight / weightWithArea) * 100 : 0)
+                    .build());
+        }
+        result.sort(Comparator.comparingDouble(AreaSummaryDTO::getTotalWeightKg).reversed());
+        return result;
+    }
+
+    EnterpriseSummaryDTO summary(LocalDate startDate, LocalDate endDate) {
+        return EnterpriseSummaryDTO.builder()
+                .totalTasks(totalTasks)
+                .pendingTasks(pendingTasks)
+                .completedTasks(completedTasks)
+                .cancelledTasks(cancelledTasks)
+                .totalWeightCollectedKg(totalWeight)
+                .averageWeightPerTaskKg(completedTasks > 0 ? totalWeight / completedTasks : 0.0)
+                .totalPointsAwarded((int) totalPoints)
+                .periodStart(startDate)
+                .periodEnd(endDate)
+                .build();
+    }
+
+    private static long value(Long count) {
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.PlatformAnalyticsLine;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface PlatformAnalyticsService {
+
+    /**
+     * Aggregate every enterprise over [startDate, endDate], handing lines to the sink as they
+     * are ready: one per enterprise, then one per area, then the platform summary.
+     * A sink that throws stops the remaining work.
+     */
+    void streamPlatformAnalytics(LocalDate startDate, LocalDate endDate, Consumer<PlatformAnalyticsLine> sink);
+}
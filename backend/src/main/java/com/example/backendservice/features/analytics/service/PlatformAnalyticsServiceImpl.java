@@ -0,0 +1,104 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Platform-wide analytics fanned out over partitions of enterprises. Each partition is one
+ * grouped query on the enterprise_daily_stats rollup, run on a virtual thread; a semaphore caps
+ * how many of them hold a pool connection at once, so a platform report never takes the whole
+ * (small) Hikari pool from regular requests. Partitions are merged and streamed in completion order.
+ */
+@Service
+@Slf4j
+public class PlatformAnalyticsServiceImpl implements PlatformAnalyticsService {
+
+    private final EnterpriseDailyStatsRepository dailyStatsRepository;
+    private final int partitionSize;
+    private final Semaphore dbPermits;
+    private final ExecutorService executor;
+
+    public PlatformAnalyticsServiceImpl(
+            EnterpriseDailyStatsRepository dailyStatsRepository,
+            @Value("${analytics.platform.partition-size:100}") int partitionSize,
+            @Value("${analytics.platform.max-db-connections:2}") int maxDbConnections) {
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.partitionSize = Math.max(1, partitionSize);
+        this.dbPermits = new Semaphore(Math.max(1, maxDbConnections), true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("platform-analytics-", 0).factory());
+    }
+
+    @Override
+    public void streamPlatformAnalytics(LocalDate startDate, LocalDate endDate, Consumer<PlatformAnalyticsLine> sink) {
+        long start = System.currentTimeMillis();
+        List<UUID> enterpriseIds = withDbPermit(() -> dailyStatsRepository.findEnterpriseIds(startDate, endDate));
+
+        CompletionService<List<PlatformPartitionRow>> completion = new ExecutorCompletionService<>(executor);
+        List<Future<List<PlatformPartitionRow>>> partitions = new ArrayList<>();
+        for (int from = 0; from < enterpriseIds.size(); from += partitionSize) {
+            List<UUID> partition = List.copyOf(
+                    enterpriseIds.subList(from, Math.min(from + partitionSize, enterpriseIds.size())));
+            partitions.add(completion.submit(() -> withDbPermit(() ->
+                    dailyStatsRepository.findPartitionTotals(partition, startDate, endDate))));
+        }
+
+        PlatformAnalyticsMerger merger = new PlatformAnalyticsMerger();
+        try {
+            for (int i = 0; i < partitions.size(); i++) {
+                for (EnterpriseTotalsDTO enterprise : merger.addPartition(completion.take().get())) {
+                    sink.accept(new PlatformAnalyticsLine(PlatformAnalyticsLine.ENTERPRISE, enterprise));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Platform analytics interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Platform analytics partition failed", e.getCause());
+        } finally {
+            // No-op for finished partitions; stops the rest when a partition failed or the client went away
+            partitions.forEach(partition -> partition.cancel(true));
+        }
+
+        for (AreaSummaryDTO area : merger.areas()) {
+            sink.accept(new PlatformAnalyticsLine(PlatformAnalyticsLine.AREA, area));
+        }
+        sink.accept(new PlatformAnalyticsLine(PlatformAnalyticsLine.PLATFORM, merger.summary(startDate, endDate)));
+        log.info("Platform analytics {} to {}: {} enterprises in {} partitions, {} ms",
+                startDate, endDate, enterpriseIds.size(), partitions.size(), System.currentTimeMillis() - start);
+    }
+
+    public int getAvailableDbPermits() {
+        return dbPermits.availablePermits();
+    }
+
+    private <T> T withDbPermit(Supplier<T> query) {
+        try {
+            dbPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for a database permit", e);
+        }
+        try {
+            return query.get();
+        } finally {
+            dbPermits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.backendservice.features.analytics.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Mergeable quantile sketch over positive values with a fixed relative error (DDSketch-style).
+ * Values are counted in logarithmic buckets: bucket i holds values in (gamma^(i-1), gamma^i], and
+ * a quantile is answered with the bucket's midpoint, which is within {@link #RELATIVE_ACCURACY}
+ * of the true value. Merging adds bucket counts, so merged sketches are exact regardless of order.
+ * Values at or below {@link #MIN_VALUE} (including zero) are counted separately as zero.
+ * Not thread-safe.
+ */
+public final class QuantileSketch {
+
+    public static final double RELATIVE_ACCURACY = 0.01;
+    public static final double MIN_VALUE = 1e-3;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final byte FORMAT_VERSION = 1;
+
+    private long[] counts = new long[0];
+    private int minIndex;
+    private long zeroCount;
+    private long count;
+    private double sum;
+
+    public void add(double value) {
+        count++;
+        sum += Math.max(value, 0);
+        if (value <= MIN_VALUE) {
+            zeroCount++;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+        ensureCovers(index, index);
+        counts[index - minIndex]++;
+    }
+
+    public QuantileSketch merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (other.counts.length > 0) {
+            ensureCovers(other.minIndex, other.minIndex + other.counts.length - 1);
+            int offset = other.minIndex - minIndex;
+            for (int i = 0; i < other.counts.length; i++) {
+                counts[offset + i] += other.counts[i];
+            }
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        return this;
+    }
+
+    /**
+     * Value at quantile q (0..1), or null when the sketch is empty
+     */
+    public Double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        }
+        if (count == 0) {
+            return null;
+        }
+        long rank = (long) Math.floor(q * (count - 1));
+        long seen = zeroCount;
+        if (rank < seen) {
+            return 0.0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (rank < seen) {
+                return 2 * Math.pow(GAMMA, minIndex + i) / (GAMMA + 1);
+            }
+        }
+        // Unreachable while counts add up to count
+        return 2 * Math.pow(GAMMA, minIndex + counts.length - 1) / (GAMMA + 1);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public QuantileSketch copy() {
+        return new QuantileSketch().merge(this);
+    }
+
+    /**
+     * Compact form for storage: header, then the bucket counts between the lowest and the
+     * highest non-empty bucket as unsigned varints
+     */
+    public byte[] toBytes() {
+        int first = 0;
+        int last = counts.length - 1;
+        while (first <= last && counts[first] == 0) {
+            first++;
+        }
+        while (last >= first && counts[last] == 0) {
+            last--;
+        }
+        int length = last - first + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 8 + 4 + 4 + length * 10);
+        buffer.put(FORMAT_VERSION);
+        buffer.putLong(count);
+        buffer.putDouble(sum);
+        buffer.putLong(zeroCount);
+        buffer.putInt(minIndex + first);
+        buffer.putInt(length);
+        for (int i = first; i <= last; i++) {
+            long value = counts[i];
+            while ((value & ~0x7FL) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    public static QuantileSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sketch format version: " + version);
+        }
+        QuantileSketch sketch = new QuantileSketch();
+        sketch.count = buffer.getLong();
+        sketch.sum = buffer.getDouble();
+        sketch.zeroCount = buffer.getLong();
+        sketch.minIndex = buffer.getInt();
+        sketch.counts = new long[buffer.getInt()];
+        for (int i = 0; i < sketch.counts.length; i++) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            sketch.counts[i] = value;
+        }
+        return sketch;
+    }
+
+    private void ensureCovers(int low, int high) {
+        if (counts.length == 0) {
+            minIndex = low;
+            counts = new long[high - low + 1];
+            return;
+        }
+        int maxIndex = minIndex + counts.length - 1;
+        if (low >= minIndex && high <= maxIndex) {
+            return;
+        }
+        int newMin = Math.min(low, minIndex);
+        int newMax = Math.max(high, maxIndex);
+        long[] grown = new long[newMax - newMin + 1];
+        System.arraycopy(counts, 0, grown, minIndex - newMin, counts.length);
+        counts = grown;
+        minIndex = newMin;
+    }
+}
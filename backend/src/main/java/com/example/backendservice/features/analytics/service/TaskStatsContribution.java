@@ -0,0 +1,70 @@
+package com.example.backendservice.features.analytics.service;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.task.entity.Task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * What one task adds to its enterprise_daily_stats row. Taken before and after a change,
+ * the difference is the delta to apply to the rollup. Days are business (Asia/Ho_Chi_Minh) days.
+ */
+public record TaskStatsContribution(
+        EnterpriseDailyStatsId key,
+        long taskCount,
+        long pendingCount,
+        long completedCount,
+        long cancelledCount,
+        long completedSameDayCount,
+        double weightKg,
+        long points) {
+
+    public static TaskStatsContribution of(Task task) {
+        LocalDate day = DateUtils.toBusinessTime(
+                task.getCreatedAt() != null ? task.getCreatedAt() : LocalDateTime.now()).toLocalDate();
+        boolean completed = "COMPLETED".equals(task.getStatus());
+        boolean completedSameDay = completed && task.getCompletedAt() != null
+                && DateUtils.toBusinessTime(task.getCompletedAt()).toLocalDate().equals(day);
+        EnterpriseDailyStatsId key = new EnterpriseDailyStatsId(
+                task.getEnterprise().getId(),
+                day,
+                task.getArea() != null ? task.getArea().getId() : EnterpriseDailyStatsId.NONE,
+                task.getWasteType() != null ? task.getWasteType().getId() : EnterpriseDailyStatsId.NONE);
+
+        return new TaskStatsContribution(
+                key,
+                1,
+                "PENDING".equals(task.getStatus()) ? 1 : 0,
+                completed ? 1 : 0,
+                "CANCELLED".equals(task.getStatus()) ? 1 : 0,
+                completedSameDay ? 1 : 0,
+                task.getActualWeightKg() != null ? task.getActualWeightKg() : 0.0,
+                task.getPointsAwarded() != null ? task.getPointsAwarded() : 0);
+    }
+
+    public TaskStatsContribution negate() {
+        return new TaskStatsContribution(key, -taskCount, -pendingCount, -completedCount, -cancelledCount,
+                -completedSameDayCount, -weightKg, -points);
+    }
+
+    /**
+     * this - other, keyed like this; only meaningful when both share the same key
+     */
+    public TaskStatsContribution minus(TaskStatsContribution other) {
+        return new TaskStatsContribution(key,
+                taskCount - other.taskCount,
+                pendingCount - other.pendingCount,
+                completedCount - other.completedCount,
+                cancelledCount - other.cancelledCount,
+                completedSameDayCount - other.completedSameDayCount,
+                weightKg - other.weightKg,
+                points - other.points);
+    }
+
+    public boolean isZero() {
+        return taskCount == 0 && pendingCount == 0 && completedCount == 0 && cancelledCount == 0
+                && completedSameDayCount == 0 && weightKg == 0.0 && points == 0;
+    }
+}
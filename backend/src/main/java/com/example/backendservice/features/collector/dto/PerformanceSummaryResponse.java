@@ -20,4 +20,8 @@ public class PerformanceSummaryResponse {
     private long totalJobsCancelled;
     private double completionRate; // percentage
     private Double averageCompletionTimeMinutes; // nullable if no completed jobs
+    // Completion time percentiles within 1%; nullable if no completed jobs
+    private Double p50CompletionTimeMinutes;
+    private Double p90CompletionTimeMinutes;
+    private Double p99CompletionTimeMinutes;
 }
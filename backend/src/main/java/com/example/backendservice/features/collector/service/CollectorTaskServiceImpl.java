@@ -3,11 +3,20 @@ package com.example.backendservice.features.collector.service;
 import com.example.backendservice.common.exception.BadRequestException;
 import com.example.backendservice.common.exception.ForbiddenException;
 import com.example.backendservice.common.exception.ResourceNotFoundException;
+import com.example.backendservice.common.sse.SseEventData;
+import com.example.backendservice.common.sse.SseService;
+import com.example.backendservice.common.sse.SseTopic;
+import com.example.backendservice.common.sse.SseTopicType;
+import com.example.backendservice.common.utils.TransactionUtils;
+import com.example.backendservice.features.analytics.dto.CompletionTimePercentilesDTO;
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
+import com.example.backendservice.features.analytics.service.CompletionTimeStatsService;
 import com.example.backendservice.features.collector.dto.*;
 import com.example.backendservice.features.collector.entity.CollectionRequest;
 import com.example.backendservice.features.collector.entity.StatusHistory;
 import com.example.backendservice.features.collector.repository.CollectionRequestRepository;
 import com.example.backendservice.features.collector.repository.StatusHistoryRepository;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -17,7 +26,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -28,6 +41,9 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
 
     private final CollectionRequestRepository collectionRequestRepository;
     private final StatusHistoryRepository statusHistoryRepository;
+    private final WasteReportRepository wasteReportRepository;
+    private final SseService sseService;
+    private final CompletionTimeStatsService completionTimeStatsService;
 
     private static final String TARGET_TYPE = "COLLECTION_REQUEST";
     private static final String STATUS_ASSIGNED = "ASSIGNED";
@@ -78,6 +94,7 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
 
         // Record status history
         recordStatusHistory(taskId, fromStatus, STATUS_ON_THE_WAY, collectorId, null);
+        notifyTaskUpdate(task, findAreaId(task));
 
         log.info("Task {} accepted by collector {}", taskId, collectorId);
 
@@ -117,18 +134,22 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
         String fromStatus = task.getStatus();
         task.setStatus(newStatus);
 
-        if (STATUS_COLLECTED.equals(newStatus)) {
-            task.setCollectedAt(Instant.now());
-        }
-
         if (request.getNote() != null) {
             task.setNote(request.getNote());
         }
 
         collectionRequestRepository.save(task);
 
+        UUID areaId = findAreaId(task);
+        if (STATUS_COLLECTED.equals(newStatus)) {
+            // The task is managed, so collectedAt is written with the rest when the transaction flushes
+            task.setCollectedAt(Instant.now());
+            completionTimeStatsService.recordCompletion(task, areaId);
+        }
+
         // Record status history
         recordStatusHistory(taskId, fromStatus, newStatus, collectorId, request.getNote());
+        notifyTaskUpdate(task, areaId);
 
         log.info("Task {} status updated to {} by collector {}", taskId, newStatus, collectorId);
 
@@ -159,6 +180,7 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
         // Update proof image
         task.setCollectorProofImageUrl(request.getCollectorProofImageUrl());
         collectionRequestRepository.save(task);
+        notifyTaskUpdate(task, findAreaId(task));
 
         log.info("Proof uploaded for task {} by collector {}", taskId, collectorId);
 
@@ -203,6 +225,9 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
                 ? avgCompletionTimeSeconds / 60.0
                 : null;
 
+        CompletionTimePercentilesDTO percentiles = completionTimeStatsService
+                .getPercentiles(CompletionTimeDimension.COLLECTOR, collectorId);
+
         return PerformanceSummaryResponse.builder()
                 .totalJobsAssigned(totalAssigned)
                 .totalJobsCompleted(totalCompleted)
@@ -212,6 +237,9 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
                 .averageCompletionTimeMinutes(avgCompletionTimeMinutes != null
                         ? Math.round(avgCompletionTimeMinutes * 100.0) / 100.0
                         : null)
+                .p50CompletionTimeMinutes(percentiles.getP50Minutes())
+                .p90CompletionTimeMinutes(percentiles.getP90Minutes())
+                .p99CompletionTimeMinutes(percentiles.getP99Minutes())
                 .build();
     }
 
@@ -243,6 +271,51 @@ public class CollectorTaskServiceImpl implements CollectorTaskService {
         log.debug("Recorded status history: {} -> {} for target {}", fromStatus, toStatus, targetId);
     }
 
+    private UUID findAreaId(CollectionRequest task) {
+        return task.getReportId() != null
+                ? wasteReportRepository.findAreaIdByReportId(task.getReportId()).orElse(null)
+                : null;
+    }
+
+    /**
+     * Notify subscribers of the request, its enterprise, its collector and its report's area via SSE topics,
+     * once the update commits
+     */
+    private void notifyTaskUpdate(CollectionRequest task, UUID areaId) {
+        List<SseTopic> topics = new ArrayList<>(4);
+        topics.add(SseTopic.of(SseTopicType.COLLECTION_REQUEST, task.getId()));
+        if (task.getEnterpriseId() != null) {
+            topics.add(SseTopic.of(SseTopicType.ENTERPRISE, task.getEnterpriseId()));
+        }
+        if (task.getCollectorId() != null) {
+            topics.add(SseTopic.of(SseTopicType.COLLECTOR, task.getCollectorId()));
+        }
+        if (areaId != null) {
+            topics.add(SseTopic.of(SseTopicType.AREA, areaId));
+        }
+
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", task.getId());
+        payload.put("reportId", task.getReportId());
+        payload.put("status", task.getStatus());
+        payload.put("collectorProofImageUrl", task.getCollectorProofImageUrl());
+
+        SseEventData event = SseEventData.builder()
+                .eventType("COLLECTION_REQUEST_UPDATE")
+                .payload(payload)
+                .timestamp(LocalDateTime.now())
+                .targetAudience(topics.get(0).toString())
+                .build();
+        UUID taskId = task.getId();
+        TransactionUtils.afterCommit(() -> {
+            try {
+                sseService.sendToTopics(topics, event);
+            } catch (Exception e) {
+                log.error("Failed to send SSE notification for task {}: {}", taskId, e.getMessage());
+            }
+        });
+    }
+
     private CollectorTaskResponse mapToTaskResponse(CollectionRequest task) {
         return CollectorTaskResponse.builder()
                 .id(task.getId())
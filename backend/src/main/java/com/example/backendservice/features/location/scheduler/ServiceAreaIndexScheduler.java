@@ -0,0 +1,39 @@
+package com.example.backendservice.features.location.scheduler;
+
+import com.example.backendservice.features.location.repository.ServiceAreaRepository;
+import com.example.backendservice.features.location.service.ServiceAreaIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduler for the in-memory service area index. Loads the ACTIVE areas on startup, then
+ * reloads them every rebuild interval to pick up changes made by other instances.
+ * Until the first load finishes, new reports only get an area when the client sends one.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceAreaIndexScheduler {
+
+    private final ServiceAreaIndex serviceAreaIndex;
+    private final ServiceAreaRepository serviceAreaRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${location.area-index.rebuild-interval-ms:300000}",
+            fixedDelayString = "${location.area-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            serviceAreaIndex.rebuild(() -> serviceAreaRepository.findByStatus("ACTIVE"));
+        } catch (Exception e) {
+            log.error("Error loading the service area index", e);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.backendservice.features.location.service;
+
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.features.location.entity.ServiceArea;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * In-memory point-in-polygon index of the ACTIVE service areas, resolving coordinates to the area
+ * containing them without the database.
+ * An area's shape is its GeoJSON boundary (Polygon or MultiPolygon, bare or in a Feature or
+ * FeatureCollection, holes included) or, without one, the circle of radiusKm around its center.
+ * Shapes are bucketed by the grid cells of {@link #CELL_DEGREES} their bounding box overlaps, so a
+ * lookup tests only the shapes of one cell: bounding box first, then the exact shape. Where areas
+ * overlap, a boundary wins over a circle and a smaller area over a larger one.
+ * Changes build a new snapshot that replaces the old one, so lookups never wait.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServiceAreaIndex {
+
+    static final double CELL_DEGREES = 0.05;
+
+    // Areas whose box spans more cells are tested on every lookup instead
+    private static final int MAX_CELLS_PER_AREA = 4_096;
+    private static final long LNG_CELLS = (long) Math.ceil(360 / CELL_DEGREES) + 1;
+
+    private record Ring(double[] lats, double[] lngs) {
+
+        boolean contains(double lat, double lng) {
+            boolean inside = false;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                if ((lats[i] > lat) != (lats[j] > lat)
+                        && lng < (lngs[j] - lngs[i]) * (lat - lats[i]) / (lats[j] - lats[i]) + lngs[i]) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        // Shoelace area in square degrees
+        double area() {
+            double sum = 0;
+            for (int i = 0, j = lats.length - 1; i < lats.length; j = i++) {
+                sum += lngs[j] * lats[i] - lngs[i] * lats[j];
+            }
+            return Math.abs(sum) / 2;
+        }
+    }
+
+    private record Polygon(Ring outer, List<Ring> holes) {
+
+        boolean contains(double lat, double lng) {
+            if (!outer.contains(lat, lng)) {
+                return false;
+            }
+            for (Ring hole : holes) {
+                if (hole.contains(lat, lng)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double area() {
+            double area = outer.area();
+            for (Ring hole : holes) {
+                area -= hole.area();
+            }
+            return area;
+        }
+    }
+
+    private record Shape(UUID areaId, double minLat, double maxLat, double minLng, double maxLng,
+                         List<Polygon> polygons, double centerLat, double centerLng, double radiusKm,
+                         double areaKm2) {
+
+        boolean isBoundary() {
+            return polygons != null;
+        }
+
+        boolean contains(double lat, double lng) {
+            if (lat < minLat || lat > maxLat || lng < minLng || lng > maxLng) {
+                return false;
+            }
+            if (polygons == null) {
+                return GeoUtils.haversineKm(centerLat, centerLng, lat, lng) <= radiusKm;
+            }
+            for (Polygon polygon : polygons) {
+                if (polygon.contains(lat, lng)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final Comparator<Shape> PREFERENCE = Comparator
+            .comparing((Shape shape) -> !shape.isBoundary())
+            .thenComparingDouble(Shape::areaKm2)
+            .thenComparing(Shape::areaId);
+
+    private record Snapshot(Map<UUID, Shape> shapes, Map<Long, Shape[]> cells, Shape[] large) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), new Shape[0]);
+
+    // Changes seen while a rebuild reads the database: area id to its shape, or null once dropped
+    private Map<UUID, Shape> changesDuringRebuild;
+
+    /**
+     * The area containing (lat, lng), or null when none does
+     */
+    public UUID resolve(double lat, double lng) {
+        Snapshot current = snapshot;
+        Shape best = null;
+        Shape[] candidates = current.cells().get(cellKey(lat, lng));
+        if (candidates != null) {
+            // Sorted by preference: the first match is the best in this cell
+            for (Shape shape : candidates) {
+                if (shape.contains(lat, lng)) {
+                    best = shape;
+                    break;
+                }
+            }
+        }
+        for (Shape shape : current.large()) {
+            if ((best == null || PREFERENCE.compare(shape, best) < 0) && shape.contains(lat, lng)) {
+                best = shape;
+            }
+        }
+        return best != null ? best.areaId() : null;
+    }
+
+    public int size() {
+        return snapshot.shapes().size();
+    }
+
+    /**
+     * Index an area, or replace it after an update; areas that are not ACTIVE or have no shape are dropped
+     */
+    public void put(ServiceArea area) {
+        Shape shape = toShape(area);
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(area.getId(), shape);
+            }
+            Map<UUID, Shape> shapes = new HashMap<>(snapshot.shapes());
+            shapes.remove(area.getId());
+            if (shape != null) {
+                shapes.put(area.getId(), shape);
+            }
+            snapshot = build(shapes);
+        }
+    }
+
+    public synchronized void remove(UUID areaId) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.put(areaId, null);
+        }
+        if (snapshot.shapes().containsKey(areaId)) {
+            Map<UUID, Shape> shapes = new HashMap<>(snapshot.shapes());
+            shapes.remove(areaId);
+            snapshot = build(shapes);
+        }
+    }
+
+    /**
+     * Replace the contents with the areas loader reads. Changes made while it runs
+     * are applied on top, as they are at least as new as what it read.
+     */
+    public void rebuild(Supplier<List<ServiceArea>> loader) {
+        synchronized (rebuildLock) {
+            rebuildFrom(loader);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if geoJson is not valid GeoJSON or holds no polygon
+     */
+    public void validateBoundary(String geoJson) {
+        parseBoundary(geoJson);
+    }
+
+    private void rebuildFrom(Supplier<List<ServiceArea>> loader) {
+        synchronized (this) {
+            changesDuringRebuild = new HashMap<>();
+        }
+        Map<UUID, Shape> shapes = new HashMap<>();
+        try {
+            for (ServiceArea area : loader.get()) {
+                Shape shape = toShape(area);
+                if (shape != null) {
+                    shapes.put(area.getId(), shape);
+                }
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        Snapshot loaded = build(shapes);
+        synchronized (this) {
+            if (!changesDuringRebuild.isEmpty()) {
+                for (Map.Entry<UUID, Shape> change : changesDuringRebuild.entrySet()) {
+                    shapes.remove(change.getKey());
+                    if (change.getValue() != null) {
+                        shapes.put(change.getKey(), change.getValue());
+                    }
+                }
+                loaded = build(shapes);
+            }
+            changesDuringRebuild = null;
+            snapshot = loaded;
+            log.info("Service area index loaded: {} areas", shapes.size());
+        }
+    }
+
+    // Polygons of a GeoJSON boundary
+    private List<Polygon> parseBoundary(String geoJson) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(geoJson);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("not valid JSON", e);
+        }
+        List<Polygon> polygons = new ArrayList<>();
+        collect(root, polygons);
+        if (polygons.isEmpty()) {
+            throw new IllegalArgumentException("no polygon found");
+        }
+        return polygons;
+    }
+
+    private static void collect(JsonNode node, List<Polygon> polygons) {
+        String type = node.path("type").asText();
+        switch (type) {
+            case "FeatureCollection" -> {
+                for (JsonNode feature : node.path("features")) {
+                    collect(feature, polygons);
+                }
+            }
+            case "Feature" -> collect(node.path("geometry"), polygons);
+            case "GeometryCollection" -> {
+                for (JsonNode geometry : node.path("geometries")) {
+                    collect(geometry, polygons);
+                }
+            }
+            case "Polygon" -> polygons.add(polygon(node.path("coordinates")));
+            case "MultiPolygon" -> {
+                for (JsonNode coordinates : node.path("coordinates")) {
+                    polygons.add(polygon(coordinates));
+                }
+            }
+            default -> throw new IllegalArgumentException("unsupported GeoJSON type '" + type + "'");
+        }
+    }
+
+    private static Polygon polygon(JsonNode rings) {
+        if (!rings.isArray() || rings.isEmpty()) {
+            throw new IllegalArgumentException("polygon without rings");
+        }
+        List<Ring> holes = new ArrayList<>();
+        for (int i = 1; i < rings.size(); i++) {
+            holes.add(ring(rings.get(i)));
+        }
+        return new Polygon(ring(rings.get(0)), holes);
+    }
+
+    // Positions are [lng, lat]
+    private static Ring ring(JsonNode positions) {
+        if (!positions.isArray() || positions.size() < 3) {
+            throw new IllegalArgumentException("ring with fewer than 3 positions");
+        }
+        double[] lats = new double[positions.size()];
+        double[] lngs = new double[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            JsonNode position = positions.get(i);
+            if (!position.path(0).isNumber() || !position.path(1).isNumber()) {
+                throw new IllegalArgumentException("position is not [lng, lat]");
+            }
+            lngs[i] = position.get(0).asDouble();
+            lats[i] = position.get(1).asDouble();
+            if (lats[i] < -90 || lats[i] > 90 || lngs[i] < -180 || lngs[i] > 180) {
+                throw new IllegalArgumentException("position out of range: [" + lngs[i] + ", " + lats[i] + "]");
+            }
+        }
+        return new Ring(lats, lngs);
+    }
+
+    private Shape toShape(ServiceArea area) {
+        if (!"ACTIVE".equals(area.getStatus())) {
+            return null;
+        }
+        if (area.getBoundaryGeoJson() != null && !area.getBoundaryGeoJson().isBlank()) {
+            try {
+                return boundaryShape(area.getId(), parseBoundary(area.getBoundaryGeoJson()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid boundary of service area {}: {}", area.getId(), e.getMessage());
+            }
+        }
+        if (area.getCenterLat() != null && area.getCenterLng() != null
+                && area.getRadiusKm() != null && area.getRadiusKm() > 0) {
+            GeoUtils.SearchArea box = GeoUtils.searchArea(area.getCenterLat(), area.getCenterLng(), area.getRadiusKm());
+            return new Shape(area.getId(), box.minLat(), box.maxLat(), box.minLng(), box.maxLng(), null,
+                    area.getCenterLat(), area.getCenterLng(), area.getRadiusKm(),
+                    Math.PI * area.getRadiusKm() * area.getRadiusKm());
+        }
+        return null;
+    }
+
+    private static Shape boundaryShape(UUID areaId, List<Polygon> polygons) {
+        double minLat = 90;
+        double maxLat = -90;
+        double minLng = 180;
+        double maxLng = -180;
+        double areaDegrees = 0;
+        for (Polygon polygon : polygons) {
+            for (int i = 0; i < polygon.outer().lats().length; i++) {
+                minLat = Math.min(minLat, polygon.outer().lats()[i]);
+                maxLat = Math.max(maxLat, polygon.outer().lats()[i]);
+                minLng = Math.min(minLng, polygon.outer().lngs()[i]);
+                maxLng = Math.max(maxLng, polygon.outer().lngs()[i]);
+            }
+            areaDegrees += polygon.area();
+        }
+        double kmPerLngDegree = GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians((minLat + maxLat) / 2));
+        return new Shape(areaId, minLat, maxLat, minLng, maxLng, polygons, 0, 0, 0,
+                areaDegrees * GeoUtils.KM_PER_DEGREE * kmPerLngDegree);
+    }
+
+    private static Snapshot build(Map<UUID, Shape> shapes) {
+        Map<Long, List<Shape>> cells = new HashMap<>();
+        List<Shape> large = new ArrayList<>();
+        for (Shape shape : shapes.values()) {
+            long minRow = row(shape.minLat());
+            long maxRow = row(shape.maxLat());
+            long minColumn = column(shape.minLng());
+            long maxColumn = column(shape.maxLng());
+            if ((maxRow - minRow + 1) * (maxColumn - minColumn + 1) > MAX_CELLS_PER_AREA) {
+                large.add(shape);
+                continue;
+            }
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long column = minColumn; column <= maxColumn; column++) {
+                    cells.computeIfAbsent(row * LNG_CELLS + column, key -> new ArrayList<>()).add(shape);
+                }
+            }
+        }
+        Map<Long, Shape[]> sortedCells = new HashMap<>(cells.size() * 2);
+        for (Map.Entry<Long, List<Shape>> cell : cells.entrySet()) {
+            Shape[] candidates = cell.getValue().toArray(new Shape[0]);
+            Arrays.sort(candidates, PREFERENCE);
+            sortedCells.put(cell.getKey(), candidates);
+        }
+        return new Snapshot(Map.copyOf(shapes), sortedCells, large.toArray(new Shape[0]));
+    }
+
+    private static long cellKey(double lat, double lng) {
+        return row(lat) * LNG_CELLS + column(lng);
+    }
+
+    private static long row(double lat) {
+        return (long) Math.floor((lat + 90) / CELL_DEGREES);
+    }
+
+    private static long column(double lng) {
+        return (long) Math.floor((lng + 180) / CELL_DEGREES);
+    }
+}
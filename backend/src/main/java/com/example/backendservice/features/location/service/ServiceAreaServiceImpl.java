@@ -1,5 +1,7 @@
 package com.example.backendservice.features.location.service;
 
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.common.utils.TransactionUtils;
 import com.example.backendservice.features.location.dto.CreateServiceAreaRequest;
 import com.example.backendservice.features.location.dto.ServiceAreaResponse;
 import com.example.backendservice.features.location.entity.ServiceArea;
@@ -20,11 +22,13 @@ import java.util.UUID;
 public class ServiceAreaServiceImpl implements ServiceAreaService {
 
     private final ServiceAreaRepository serviceAreaRepository;
+    private final ServiceAreaIndex serviceAreaIndex;
 
     @Override
     @Transactional
     public ServiceAreaResponse createServiceArea(CreateServiceAreaRequest request) {
         log.info("Creating service area: {}", request.getName());
+        validateBoundary(request.getBoundaryGeoJson());
 
         ServiceArea area = ServiceArea.builder()
                 .name(request.getName())
@@ -38,6 +42,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
 
         area = serviceAreaRepository.save(area);
         log.info("Created service area with id: {}", area.getId());
+        indexAfterCommit(area);
 
         return mapToResponse(area);
     }
@@ -65,6 +70,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
     @Transactional
     public ServiceAreaResponse updateServiceArea(UUID id, CreateServiceAreaRequest request) {
         log.info("Updating service area: {}", id);
+        validateBoundary(request.getBoundaryGeoJson());
 
         ServiceArea area = findById(id);
         area.setName(request.getName());
@@ -77,6 +83,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
         }
 
         area = serviceAreaRepository.save(area);
+        indexAfterCommit(area);
         return mapToResponse(area);
     }
 
@@ -86,6 +93,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
         log.info("Deleting service area: {}", id);
         ServiceArea area = findById(id);
         serviceAreaRepository.delete(area);
+        TransactionUtils.afterCommit(() -> serviceAreaIndex.remove(id));
     }
 
     @Override
@@ -94,6 +102,7 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
         ServiceArea area = findById(id);
         area.setStatus("ACTIVE");
         serviceAreaRepository.save(area);
+        indexAfterCommit(area);
     }
 
     @Override
@@ -102,6 +111,23 @@ public class ServiceAreaServiceImpl implements ServiceAreaService {
         ServiceArea area = findById(id);
         area.setStatus("INACTIVE");
         serviceAreaRepository.save(area);
+        indexAfterCommit(area);
+    }
+
+    private void validateBoundary(String boundaryGeoJson) {
+        if (boundaryGeoJson == null || boundaryGeoJson.isBlank()) {
+            return;
+        }
+        try {
+            serviceAreaIndex.validateBoundary(boundaryGeoJson);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid boundaryGeoJson: " + e.getMessage());
+        }
+    }
+
+    // Mirror the area in the report area index once its transaction commits
+    private void indexAfterCommit(ServiceArea area) {
+        TransactionUtils.afterCommit(() -> serviceAreaIndex.put(area));
     }
 
     private ServiceArea findById(UUID id) {
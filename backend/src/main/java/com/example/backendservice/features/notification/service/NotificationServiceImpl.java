@@ -169,7 +169,8 @@ public class NotificationServiceImpl implements NotificationService {
                     .timestamp(LocalDateTime.now())
                     .targetAudience(notification.getTargetAudience())
                     .build();
-            sseService.sendEvent(eventData);
+            // Rapid edits of the same notification collapse into the latest one
+            sseService.sendEvent(eventData, notification.getId().toString());
             log.info("SSE notification update sent: {}", notification.getTitle());
         } catch (Exception e) {
             log.error("Failed to send SSE notification update: {}", e.getMessage());
@@ -1,7 +1,9 @@
 package com.example.backendservice.features.task.controller;
 
 import com.example.backendservice.common.dto.ApiResponse;
+import com.example.backendservice.common.exception.BadRequestException;
 import com.example.backendservice.features.task.dto.*;
+import com.example.backendservice.features.task.service.TaskExportService;
 import com.example.backendservice.features.task.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -10,10 +12,15 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @RestController
@@ -23,6 +30,7 @@ import java.util.UUID;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskExportService taskExportService;
 
     @PostMapping
     @Operation(summary = "Tạo nhiệm vụ mới")
@@ -50,6 +58,28 @@ public class TaskController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @GetMapping("/enterprise/{enterpriseId}/export")
+    @Operation(summary = "Xuất danh sách nhiệm vụ của doanh nghiệp (CSV/NDJSON)",
+            description = "Nhiệm vụ tạo trong khoảng ngày (giờ Việt Nam), cũ nhất trước, ghi dần khi đọc từ cơ sở dữ liệu")
+    public ResponseEntity<StreamingResponseBody> exportTasksByEnterprise(
+            @PathVariable UUID enterpriseId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "CSV") TaskExportFormat format) {
+        if (endDate.isBefore(startDate)) {
+            throw new BadRequestException("endDate must not be before startDate");
+        }
+
+        StreamingResponseBody body = out -> taskExportService.exportTasks(
+                enterpriseId, startDate, endDate, status, format, out);
+        String fileName = "tasks-" + enterpriseId + "-" + startDate + "-" + endDate + "." + format.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @GetMapping("/area/{areaId}")
     @Operation(summary = "Lấy danh sách nhiệm vụ theo khu vực")
     public ResponseEntity<ApiResponse<Page<TaskResponse>>> getTasksByArea(
@@ -0,0 +1,17 @@
+package com.example.backendservice.features.task.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Output format of a task export
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -17,7 +17,10 @@ import java.util.UUID;
  * Được tạo từ WasteReport và gán cho Collector
  */
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+        // Hourly analytics read an enterprise's tasks over a created_at range
+        @Index(name = "idx_tasks_enterprise_created_at", columnList = "enterprise_id, created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -1,15 +1,20 @@
 package com.example.backendservice.features.task.repository;
 
 import com.example.backendservice.features.task.entity.Task;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, UUID> {
@@ -32,4 +37,50 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     long countByEnterpriseIdAndStatus(
             @Param("enterpriseId") UUID enterpriseId,
             @Param("status") String status);
+
+    /**
+     * Hourly analytics series of an enterprise: [bucket start, tasks created, completed the same day,
+     * weight, points] per hour that has tasks. created_at holds server-local time, read through the
+     * session time zone (the JVM's) and bucketed in businessZone; from/to are server-local so the index is used.
+     */
+    @Query(value = """
+            SELECT b.bucket, COUNT(*),
+                SUM(CASE WHEN b.status = 'COMPLETED'
+                    AND CAST(b.completed_local AS DATE) = CAST(b.created_local AS DATE) THEN 1 ELSE 0 END),
+                COALESCE(SUM(b.actual_weight_kg), 0),
+                COALESCE(SUM(b.points_awarded), 0)
+            FROM (
+                SELECT DATE_TRUNC('hour', CAST(created_at AS TIMESTAMP WITH TIME ZONE) AT TIME ZONE :businessZone) AS bucket,
+                    CAST(created_at AS TIMESTAMP WITH TIME ZONE) AT TIME ZONE :businessZone AS created_local,
+                    CAST(completed_at AS TIMESTAMP WITH TIME ZONE) AT TIME ZONE :businessZone AS completed_local,
+                    status, actual_weight_kg, points_awarded
+                FROM tasks
+                WHERE enterprise_id = :enterpriseId AND created_at >= :from AND created_at < :to
+            ) b
+            GROUP BY b.bucket
+            """, nativeQuery = true)
+    List<Object[]> findHourlySeries(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("businessZone") String businessZone);
+
+    /**
+     * An enterprise's tasks created in [from, to), oldest first, read through a forward-only cursor
+     * for exports. The fetch size only streams on Postgres inside a transaction (autocommit off),
+     * and the stream must be closed in it. Enterprise, area and waste type are fetched in the same row.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t JOIN FETCH t.enterprise LEFT JOIN FETCH t.area LEFT JOIN FETCH t.wasteType " +
+            "WHERE t.enterprise.id = :enterpriseId AND t.createdAt >= :from AND t.createdAt < :to " +
+            "AND (:status IS NULL OR t.status = :status) " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<Task> streamForExport(
+            @Param("enterpriseId") UUID enterpriseId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") String status);
 }
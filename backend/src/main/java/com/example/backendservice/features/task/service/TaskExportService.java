@@ -0,0 +1,21 @@
+package com.example.backendservice.features.task.service;
+
+import com.example.backendservice.features.task.dto.TaskExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public interface TaskExportService {
+
+    /**
+     * Write an enterprise's tasks created in [startDate, endDate] (business days), oldest first,
+     * to out as they are read from the database.
+     *
+     * @param status only tasks in this status, or null for all
+     * @return number of tasks written
+     */
+    long exportTasks(UUID enterpriseId, LocalDate startDate, LocalDate endDate, String status,
+                     TaskExportFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,72 @@
+package com.example.backendservice.features.task.service;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.task.dto.TaskExportFormat;
+import com.example.backendservice.features.task.entity.Task;
+import com.example.backendservice.features.task.repository.TaskRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Streams task exports straight from a database cursor to the response. Each task is detached
+ * once written, so the persistence context only keeps the enterprise, areas and waste types the
+ * tasks share and memory stays flat however many rows are exported.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskExportServiceImpl implements TaskExportService {
+
+    // Rows between flushes to the client
+    private static final int FLUSH_EVERY = 500;
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportTasks(UUID enterpriseId, LocalDate startDate, LocalDate endDate, String status,
+                            TaskExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        LocalDateTime from = DateUtils.fromBusinessTime(startDate.atStartOfDay());
+        LocalDateTime to = DateUtils.fromBusinessTime(endDate.plusDays(1).atStartOfDay());
+
+        long written = 0;
+        try (Stream<Task> tasks = taskRepository.streamForExport(enterpriseId, from, to, status);
+             TaskExportWriter writer = TaskExportWriter.of(format, out, objectMapper)) {
+            Iterator<Task> iterator = tasks.iterator();
+            while (iterator.hasNext()) {
+                Task task = iterator.next();
+                writer.write(task);
+                detach(task);
+                if (++written % FLUSH_EVERY == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        log.info("Exported {} tasks of enterprise {} as {} in {} ms",
+                written, enterpriseId, format, System.currentTimeMillis() - start);
+        return written;
+    }
+
+    // The waste report is an uninitialized proxy, registered in the context like an entity
+    private void detach(Task task) {
+        if (task.getWasteReport() != null) {
+            entityManager.detach(task.getWasteReport());
+        }
+        entityManager.detach(task);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.backendservice.features.task.service;
+
+import com.example.backendservice.features.task.dto.TaskExportFormat;
+import com.example.backendservice.features.task.entity.Task;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported tasks one at a time, with the same fields as TaskResponse.
+ * Only the current row is held; flush() pushes what was written to the client.
+ */
+abstract class TaskExportWriter implements AutoCloseable {
+
+    static final String[] COLUMNS = {
+            "id", "wasteReportId", "enterpriseId", "enterpriseName", "areaId", "areaName",
+            "wasteTypeId", "wasteTypeName", "estimatedWeightKg", "actualWeightKg", "locationText",
+            "lat", "lng", "notes", "status", "priority", "scheduledAt", "startedAt", "completedAt",
+            "pointsAwarded", "createdAt"
+    };
+
+    static TaskExportWriter of(TaskExportFormat format, OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return format == TaskExportFormat.CSV ? new Csv(out) : new Ndjson(out, objectMapper);
+    }
+
+    abstract void write(Task task) throws IOException;
+
+    abstract void flush() throws IOException;
+
+    // Closes the writer only; the response stream belongs to the container
+    @Override
+    public abstract void close() throws IOException;
+
+    private static Object[] values(Task task) {
+        return new Object[]{
+                task.getId(),
+                task.getWasteReport() != null ? task.getWasteReport().getId() : null,
+                task.getEnterprise().getId(),
+                task.getEnterprise().getName(),
+                task.getArea() != null ? task.getArea().getId() : null,
+                task.getArea() != null ? task.getArea().getName() : null,
+                task.getWasteType() != null ? task.getWasteType().getId() : null,
+                task.getWasteType() != null ? task.getWasteType().getName() : null,
+                task.getEstimatedWeightKg(),
+                task.getActualWeightKg(),
+                task.getLocationText(),
+                task.getLat(),
+                task.getLng(),
+                task.getNotes(),
+                task.getStatus(),
+                task.getPriority(),
+                task.getScheduledAt(),
+                task.getStartedAt(),
+                task.getCompletedAt(),
+                task.getPointsAwarded(),
+                task.getCreatedAt()
+        };
+    }
+
+    /**
+     * RFC 4180 CSV with a header row. Text that a spreadsheet would run as a formula is prefixed with '
+     */
+    static final class Csv extends TaskExportWriter {
+
+        private final Writer writer;
+
+        Csv(OutputStream out) throws IOException {
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            // BOM, so Excel opens Vietnamese names as UTF-8
+            writer.write('\uFEFF');
+            writeRow(COLUMNS);
+        }
+
+        @Override
+        void write(Task task) throws IOException {
+            writeRow(values(task));
+        }
+
+        private void writeRow(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = values[i];
+                if (value instanceof String text) {
+                    writeText(text);
+                } else if (value != null) {
+                    writer.write(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void writeText(String text) throws IOException {
+            if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /**
+     * One JSON object per line, written field by field through a streaming generator
+     */
+    static final class Ndjson extends TaskExportWriter {
+
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        void write(Task task) throws IOException {
+            Object[] values = values(task);
+            generator.writeStartObject();
+            for (int i = 0; i < COLUMNS.length; i++) {
+                generator.writeFieldName(COLUMNS[i]);
+                // Through the application's ObjectMapper, so values look as they do in TaskResponse
+                generator.writeObject(values[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.backendservice.features.task.service;
 
+import com.example.backendservice.features.analytics.service.EnterpriseDailyStatsService;
+import com.example.backendservice.features.analytics.service.TaskStatsContribution;
 import com.example.backendservice.features.enterprise.entity.Enterprise;
 import com.example.backendservice.features.enterprise.repository.EnterpriseRepository;
 import com.example.backendservice.features.location.entity.ServiceArea;
@@ -35,6 +37,7 @@ public class TaskServiceImpl implements TaskService {
     private final ServiceAreaRepository serviceAreaRepository;
     private final WasteTypeRepository wasteTypeRepository;
     private final CollectorProfileRepository collectorProfileRepository;
+    private final EnterpriseDailyStatsService dailyStatsService;
 
     @Override
     @Transactional
@@ -67,6 +70,7 @@ public class TaskServiceImpl implements TaskService {
         }
 
         task = taskRepository.save(task);
+        dailyStatsService.recordTaskChange(null, task);
         return mapToResponse(task);
     }
 
@@ -116,8 +120,10 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public void deleteTask(UUID id) {
         Task task = findTaskById(id);
+        TaskStatsContribution before = TaskStatsContribution.of(task);
         task.setStatus("CANCELLED");
         taskRepository.save(task);
+        dailyStatsService.recordTaskChange(before, task);
     }
 
     @Override
@@ -140,10 +146,12 @@ public class TaskServiceImpl implements TaskService {
         if (!"IN_PROGRESS".equals(task.getStatus())) {
             throw new IllegalStateException("Only IN_PROGRESS tasks can be completed");
         }
+        TaskStatsContribution before = TaskStatsContribution.of(task);
         task.setStatus("COMPLETED");
         task.setActualWeightKg(actualWeightKg);
         task.setCompletedAt(LocalDateTime.now());
         task = taskRepository.save(task);
+        dailyStatsService.recordTaskChange(before, task);
         return mapToResponse(task);
     }
 
@@ -151,9 +159,11 @@ public class TaskServiceImpl implements TaskService {
     @Transactional
     public TaskResponse cancelTask(UUID taskId, String reason) {
         Task task = findTaskById(taskId);
+        TaskStatsContribution before = TaskStatsContribution.of(task);
         task.setStatus("CANCELLED");
         task.setNotes(task.getNotes() + " | Cancelled: " + reason);
         task = taskRepository.save(task);
+        dailyStatsService.recordTaskChange(before, task);
         return mapToResponse(task);
     }
 
@@ -180,8 +190,10 @@ public class TaskServiceImpl implements TaskService {
 
         assignment = assignmentRepository.save(assignment);
 
+        TaskStatsContribution before = TaskStatsContribution.of(task);
         task.setStatus("ASSIGNED");
         taskRepository.save(task);
+        dailyStatsService.recordTaskChange(before, task);
 
         return mapToAssignmentResponse(assignment);
     }
@@ -209,8 +221,10 @@ public class TaskServiceImpl implements TaskService {
 
         // Reset task status to PENDING
         Task task = assignment.getTask();
+        TaskStatsContribution before = TaskStatsContribution.of(task);
         task.setStatus("PENDING");
         taskRepository.save(task);
+        dailyStatsService.recordTaskChange(before, task);
 
         return mapToAssignmentResponse(assignment);
     }
@@ -2,6 +2,9 @@ package com.example.backendservice.features.waste.controller;
 
 import com.example.backendservice.common.dto.ApiResponse;
 import com.example.backendservice.features.waste.dto.CreateWasteReportRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsResponse;
+import com.example.backendservice.features.waste.dto.NearbyReportDTO;
 import com.example.backendservice.features.waste.dto.SuggestedReportDTO;
 import com.example.backendservice.features.waste.dto.WasteReportResponse;
 import com.example.backendservice.features.waste.service.WasteReportService;
@@ -14,6 +17,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -80,6 +84,43 @@ public class WasteReportController {
         return ResponseEntity.ok(ApiResponse.success("Danh sách báo cáo đề xuất theo độ ưu tiên", response));
     }
 
+    @GetMapping("/nearby")
+    @Operation(summary = "Tìm báo cáo đang chờ gần một vị trí (trong bán kính, hoặc gần nhất nếu không có bán kính)")
+    public ResponseEntity<ApiResponse<List<NearbyReportDTO>>> getNearbyReports(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<NearbyReportDTO> response = wasteReportService.getNearbyReports(lat, lng, radiusKm, limit);
+        return ResponseEntity.ok(ApiResponse.success("Danh sách báo cáo gần vị trí", response));
+    }
+
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Lấy danh sách báo cáo nghi trùng lặp chờ xem xét (Admin)")
+    public ResponseEntity<ApiResponse<Page<WasteReportResponse>>> getFlaggedDuplicates(
+            @PageableDefault(size = 10) Pageable pageable) {
+        Page<WasteReportResponse> response = wasteReportService.getFlaggedDuplicates(pageable);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @PostMapping("/merge")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Gộp hàng loạt báo cáo trùng lặp vào một báo cáo (Admin)")
+    public ResponseEntity<ApiResponse<MergeReportsResponse>> mergeReports(
+            @Valid @RequestBody MergeReportsRequest request) {
+        MergeReportsResponse response = wasteReportService.mergeReports(request);
+        return ResponseEntity.ok(ApiResponse.success("Đã gộp báo cáo trùng lặp", response));
+    }
+
+    @PatchMapping("/{id}/dismiss-duplicate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bỏ đánh dấu nghi trùng lặp của báo cáo (Admin)")
+    public ResponseEntity<ApiResponse<WasteReportResponse>> dismissDuplicate(@PathVariable UUID id) {
+        WasteReportResponse response = wasteReportService.dismissDuplicate(id);
+        return ResponseEntity.ok(ApiResponse.success("Đã bỏ đánh dấu trùng lặp", response));
+    }
+
     @GetMapping("/{id}/priority-score")
     @Operation(summary = "Tính điểm ưu tiên cho báo cáo")
     public ResponseEntity<ApiResponse<Double>> calculatePriorityScore(@PathVariable UUID id) {
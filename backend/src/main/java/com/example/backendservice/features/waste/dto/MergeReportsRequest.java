@@ -0,0 +1,23 @@
+package com.example.backendservice.features.waste.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeReportsRequest {
+
+    @NotNull(message = "Target report ID is required")
+    private UUID targetReportId;
+
+    @NotEmpty(message = "Duplicate report IDs are required")
+    @Size(max = 100, message = "At most 100 reports can be merged at once")
+    private List<@NotNull(message = "Duplicate report IDs must not be null") UUID> duplicateReportIds;
+}
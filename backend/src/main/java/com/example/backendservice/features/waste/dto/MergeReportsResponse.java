@@ -0,0 +1,17 @@
+package com.example.backendservice.features.waste.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MergeReportsResponse {
+
+    private UUID targetReportId;
+    private List<UUID> mergedReportIds;
+    private int relinkedCount; // Reports flagged against a merged report, now pointing at the target
+}
@@ -0,0 +1,23 @@
+package com.example.backendservice.features.waste.dto;
+
+import lombok.*;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyReportDTO {
+
+    private UUID reportId;
+    private Double lat;
+    private Double lng;
+    private Double distanceKm;
+    private String areaName;
+    private String wasteTypeName;
+    private Double estimatedWeightKg;
+    private String locationText;
+    private String priority;
+    private String status;
+    private String createdAt;
+}
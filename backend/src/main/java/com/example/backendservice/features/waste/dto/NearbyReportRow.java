@@ -0,0 +1,27 @@
+package com.example.backendservice.features.waste.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One PENDING report inside a nearby search's cells and bounding box, read by a projection query;
+ * its distance is computed afterwards for these candidates only
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class NearbyReportRow {
+
+    private UUID reportId;
+    private Double lat;
+    private Double lng;
+    private String areaName;
+    private String wasteTypeName;
+    private Double estimatedWeightKg;
+    private String locationText;
+    private String priority;
+    private String status;
+    private LocalDateTime createdAt;
+}
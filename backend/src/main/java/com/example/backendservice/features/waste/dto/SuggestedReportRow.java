@@ -0,0 +1,30 @@
+package com.example.backendservice.features.waste.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One PENDING report with the columns the suggestion list shows and its priority score,
+ * read by a single projection query instead of loading the report and its associations
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class SuggestedReportRow {
+
+    private UUID reportId;
+    private String citizenFirstName;
+    private String citizenLastName;
+    private UUID areaId;
+    private String areaName;
+    private String wasteTypeName;
+    private Double basePointsPerKg;
+    private Double estimatedWeightKg;
+    private String locationText;
+    private String priority;
+    private String status;
+    private LocalDateTime createdAt;
+    private Double priorityScore;
+}
@@ -24,6 +24,7 @@ public class WasteReportResponse {
     private String description;
     private String imageUrls;
     private String status;
+    private UUID duplicateOfId;
     private String rejectionReason;
     private String priority;
     private LocalDateTime preferredDate;
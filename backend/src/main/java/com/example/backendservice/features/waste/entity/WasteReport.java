@@ -1,7 +1,8 @@
 package com.example.backendservice.features.waste.entity;
 
+import com.example.backendservice.common.utils.GeoUtils;
 import com.example.backendservice.features.location.entity.ServiceArea;
-import com.example.backendservice.features.user.entity.Citizen;
+import com.example.backendservice.features.user.entity.CitizenProfile;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -15,7 +16,14 @@ import java.util.UUID;
  * Citizen tạo báo cáo về rác cần thu gom
  */
 @Entity
-@Table(name = "waste_reports")
+@Table(name = "waste_reports", indexes = {
+        // Suggestions rank the PENDING reports, optionally of one area
+        @Index(name = "idx_waste_reports_status_area", columnList = "status, area_id"),
+        // Nearby search scans the PENDING reports in a few geo cell ranges
+        @Index(name = "idx_waste_reports_status_geo_cell", columnList = "status, geo_cell"),
+        // Merges relink the reports pointing at a merged duplicate
+        @Index(name = "idx_waste_reports_duplicate_of", columnList = "duplicate_of_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -30,7 +38,7 @@ public class WasteReport {
     // Citizen tạo report
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "citizen_id", nullable = false)
-    private Citizen citizen;
+    private CitizenProfile citizen;
 
     // Khu vực
     @ManyToOne(fetch = FetchType.LAZY)
@@ -54,6 +62,10 @@ public class WasteReport {
     @Column(name = "lng")
     private Double lng;
 
+    // Ô geohash (GeoUtils.cellOf) của lat/lng, cập nhật khi lưu
+    @Column(name = "geo_cell")
+    private Long geoCell;
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -62,7 +74,12 @@ public class WasteReport {
 
     @Column(length = 50)
     @Builder.Default
-    private String status = "PENDING"; // PENDING, ACCEPTED, REJECTED, ASSIGNED, COMPLETED, CANCELLED
+    private String status = "PENDING"; // PENDING, ACCEPTED, REJECTED, ASSIGNED, COMPLETED, CANCELLED, DUPLICATE
+
+    // Báo cáo gốc mà báo cáo này trùng lặp (DUPLICATE: đã gộp; PENDING: nghi trùng, chờ Admin xem xét)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "duplicate_of_id")
+    private WasteReport duplicateOf;
 
     @Column(name = "rejection_reason", length = 500)
     private String rejectionReason;
@@ -80,4 +97,10 @@ public class WasteReport {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateGeoCell() {
+        geoCell = lat != null && lng != null ? GeoUtils.cellOf(lat, lng) : null;
+    }
 }
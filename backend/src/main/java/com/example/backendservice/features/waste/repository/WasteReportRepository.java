@@ -1,19 +1,40 @@
 package com.example.backendservice.features.waste.repository;
 
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.features.waste.dto.NearbyReportRow;
+import com.example.backendservice.features.waste.dto.SuggestedReportRow;
 import com.example.backendservice.features.waste.entity.WasteReport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface WasteReportRepository extends JpaRepository<WasteReport, UUID> {
 
+    // Priority scoring weights
+    double WEIGHT_FACTOR = 0.30; // Larger weight = higher priority
+    double PRIORITY_FACTOR = 0.25; // User priority
+    double AGE_FACTOR = 0.25; // Older reports = higher priority
+    double WASTE_TYPE_FACTOR = 0.20; // High-value waste types
+
+    // Priority score of report r (waste type wt) at :now, 0-100.
+    // Same formula as WasteReportServiceImpl.calculatePriorityScoreInternal:
+    // weight up to 50kg, user priority, age up to 7 days (604800 s), base points per kg up to 20
+    String PRIORITY_SCORE = "(LEAST(COALESCE(r.estimatedWeightKg, 0) / 50.0 * 100, 100) * " + WEIGHT_FACTOR +
+            " + CASE r.priority WHEN 'URGENT' THEN 100 WHEN 'HIGH' THEN 75 WHEN 'LOW' THEN 25 ELSE 50 END * " +
+            PRIORITY_FACTOR +
+            " + COALESCE(LEAST(((:now - r.createdAt) by second) / 604800.0 * 100, 100), 0) * " + AGE_FACTOR +
+            " + COALESCE(LEAST(wt.basePointsPerKg * 5, 100), 0) * " + WASTE_TYPE_FACTOR + ")";
+
     Page<WasteReport> findByCitizenId(UUID citizenId, Pageable pageable);
 
     Page<WasteReport> findByAreaId(UUID areaId, Pageable pageable);
@@ -28,6 +49,111 @@ public interface WasteReportRepository extends JpaRepository<WasteReport, UUID>
 
     List<WasteReport> findByStatusIn(List<String> statuses);
 
+    String SUGGESTED_SELECT = "SELECT new com.example.backendservice.features.waste.dto.SuggestedReportRow(" +
+            "r.id, u.firstName, u.lastName, a.id, a.name, wt.name, wt.basePointsPerKg, " +
+            "r.estimatedWeightKg, r.locationText, r.priority, r.status, r.createdAt, " + PRIORITY_SCORE + ") " +
+            "FROM WasteReport r " +
+            "JOIN r.citizen c JOIN c.user u " +
+            "LEFT JOIN r.area a " +
+            "LEFT JOIN r.primaryWasteType wt " +
+            "WHERE r.status = 'PENDING'";
+
+    /**
+     * Highest-scoring PENDING reports, optionally in one area, scored and ranked by the database;
+     * the pageable's size is the number of rows returned
+     */
+    @Query(SUGGESTED_SELECT + " AND (:areaId IS NULL OR r.area.id = :areaId) " +
+            "ORDER BY " + PRIORITY_SCORE + " DESC, r.createdAt, r.id")
+    List<SuggestedReportRow> findSuggested(
+            @Param("areaId") UUID areaId,
+            @Param("now") LocalDateTime now,
+            Pageable pageable);
+
+    /**
+     * Every PENDING report, unordered, to load the in-memory suggestion index
+     */
+    @Query(SUGGESTED_SELECT)
+    List<SuggestedReportRow> findAllSuggestable(@Param("now") LocalDateTime now);
+
+    String NEARBY_SELECT = "SELECT new com.example.backendservice.features.waste.dto.NearbyReportRow(" +
+            "r.id, r.lat, r.lng, a.name, wt.name, r.estimatedWeightKg, r.locationText, r.priority, " +
+            "r.status, r.createdAt) " +
+            "FROM WasteReport r " +
+            "LEFT JOIN r.area a " +
+            "LEFT JOIN r.primaryWasteType wt ";
+
+    // Report r in any of four geo cell ranges and inside the bounding box (GeoUtils.SearchArea)
+    String IN_SEARCH_AREA = "(r.geoCell BETWEEN :cell0Start AND :cell0End OR r.geoCell BETWEEN :cell1Start AND :cell1End " +
+            "OR r.geoCell BETWEEN :cell2Start AND :cell2End OR r.geoCell BETWEEN :cell3Start AND :cell3End) " +
+            "AND r.lat BETWEEN :minLat AND :maxLat AND r.lng BETWEEN :minLng AND :maxLng";
+
+    /**
+     * PENDING reports in any of four geo cell ranges and inside the bounding box; ranges may repeat
+     */
+    @Query(NEARBY_SELECT + "WHERE r.status = 'PENDING' AND " + IN_SEARCH_AREA)
+    List<NearbyReportRow> findNearbyCandidates(
+            @Param("cell0Start") long cell0Start, @Param("cell0End") long cell0End,
+            @Param("cell1Start") long cell1Start, @Param("cell1End") long cell1End,
+            @Param("cell2Start") long cell2Start, @Param("cell2End") long cell2End,
+            @Param("cell3Start") long cell3Start, @Param("cell3End") long cell3End,
+            @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLng") double minLng, @Param("maxLng") double maxLng);
+
+    default List<NearbyReportRow> findNearbyCandidates(GeoUtils.SearchArea area) {
+        List<GeoUtils.CellRange> cells = area.cells();
+        return findNearbyCandidates(
+                cells.get(0).start(), cells.get(0).end(), cells.get(1).start(), cells.get(1).end(),
+                cells.get(2).start(), cells.get(2).end(), cells.get(3).start(), cells.get(3).end(),
+                area.minLat(), area.maxLat(), area.minLng(), area.maxLng());
+    }
+
+    /**
+     * Reports of the given statuses created since the given time in the search area, oldest first
+     */
+    @Query(NEARBY_SELECT + "WHERE r.status IN :statuses AND r.createdAt >= :since AND " + IN_SEARCH_AREA +
+            " ORDER BY r.createdAt, r.id")
+    List<NearbyReportRow> findRecentCandidates(
+            @Param("statuses") List<String> statuses, @Param("since") LocalDateTime since,
+            @Param("cell0Start") long cell0Start, @Param("cell0End") long cell0End,
+            @Param("cell1Start") long cell1Start, @Param("cell1End") long cell1End,
+            @Param("cell2Start") long cell2Start, @Param("cell2End") long cell2End,
+            @Param("cell3Start") long cell3Start, @Param("cell3End") long cell3End,
+            @Param("minLat") double minLat, @Param("maxLat") double maxLat,
+            @Param("minLng") double minLng, @Param("maxLng") double maxLng);
+
+    default List<NearbyReportRow> findRecentCandidates(List<String> statuses, LocalDateTime since,
+                                                       GeoUtils.SearchArea area) {
+        List<GeoUtils.CellRange> cells = area.cells();
+        return findRecentCandidates(statuses, since,
+                cells.get(0).start(), cells.get(0).end(), cells.get(1).start(), cells.get(1).end(),
+                cells.get(2).start(), cells.get(2).end(), cells.get(3).start(), cells.get(3).end(),
+                area.minLat(), area.maxLat(), area.minLng(), area.maxLng());
+    }
+
+    /**
+     * Reports flagged as possible duplicates that are still in the given status
+     */
+    @Query("SELECT r FROM WasteReport r WHERE r.duplicateOf IS NOT NULL AND r.status = :status")
+    Page<WasteReport> findFlaggedDuplicates(@Param("status") String status, Pageable pageable);
+
+    /**
+     * Point reports linked to any of the given reports at another one instead
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WasteReport r SET r.duplicateOf = :target WHERE r.duplicateOf.id IN :reportIds AND r <> :target")
+    int relinkDuplicates(@Param("reportIds") List<UUID> reportIds, @Param("target") WasteReport target);
+
+    /**
+     * Reports saved before geo cells existed, or written around the entity, that have coordinates
+     */
+    List<WasteReport> findByGeoCellIsNullAndLatIsNotNullAndLngIsNotNull(Pageable pageable);
+
     @Query("SELECT COUNT(r) FROM WasteReport r WHERE r.citizen.id = :citizenId")
     long countByCitizenId(@Param("citizenId") UUID citizenId);
+
+    /**
+     * Service area of a report without loading the report
+     */
+    @Query("SELECT a.id FROM WasteReport r JOIN r.area a WHERE r.id = :reportId")
+    Optional<UUID> findAreaIdByReportId(@Param("reportId") UUID reportId);
 }
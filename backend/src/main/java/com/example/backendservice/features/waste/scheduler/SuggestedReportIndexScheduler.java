@@ -0,0 +1,44 @@
+package com.example.backendservice.features.waste.scheduler;
+
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import com.example.backendservice.features.waste.service.SuggestedReportIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scheduler for the in-memory suggestion index. Loads the PENDING reports on startup, then
+ * reloads them every rebuild interval to pick up changes made by other instances.
+ * Until the first load finishes, suggestions are ranked by the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestedReportIndexScheduler {
+
+    private final SuggestedReportIndex suggestedReportIndex;
+    private final WasteReportRepository wasteReportRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${waste.suggested-index.rebuild-interval-ms:300000}",
+            fixedDelayString = "${waste.suggested-index.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        if (!suggestedReportIndex.isEnabled()) {
+            return;
+        }
+        try {
+            suggestedReportIndex.rebuild(() -> wasteReportRepository.findAllSuggestable(LocalDateTime.now()));
+        } catch (Exception e) {
+            log.error("Error loading the suggested report index", e);
+        }
+    }
+}
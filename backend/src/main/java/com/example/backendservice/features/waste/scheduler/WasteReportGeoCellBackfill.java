@@ -0,0 +1,56 @@
+package com.example.backendservice.features.waste.scheduler;
+
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.features.waste.entity.WasteReport;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the geo cell of reports that have coordinates but none, e.g. those saved before the
+ * column existed, so nearby search finds them. Runs once on startup, a batch per transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WasteReportGeoCellBackfill {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final WasteReportRepository wasteReportRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            int total = 0;
+            int updated;
+            do {
+                updated = transactionTemplate.execute(status -> backfillBatch());
+                total += updated;
+            } while (updated == BATCH_SIZE);
+            if (total > 0) {
+                log.info("Backfilled geo cells of {} waste reports", total);
+            }
+        } catch (Exception e) {
+            log.error("Error backfilling waste report geo cells", e);
+        }
+    }
+
+    private int backfillBatch() {
+        List<WasteReport> reports = wasteReportRepository
+                .findByGeoCellIsNullAndLatIsNotNullAndLngIsNotNull(PageRequest.of(0, BATCH_SIZE));
+        for (WasteReport report : reports) {
+            report.setGeoCell(GeoUtils.cellOf(report.getLat(), report.getLng()));
+        }
+        wasteReportRepository.saveAll(reports);
+        return reports.size();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backendservice.features.waste.service;
+
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.features.waste.dto.NearbyReportRow;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Finds the open report a new one probably duplicates: the oldest PENDING, ACCEPTED or ASSIGNED
+ * report within the configured distance, created within the time window. Candidates come from
+ * the geo cell index (the same cells as nearby search), so only reports around the point are read.
+ * FLAG marks the new report for an admin to merge; LINK merges it straight away; OFF skips the check.
+ */
+@Component
+public class DuplicateReportDetector {
+
+    public enum Mode {
+        OFF,
+        FLAG,
+        LINK
+    }
+
+    static final List<String> OPEN_STATUSES = List.of("PENDING", "ACCEPTED", "ASSIGNED");
+
+    private final WasteReportRepository wasteReportRepository;
+    private final Mode mode;
+    private final double distanceKm;
+    private final long windowHours;
+
+    public DuplicateReportDetector(
+            WasteReportRepository wasteReportRepository,
+            @Value("${waste.duplicates.mode:FLAG}") Mode mode,
+            @Value("${waste.duplicates.distance-m:50}") double distanceMeters,
+            @Value("${waste.duplicates.window-hours:72}") long windowHours) {
+        this.wasteReportRepository = wasteReportRepository;
+        this.mode = mode;
+        this.distanceKm = distanceMeters / 1000;
+        this.windowHours = windowHours;
+    }
+
+    /**
+     * Whether duplicates are merged on creation rather than flagged
+     */
+    public boolean linksDuplicates() {
+        return mode == Mode.LINK;
+    }
+
+    /**
+     * The open report a report at (lat, lng) created at now duplicates, or null
+     */
+    public UUID findOriginal(Double lat, Double lng, LocalDateTime now) {
+        if (mode == Mode.OFF || lat == null || lng == null) {
+            return null;
+        }
+        List<NearbyReportRow> candidates = wasteReportRepository.findRecentCandidates(OPEN_STATUSES,
+                now.minusHours(windowHours), GeoUtils.searchArea(lat, lng, distanceKm));
+        // Oldest first
+        for (NearbyReportRow candidate : candidates) {
+            if (GeoUtils.haversineKm(lat, lng, candidate.getLat(), candidate.getLng()) <= distanceKm) {
+                return candidate.getReportId();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.backendservice.features.waste.service;
+
+import com.example.backendservice.features.waste.dto.SuggestedReportRow;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of PENDING reports, per area and overall, answering the suggestion list
+ * without the database.
+ * The score is a static part (weight, priority, waste type) plus an age term that grows linearly
+ * with age until it caps at 7 days. Each area keeps its reports in three lanes whose order does not
+ * change with time: younger than 7 days by static score minus the age slope times creation time
+ * (their scores all grow at the same rate), capped by static score, and undated by static score.
+ * A query first moves reports that have reached 7 days to the capped lane, then merges the
+ * three lanes' heads: O(K) per query plus O(log N) per report moved, O(log N) per change.
+ * Mutations arrive after their transaction commits; a rebuild replays those that arrive while it
+ * reads the database, so it never drops a newer change.
+ */
+@Component
+@Slf4j
+public class SuggestedReportIndex {
+
+    static final long MAX_AGE_SECONDS = ChronoUnit.DAYS.getDuration().getSeconds() * 7;
+
+    // Score gained per second of age until the cap
+    private static final double AGE_SLOPE = 100.0 / MAX_AGE_SECONDS * WasteReportRepository.AGE_FACTOR;
+    private static final double MAX_AGE_SCORE = 100 * WasteReportRepository.AGE_FACTOR;
+
+    public record Ranked(SuggestedReportRow row, double score) {
+    }
+
+    private record Entry(SuggestedReportRow row, double staticScore, Long createdSeconds) {
+
+        UUID id() {
+            return row.getReportId();
+        }
+
+        // Score minus the part every young report gains equally with time
+        double youngKey() {
+            return staticScore - AGE_SLOPE * createdSeconds;
+        }
+    }
+
+    private static final Comparator<UUID> ID_ORDER = Comparator.naturalOrder();
+    private static final Comparator<Entry> OLDEST_FIRST = Comparator
+            .comparing(Entry::createdSeconds, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::id, ID_ORDER);
+    private static final Comparator<Entry> YOUNG_ORDER = Comparator
+            .comparingDouble(Entry::youngKey).reversed().thenComparing(OLDEST_FIRST);
+    private static final Comparator<Entry> STATIC_ORDER = Comparator
+            .comparingDouble(Entry::staticScore).reversed().thenComparing(OLDEST_FIRST);
+
+    private static final class Bucket {
+        private final NavigableSet<Entry> young = new TreeSet<>(YOUNG_ORDER);
+        private final NavigableSet<Entry> youngByAge = new TreeSet<>(OLDEST_FIRST);
+        private final NavigableSet<Entry> capped = new TreeSet<>(STATIC_ORDER);
+        private final NavigableSet<Entry> undated = new TreeSet<>(STATIC_ORDER);
+
+        void add(Entry entry) {
+            if (entry.createdSeconds() == null) {
+                undated.add(entry);
+            } else {
+                young.add(entry);
+                youngByAge.add(entry);
+            }
+        }
+
+        void remove(Entry entry) {
+            if (entry.createdSeconds() == null) {
+                undated.remove(entry);
+            } else if (youngByAge.remove(entry)) {
+                young.remove(entry);
+            } else {
+                capped.remove(entry);
+            }
+        }
+
+        void capAged(long nowSeconds) {
+            while (!youngByAge.isEmpty() && nowSeconds - youngByAge.first().createdSeconds() >= MAX_AGE_SECONDS) {
+                Entry entry = youngByAge.pollFirst();
+                young.remove(entry);
+                capped.add(entry);
+            }
+        }
+
+        boolean isEmpty() {
+            return youngByAge.isEmpty() && capped.isEmpty() && undated.isEmpty();
+        }
+    }
+
+    private final boolean enabled;
+    private final Object rebuildLock = new Object();
+
+    private Map<UUID, Entry> entries = new HashMap<>();
+    private Map<UUID, Bucket> areas = new HashMap<>();
+    private Bucket all = new Bucket();
+    private boolean ready;
+
+    // Changes seen while a rebuild reads the database: report id to its row, or null once removed
+    private Map<UUID, SuggestedReportRow> changesDuringRebuild;
+
+    public SuggestedReportIndex(@Value("${waste.suggested-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Weight, priority and waste type terms of the priority score
+     */
+    static double staticScore(Double estimatedWeightKg, String priority, Double basePointsPerKg) {
+        double score = 0.0;
+
+        // 1. Weight factor (normalized to 0-100 scale, max 50kg = 100)
+        double weight = estimatedWeightKg != null ? estimatedWeightKg : 0;
+        score += Math.min((weight / 50.0) * 100, 100) * WasteReportRepository.WEIGHT_FACTOR;
+
+        // 2. Priority factor
+        double priorityScore = switch (priority != null ? priority : "NORMAL") {
+            case "URGENT" -> 100;
+            case "HIGH" -> 75;
+            case "NORMAL" -> 50;
+            case "LOW" -> 25;
+            default -> 50;
+        };
+        score += priorityScore * WasteReportRepository.PRIORITY_FACTOR;
+
+        // 3. Waste type factor (based on base points per kg)
+        if (basePointsPerKg != null) {
+            score += Math.min(basePointsPerKg * 5, 100) * WasteReportRepository.WASTE_TYPE_FACTOR;
+        }
+        return score;
+    }
+
+    /**
+     * Age term of the priority score (older = higher priority, max 7 days = 100), weighted
+     */
+    static double ageScore(LocalDateTime createdAt, LocalDateTime now) {
+        if (createdAt == null) {
+            return 0;
+        }
+        long seconds = ChronoUnit.SECONDS.between(createdAt, now);
+        return Math.min(seconds * AGE_SLOPE, MAX_AGE_SCORE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Add a PENDING report, or replace it after an update
+     */
+    public synchronized void put(SuggestedReportRow row) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.put(row.getReportId(), row);
+        }
+        remove(entries, areas, all, row.getReportId());
+        add(entries, areas, all, row);
+    }
+
+    /**
+     * Drop a report that is no longer PENDING
+     */
+    public synchronized void remove(UUID reportId) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.put(reportId, null);
+        }
+        remove(entries, areas, all, reportId);
+    }
+
+    /**
+     * Highest-scoring reports at now, in one area or (areaId null) overall
+     */
+    public synchronized List<Ranked> top(UUID areaId, int limit, LocalDateTime now) {
+        Bucket bucket = areaId != null ? areas.get(areaId) : all;
+        if (bucket == null) {
+            return List.of();
+        }
+        long nowSeconds = seconds(now);
+        bucket.capAged(nowSeconds);
+
+        List<Ranked> result = new ArrayList<>(limit);
+        Iterator<Entry> young = bucket.young.iterator();
+        Iterator<Entry> capped = bucket.capped.iterator();
+        Iterator<Entry> undated = bucket.undated.iterator();
+        Ranked nextYoung = null;
+        Ranked nextCapped = null;
+        Ranked nextUndated = null;
+        while (result.size() < limit) {
+            if (nextYoung == null && young.hasNext()) {
+                Entry entry = young.next();
+                nextYoung = new Ranked(entry.row(),
+                        entry.staticScore() + AGE_SLOPE * (nowSeconds - entry.createdSeconds()));
+            }
+            if (nextCapped == null && capped.hasNext()) {
+                Entry entry = capped.next();
+                nextCapped = new Ranked(entry.row(), entry.staticScore() + MAX_AGE_SCORE);
+            }
+            if (nextUndated == null && undated.hasNext()) {
+                Entry entry = undated.next();
+                nextUndated = new Ranked(entry.row(), entry.staticScore());
+            }
+            Ranked best = best(best(nextYoung, nextCapped), nextUndated);
+            if (best == null) {
+                break;
+            }
+            result.add(best);
+            if (best == nextYoung) {
+                nextYoung = null;
+            } else if (best == nextCapped) {
+                nextCapped = null;
+            } else {
+                nextUndated = null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replace the contents with the PENDING reports loader reads. Changes made while it runs
+     * are applied on top, as they are at least as new as what it read.
+     */
+    public void rebuild(Supplier<List<SuggestedReportRow>> loader) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (rebuildLock) {
+            rebuildFrom(loader);
+        }
+    }
+
+    private void rebuildFrom(Supplier<List<SuggestedReportRow>> loader) {
+        synchronized (this) {
+            changesDuringRebuild = new HashMap<>();
+        }
+        List<SuggestedReportRow> rows;
+        try {
+            rows = loader.get();
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        Map<UUID, Entry> newEntries = new HashMap<>(rows.size() * 2);
+        Map<UUID, Bucket> newAreas = new HashMap<>();
+        Bucket newAll = new Bucket();
+        for (SuggestedReportRow row : rows) {
+            add(newEntries, newAreas, newAll, row);
+        }
+        synchronized (this) {
+            for (Map.Entry<UUID, SuggestedReportRow> change : changesDuringRebuild.entrySet()) {
+                remove(newEntries, newAreas, newAll, change.getKey());
+                if (change.getValue() != null) {
+                    add(newEntries, newAreas, newAll, change.getValue());
+                }
+            }
+            changesDuringRebuild = null;
+            entries = newEntries;
+            areas = newAreas;
+            all = newAll;
+            ready = true;
+            log.info("Suggested report index loaded: {} pending reports in {} areas", entries.size(), areas.size());
+        }
+    }
+
+    private static Ranked best(Ranked a, Ranked b) {
+        if (a == null || b == null) {
+            return a != null ? a : b;
+        }
+        if (a.score() != b.score()) {
+            return a.score() > b.score() ? a : b;
+        }
+        LocalDateTime aCreated = a.row().getCreatedAt();
+        LocalDateTime bCreated = b.row().getCreatedAt();
+        if (aCreated != null && bCreated != null && !aCreated.equals(bCreated)) {
+            return aCreated.isBefore(bCreated) ? a : b;
+        }
+        if (aCreated == null ^ bCreated == null) {
+            return aCreated != null ? a : b;
+        }
+        return ID_ORDER.compare(a.row().getReportId(), b.row().getReportId()) <= 0 ? a : b;
+    }
+
+    private static void add(Map<UUID, Entry> entries, Map<UUID, Bucket> areas, Bucket all, SuggestedReportRow row) {
+        Entry entry = new Entry(row,
+                staticScore(row.getEstimatedWeightKg(), row.getPriority(), row.getBasePointsPerKg()),
+                row.getCreatedAt() != null ? seconds(row.getCreatedAt()) : null);
+        entries.put(entry.id(), entry);
+        all.add(entry);
+        if (row.getAreaId() != null) {
+            areas.computeIfAbsent(row.getAreaId(), id -> new Bucket()).add(entry);
+        }
+    }
+
+    private static void remove(Map<UUID, Entry> entries, Map<UUID, Bucket> areas, Bucket all, UUID reportId) {
+        Entry entry = entries.remove(reportId);
+        if (entry == null) {
+            return;
+        }
+        all.remove(entry);
+        UUID areaId = entry.row().getAreaId();
+        if (areaId != null) {
+            Bucket bucket = areas.get(areaId);
+            bucket.remove(entry);
+            if (bucket.isEmpty()) {
+                areas.remove(areaId);
+            }
+        }
+    }
+
+    // Server-local date-times as a seconds count; only differences between them matter
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+}
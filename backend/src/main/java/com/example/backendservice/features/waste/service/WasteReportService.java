@@ -1,6 +1,9 @@
 package com.example.backendservice.features.waste.service;
 
 import com.example.backendservice.features.waste.dto.CreateWasteReportRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsResponse;
+import com.example.backendservice.features.waste.dto.NearbyReportDTO;
 import com.example.backendservice.features.waste.dto.SuggestedReportDTO;
 import com.example.backendservice.features.waste.dto.WasteReportResponse;
 import org.springframework.data.domain.Page;
@@ -34,4 +37,14 @@ public interface WasteReportService {
     List<SuggestedReportDTO> getSuggestedReports(UUID enterpriseId, UUID areaId, int limit);
 
     Double calculatePriorityScore(UUID reportId);
+
+    // Nearby Search
+    List<NearbyReportDTO> getNearbyReports(double lat, double lng, Double radiusKm, int limit);
+
+    // Duplicates
+    Page<WasteReportResponse> getFlaggedDuplicates(Pageable pageable);
+
+    MergeReportsResponse mergeReports(MergeReportsRequest request);
+
+    WasteReportResponse dismissDuplicate(UUID id);
 }
@@ -1,11 +1,20 @@
 package com.example.backendservice.features.waste.service;
 
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.common.utils.TransactionUtils;
 import com.example.backendservice.features.location.entity.ServiceArea;
 import com.example.backendservice.features.location.repository.ServiceAreaRepository;
-import com.example.backendservice.features.user.entity.Citizen;
-import com.example.backendservice.features.user.repository.CitizenRepository;
+import com.example.backendservice.features.location.service.ServiceAreaIndex;
+import com.example.backendservice.features.user.entity.CitizenProfile;
+import com.example.backendservice.features.user.repository.CitizenProfileRepository;
 import com.example.backendservice.features.waste.dto.CreateWasteReportRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsResponse;
+import com.example.backendservice.features.waste.dto.NearbyReportDTO;
+import com.example.backendservice.features.waste.dto.NearbyReportRow;
 import com.example.backendservice.features.waste.dto.SuggestedReportDTO;
+import com.example.backendservice.features.waste.dto.SuggestedReportRow;
 import com.example.backendservice.features.waste.dto.WasteReportResponse;
 import com.example.backendservice.features.waste.entity.WasteReport;
 import com.example.backendservice.features.waste.entity.WasteType;
@@ -15,6 +24,7 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,8 +34,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -33,22 +43,27 @@ import java.util.stream.Collectors;
 public class WasteReportServiceImpl implements WasteReportService {
 
     private final WasteReportRepository wasteReportRepository;
-    private final CitizenRepository citizenRepository;
+    private final CitizenProfileRepository citizenProfileRepository;
     private final ServiceAreaRepository serviceAreaRepository;
     private final WasteTypeRepository wasteTypeRepository;
+    private final SuggestedReportIndex suggestedReportIndex;
+    private final ServiceAreaIndex serviceAreaIndex;
+    private final DuplicateReportDetector duplicateReportDetector;
 
-    // Priority scoring weights
-    private static final double WEIGHT_FACTOR = 0.30; // Larger weight = higher priority
-    private static final double PRIORITY_FACTOR = 0.25; // User priority
-    private static final double AGE_FACTOR = 0.25; // Older reports = higher priority
-    private static final double WASTE_TYPE_FACTOR = 0.20; // High-value waste types
+    private static final int MAX_SUGGESTED_REPORTS = 100;
+    private static final int MAX_NEARBY_REPORTS = 100;
+    private static final double MAX_NEARBY_RADIUS_KM = 50.0;
+    private static final double INITIAL_NEARBY_RADIUS_KM = 1.0;
+
+    private record Located(NearbyReportRow row, double distanceKm) {
+    }
 
     @Override
     @Transactional
     public WasteReportResponse createReport(CreateWasteReportRequest request) {
         log.info("Creating waste report for citizen: {}", request.getCitizenId());
 
-        Citizen citizen = citizenRepository.findById(request.getCitizenId())
+        CitizenProfile citizen = citizenProfileRepository.findById(request.getCitizenId())
                 .orElseThrow(() -> new EntityNotFoundException("Citizen not found"));
 
         WasteReport report = WasteReport.builder()
@@ -67,6 +82,8 @@ public class WasteReportServiceImpl implements WasteReportService {
         if (request.getAreaId() != null) {
             ServiceArea area = serviceAreaRepository.findById(request.getAreaId()).orElse(null);
             report.setArea(area);
+        } else {
+            report.setArea(resolveArea(request.getLat(), request.getLng()));
         }
 
         if (request.getPrimaryWasteTypeId() != null) {
@@ -74,8 +91,20 @@ public class WasteReportServiceImpl implements WasteReportService {
             report.setPrimaryWasteType(wasteType);
         }
 
+        UUID originalId = duplicateReportDetector.findOriginal(report.getLat(), report.getLng(), LocalDateTime.now());
+        if (originalId != null) {
+            report.setDuplicateOf(wasteReportRepository.getReferenceById(originalId));
+            if (duplicateReportDetector.linksDuplicates()) {
+                report.setStatus("DUPLICATE");
+            }
+        }
+
         report = wasteReportRepository.save(report);
         log.info("Created waste report with id: {}", report.getId());
+        if (originalId != null) {
+            log.info("Waste report {} duplicates report {} ({})", report.getId(), originalId, report.getStatus());
+        }
+        indexAfterCommit(report);
 
         return mapToResponse(report);
     }
@@ -116,6 +145,8 @@ public class WasteReportServiceImpl implements WasteReportService {
         if (!"PENDING".equals(report.getStatus())) {
             throw new IllegalStateException("Only PENDING reports can be updated");
         }
+        boolean moved = !Objects.equals(report.getLat(), request.getLat())
+                || !Objects.equals(report.getLng(), request.getLng());
 
         report.setEstimatedWeightKg(request.getEstimatedWeightKg());
         report.setLocationText(request.getLocationText());
@@ -128,8 +159,16 @@ public class WasteReportServiceImpl implements WasteReportService {
         if (request.getPriority() != null) {
             report.setPriority(request.getPriority());
         }
+        if (request.getAreaId() != null) {
+            if (report.getArea() == null || !request.getAreaId().equals(report.getArea().getId())) {
+                report.setArea(serviceAreaRepository.findById(request.getAreaId()).orElse(null));
+            }
+        } else if (moved || report.getArea() == null) {
+            report.setArea(resolveArea(report.getLat(), report.getLng()));
+        }
 
         report = wasteReportRepository.save(report);
+        indexAfterCommit(report);
         return mapToResponse(report);
     }
 
@@ -142,6 +181,7 @@ public class WasteReportServiceImpl implements WasteReportService {
         }
         report.setStatus("ACCEPTED");
         report = wasteReportRepository.save(report);
+        indexAfterCommit(report);
         return mapToResponse(report);
     }
 
@@ -155,6 +195,7 @@ public class WasteReportServiceImpl implements WasteReportService {
         report.setStatus("REJECTED");
         report.setRejectionReason(reason);
         report = wasteReportRepository.save(report);
+        indexAfterCommit(report);
         return mapToResponse(report);
     }
 
@@ -164,52 +205,33 @@ public class WasteReportServiceImpl implements WasteReportService {
         WasteReport report = findById(id);
         report.setStatus("CANCELLED");
         report = wasteReportRepository.save(report);
+        indexAfterCommit(report);
         return mapToResponse(report);
     }
 
+    // No transaction: served from memory once the index is loaded, without taking a connection
     @Override
-    @Transactional(readOnly = true)
     public List<SuggestedReportDTO> getSuggestedReports(UUID enterpriseId, UUID areaId, int limit) {
         log.info("Getting suggested reports for enterprise: {}, area: {}", enterpriseId, areaId);
 
-        List<WasteReport> pendingReports;
-        if (areaId != null) {
-            pendingReports = wasteReportRepository.findByAreaIdAndStatus(areaId, "PENDING",
-                    Pageable.unpaged()).getContent();
-        } else {
-            pendingReports = wasteReportRepository.findByStatusIn(List.of("PENDING"));
-        }
-
-        List<SuggestedReportDTO> scoredReports = new ArrayList<>();
-        for (WasteReport report : pendingReports) {
-            Double score = calculatePriorityScoreInternal(report);
-            String reason = getPriorityReason(report, score);
-
-            scoredReports.add(SuggestedReportDTO.builder()
-                    .reportId(report.getId())
-                    .citizenName(report.getCitizen().getUser() != null
-                            ? report.getCitizen().getUser().getFullName()
-                            : "Unknown")
-                    .areaName(report.getArea() != null ? report.getArea().getName() : null)
-                    .wasteTypeName(report.getPrimaryWasteType() != null
-                            ? report.getPrimaryWasteType().getName()
-                            : null)
-                    .estimatedWeightKg(report.getEstimatedWeightKg())
-                    .locationText(report.getLocationText())
-                    .priority(report.getPriority())
-                    .status(report.getStatus())
-                    .priorityScore(score)
-                    .priorityReason(reason)
-                    .createdAt(report.getCreatedAt() != null
-                            ? report.getCreatedAt().toString()
-                            : null)
-                    .build());
-        }
-
-        return scoredReports.stream()
-                .sorted(Comparator.comparingDouble(SuggestedReportDTO::getPriorityScore).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+        if (limit < 1 || limit > MAX_SUGGESTED_REPORTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_SUGGESTED_REPORTS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SuggestedReportDTO> suggestions = new ArrayList<>(limit);
+        if (suggestedReportIndex.isReady()) {
+            for (SuggestedReportIndex.Ranked ranked : suggestedReportIndex.top(areaId, limit, now)) {
+                suggestions.add(toSuggestion(ranked.row(), ranked.score(), now));
+            }
+            return suggestions;
+        }
+
+        // Index not loaded yet (or disabled): scored, ranked and cut to limit by the database
+        for (SuggestedReportRow row : wasteReportRepository.findSuggested(areaId, now, PageRequest.of(0, limit))) {
+            suggestions.add(toSuggestion(row, row.getPriorityScore(), now));
+        }
+        return suggestions;
     }
 
     @Override
@@ -219,63 +241,223 @@ public class WasteReportServiceImpl implements WasteReportService {
         return calculatePriorityScoreInternal(report);
     }
 
-    private Double calculatePriorityScoreInternal(WasteReport report) {
-        double score = 0.0;
+    @Override
+    @Transactional(readOnly = true)
+    public List<NearbyReportDTO> getNearbyReports(double lat, double lng, Double radiusKm, int limit) {
+        log.info("Getting nearby reports around ({}, {}), radius: {} km", lat, lng, radiusKm);
 
-        // 1. Weight factor (normalized to 0-100 scale, max 50kg = 100)
-        double weightScore = Math.min((report.getEstimatedWeightKg() / 50.0) * 100, 100);
-        score += weightScore * WEIGHT_FACTOR;
+        if (lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new BadRequestException("lat must be between -90 and 90 and lng between -180 and 180");
+        }
+        if (limit < 1 || limit > MAX_NEARBY_REPORTS) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_NEARBY_REPORTS);
+        }
+        if (radiusKm != null && (!(radiusKm > 0) || radiusKm > MAX_NEARBY_RADIUS_KM)) {
+            throw new BadRequestException("radiusKm must be greater than 0 and at most " + MAX_NEARBY_RADIUS_KM);
+        }
 
-        // 2. Priority factor
-        double priorityScore = switch (report.getPriority() != null ? report.getPriority() : "NORMAL") {
-            case "URGENT" -> 100;
-            case "HIGH" -> 75;
-            case "NORMAL" -> 50;
-            case "LOW" -> 25;
-            default -> 50;
-        };
-        score += priorityScore * PRIORITY_FACTOR;
+        // Without a radius: the nearest reports, doubling the radius until it holds limit of them.
+        // Any report outside the radius is farther than all those inside it.
+        double radius = radiusKm != null ? radiusKm : INITIAL_NEARBY_RADIUS_KM;
+        List<Located> found = findWithin(lat, lng, radius);
+        while (radiusKm == null && found.size() < limit && radius < MAX_NEARBY_RADIUS_KM) {
+            radius = Math.min(radius * 2, MAX_NEARBY_RADIUS_KM);
+            found = findWithin(lat, lng, radius);
+        }
 
-        // 3. Age factor (older = higher priority, max 7 days = 100)
-        if (report.getCreatedAt() != null) {
-            long hoursSinceCreation = ChronoUnit.HOURS.between(report.getCreatedAt(), LocalDateTime.now());
-            double ageScore = Math.min((hoursSinceCreation / 168.0) * 100, 100); // 168 hours = 7 days
-            score += ageScore * AGE_FACTOR;
+        List<NearbyReportDTO> nearby = new ArrayList<>(Math.min(found.size(), limit));
+        for (Located located : found.subList(0, Math.min(found.size(), limit))) {
+            nearby.add(toNearby(located));
         }
+        return nearby;
+    }
 
-        // 4. Waste type factor (based on base points per kg)
-        if (report.getPrimaryWasteType() != null && report.getPrimaryWasteType().getBasePointsPerKg() != null) {
-            double wasteTypeScore = Math.min(report.getPrimaryWasteType().getBasePointsPerKg() * 5, 100);
-            score += wasteTypeScore * WASTE_TYPE_FACTOR;
+    // Reports within radiusKm, closest first; distances computed only for the candidates in the search cells
+    private List<Located> findWithin(double lat, double lng, double radiusKm) {
+        List<Located> found = new ArrayList<>();
+        for (NearbyReportRow row : wasteReportRepository.findNearbyCandidates(GeoUtils.searchArea(lat, lng, radiusKm))) {
+            double distanceKm = GeoUtils.haversineKm(lat, lng, row.getLat(), row.getLng());
+            if (distanceKm <= radiusKm) {
+                found.add(new Located(row, distanceKm));
+            }
         }
+        found.sort(Comparator.comparingDouble(Located::distanceKm)
+                .thenComparing(located -> located.row().getReportId()));
+        return found;
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<WasteReportResponse> getFlaggedDuplicates(Pageable pageable) {
+        return wasteReportRepository.findFlaggedDuplicates("PENDING", pageable).map(this::mapToResponse);
+    }
+
+    @Override
+    @Transactional
+    public MergeReportsResponse mergeReports(MergeReportsRequest request) {
+        UUID targetId = request.getTargetReportId();
+        List<UUID> duplicateIds = request.getDuplicateReportIds().stream().distinct().toList();
+        log.info("Merging {} waste reports into {}", duplicateIds.size(), targetId);
+
+        if (duplicateIds.contains(targetId)) {
+            throw new BadRequestException("A report cannot be merged into itself");
+        }
+        WasteReport target = findById(targetId);
+        if (!DuplicateReportDetector.OPEN_STATUSES.contains(target.getStatus())) {
+            throw new BadRequestException("Reports can only be merged into a PENDING, ACCEPTED or ASSIGNED report");
+        }
+        List<WasteReport> duplicates = wasteReportRepository.findAllById(duplicateIds);
+        if (duplicates.size() != duplicateIds.size()) {
+            throw new EntityNotFoundException("Some of the reports to merge were not found");
+        }
+        for (WasteReport duplicate : duplicates) {
+            if (!"PENDING".equals(duplicate.getStatus())) {
+                throw new BadRequestException("Only PENDING reports can be merged: " + duplicate.getId());
+            }
+        }
+
+        for (WasteReport duplicate : duplicates) {
+            duplicate.setStatus("DUPLICATE");
+            duplicate.setDuplicateOf(target);
+        }
+        // The target was flagged against one of the reports it now absorbs
+        if (target.getDuplicateOf() != null && duplicateIds.contains(target.getDuplicateOf().getId())) {
+            target.setDuplicateOf(null);
+        }
+        wasteReportRepository.saveAll(duplicates);
+        int relinked = wasteReportRepository.relinkDuplicates(duplicateIds, target);
+        duplicates.forEach(this::indexAfterCommit);
+
+        return MergeReportsResponse.builder()
+                .targetReportId(targetId)
+                .mergedReportIds(duplicateIds)
+                .relinkedCount(relinked)
+                .build();
+    }
+
+    @Override
+    @Transactional
+    public WasteReportResponse dismissDuplicate(UUID id) {
+        WasteReport report = findById(id);
+        if (report.getDuplicateOf() == null || !"PENDING".equals(report.getStatus())) {
+            throw new IllegalStateException("Only PENDING reports flagged as duplicates can be dismissed");
+        }
+        report.setDuplicateOf(null);
+        report = wasteReportRepository.save(report);
+        return mapToResponse(report);
+    }
+
+    // Same formula as WasteReportRepository.PRIORITY_SCORE, which ranks suggestions in the database
+    private Double calculatePriorityScoreInternal(WasteReport report) {
+        double score = SuggestedReportIndex.staticScore(report.getEstimatedWeightKg(), report.getPriority(),
+                report.getPrimaryWasteType() != null ? report.getPrimaryWasteType().getBasePointsPerKg() : null)
+                + SuggestedReportIndex.ageScore(report.getCreatedAt(), LocalDateTime.now());
         return Math.round(score * 100.0) / 100.0;
     }
 
-    private String getPriorityReason(WasteReport report, Double score) {
+    private String getPriorityReason(Double estimatedWeightKg, String priority, LocalDateTime createdAt,
+                                     Double basePointsPerKg, LocalDateTime now) {
         List<String> reasons = new ArrayList<>();
 
-        if (report.getEstimatedWeightKg() > 30) {
+        if (estimatedWeightKg != null && estimatedWeightKg > 30) {
             reasons.add("Khối lượng lớn");
         }
-        if ("URGENT".equals(report.getPriority()) || "HIGH".equals(report.getPriority())) {
+        if ("URGENT".equals(priority) || "HIGH".equals(priority)) {
             reasons.add("Ưu tiên cao từ người dùng");
         }
-        if (report.getCreatedAt() != null) {
-            long hours = ChronoUnit.HOURS.between(report.getCreatedAt(), LocalDateTime.now());
+        if (createdAt != null) {
+            long hours = ChronoUnit.HOURS.between(createdAt, now);
             if (hours > 48) {
                 reasons.add("Chờ xử lý > 48h");
             }
         }
-        if (report.getPrimaryWasteType() != null &&
-                report.getPrimaryWasteType().getBasePointsPerKg() != null &&
-                report.getPrimaryWasteType().getBasePointsPerKg() > 15) {
+        if (basePointsPerKg != null && basePointsPerKg > 15) {
             reasons.add("Loại rác có giá trị cao");
         }
 
         return reasons.isEmpty() ? "Tiêu chuẩn" : String.join(", ", reasons);
     }
 
+    private SuggestedReportDTO toSuggestion(SuggestedReportRow row, double score, LocalDateTime now) {
+        return SuggestedReportDTO.builder()
+                .reportId(row.getReportId())
+                .citizenName(row.getCitizenFirstName() + " " + row.getCitizenLastName())
+                .areaName(row.getAreaName())
+                .wasteTypeName(row.getWasteTypeName())
+                .estimatedWeightKg(row.getEstimatedWeightKg())
+                .locationText(row.getLocationText())
+                .priority(row.getPriority())
+                .status(row.getStatus())
+                .priorityScore(Math.round(score * 100.0) / 100.0)
+                .priorityReason(getPriorityReason(row.getEstimatedWeightKg(), row.getPriority(),
+                        row.getCreatedAt(), row.getBasePointsPerKg(), now))
+                .createdAt(row.getCreatedAt() != null
+                        ? row.getCreatedAt().toString()
+                        : null)
+                .build();
+    }
+
+    private NearbyReportDTO toNearby(Located located) {
+        NearbyReportRow row = located.row();
+        return NearbyReportDTO.builder()
+                .reportId(row.getReportId())
+                .lat(row.getLat())
+                .lng(row.getLng())
+                .distanceKm(Math.round(located.distanceKm() * 1000.0) / 1000.0)
+                .areaName(row.getAreaName())
+                .wasteTypeName(row.getWasteTypeName())
+                .estimatedWeightKg(row.getEstimatedWeightKg())
+                .locationText(row.getLocationText())
+                .priority(row.getPriority())
+                .status(row.getStatus())
+                .createdAt(row.getCreatedAt() != null
+                        ? row.getCreatedAt().toString()
+                        : null)
+                .build();
+    }
+
+    // Mirror the report in the suggestion index once its transaction commits
+    private void indexAfterCommit(WasteReport report) {
+        Runnable action;
+        if ("PENDING".equals(report.getStatus())) {
+            SuggestedReportRow row = toSuggestedRow(report);
+            action = () -> suggestedReportIndex.put(row);
+        } else {
+            UUID reportId = report.getId();
+            action = () -> suggestedReportIndex.remove(reportId);
+        }
+        TransactionUtils.afterCommit(action);
+    }
+
+    private SuggestedReportRow toSuggestedRow(WasteReport report) {
+        CitizenProfile citizen = report.getCitizen();
+        WasteType wasteType = report.getPrimaryWasteType();
+        return SuggestedReportRow.builder()
+                .reportId(report.getId())
+                .citizenFirstName(citizen.getUser() != null ? citizen.getUser().getFirstName() : null)
+                .citizenLastName(citizen.getUser() != null ? citizen.getUser().getLastName() : null)
+                .areaId(report.getArea() != null ? report.getArea().getId() : null)
+                .areaName(report.getArea() != null ? report.getArea().getName() : null)
+                .wasteTypeName(wasteType != null ? wasteType.getName() : null)
+                .basePointsPerKg(wasteType != null ? wasteType.getBasePointsPerKg() : null)
+                .estimatedWeightKg(report.getEstimatedWeightKg())
+                .locationText(report.getLocationText())
+                .priority(report.getPriority())
+                .status(report.getStatus())
+                // Set on insert, which may not have been flushed yet
+                .createdAt(report.getCreatedAt() != null ? report.getCreatedAt() : LocalDateTime.now())
+                .build();
+    }
+
+    // Service area whose boundary (or radius) contains the point, looked up in memory
+    private ServiceArea resolveArea(Double lat, Double lng) {
+        if (lat == null || lng == null) {
+            return null;
+        }
+        UUID areaId = serviceAreaIndex.resolve(lat, lng);
+        return areaId != null ? serviceAreaRepository.findById(areaId).orElse(null) : null;
+    }
+
     private WasteReport findById(UUID id) {
         return wasteReportRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("WasteReport not found with id: " + id));
@@ -298,6 +480,7 @@ public class WasteReportServiceImpl implements WasteReportService {
                 .description(report.getDescription())
                 .imageUrls(report.getImageUrls())
                 .status(report.getStatus())
+                .duplicateOfId(report.getDuplicateOf() != null ? report.getDuplicateOf().getId() : null)
                 .rejectionReason(report.getRejectionReason())
                 .priority(report.getPriority())
                 .preferredDate(report.getPreferredDate())
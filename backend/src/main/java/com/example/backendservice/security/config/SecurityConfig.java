@@ -63,6 +63,10 @@ public class SecurityConfig {
                         .requestMatchers("/api/sse/stats").hasRole("ADMIN")
                         .requestMatchers("/api/sse/test-broadcast").hasRole("ADMIN")
 
+                        // Actuator endpoints
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+
                         // Collector endpoints
                         .requestMatchers("/api/v1/collector/**").hasRole("COLLECTOR")
 
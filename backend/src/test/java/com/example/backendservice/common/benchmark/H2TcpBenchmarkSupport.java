@@ -0,0 +1,53 @@
+package com.example.backendservice.common.benchmark;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.SQLException;
+
+/**
+ * Base of the JPA benchmarks: an in-memory H2 database in PostgreSQL mode behind a TCP server, so
+ * query execution happens on server threads as it would in Postgres and the calling thread only
+ * pays for the round trips and result mapping. Hibernate statistics are on for counting statements.
+ * A subclass names its database from its own {@code @DynamicPropertySource} method:
+ * <pre>
+ * &#64;DynamicPropertySource
+ * static void datasource(DynamicPropertyRegistry registry) throws SQLException {
+ *     startH2(registry, "analytics");
+ * }
+ * </pre>
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+public abstract class H2TcpBenchmarkSupport {
+
+    private static Server h2Server;
+
+    /**
+     * Start the server and point the datasource at database on it
+     */
+    protected static void startH2(DynamicPropertyRegistry registry, String database) throws SQLException {
+        h2Server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        String url = "jdbc:h2:tcp://localhost:" + h2Server.getPort() + "/mem:" + database
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        registry.add("spring.datasource.url", () -> url);
+    }
+
+    @AfterAll
+    static void stopH2() {
+        if (h2Server != null) {
+            h2Server.stop();
+            h2Server = null;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.backendservice.common.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for SSE fan-out and connection churn at 1k / 10k / 50k connections.
+ * Writes go to an in-memory null sink on the caller thread (SYNC mode), so the numbers are
+ * the CPU cost of the SSE pipeline itself. See {@link SseSoakTest} for slow clients and tail latency.
+ * Run with: mvn test -Pbenchmark -Dtest=SseFanOutBenchmark
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SseFanOutBenchmark {
+
+    // Short heartbeat interval so the wheel drops closed connections quickly during churn
+    private static final long HEARTBEAT_INTERVAL_MS = 1000;
+    private static final long HEARTBEAT_TICK_MS = 10;
+
+    @Param({"1000", "10000", "50000"})
+    public int connections;
+
+    private SseService sseService;
+    private SseEventData event;
+    private int nextUserId;
+
+    /**
+     * Emitter that accepts frames into a null sink
+     */
+    public static class NullSinkEmitter extends SseEmitter {
+
+        private final OutputStream sink = OutputStream.nullOutputStream();
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            for (DataWithMediaType item : items) {
+                sink.write((byte[]) item.getData());
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sseService = new SseService(SseServiceTest.OBJECT_MAPPER, new InMemorySseBroadcastBus(),
+                new SimpleMeterRegistry(), SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST,
+                100, 100, 5, HEARTBEAT_INTERVAL_MS, HEARTBEAT_TICK_MS, "");
+        for (int i = 0; i < connections; i++) {
+            sseService.register(String.valueOf(i), "Citizen", new NullSinkEmitter(), null);
+        }
+        nextUserId = connections;
+        event = SseEventData.notification(Map.of(
+                "title", "Lịch thu gom rác thay đổi",
+                "content", "Lịch thu gom rác tại Quận 1 sẽ thay đổi từ thứ Hai tuần sau.",
+                "priority", "High"), "Citizen");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sseService.shutdown();
+    }
+
+    /**
+     * One role broadcast delivered to every connection
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void sendToRole() {
+        sseService.sendToRole("Citizen", event);
+    }
+
+    /**
+     * Register one connection and disconnect it again, on a registry holding the other connections
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public SseConnection connectDisconnect() {
+        SseConnection connection = sseService.register(String.valueOf(nextUserId++), "Citizen",
+                new NullSinkEmitter(), null);
+        sseService.removeEmitter(connection, SseDisconnectReason.COMPLETED);
+        sseService.sendHeartbeat();
+        return connection;
+    }
+
+    @Test
+    @DisplayName("Run the SSE JMH benchmarks")
+    void runBenchmarks() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SseFanOutBenchmark.class.getName())
+                .build())
+                .run();
+    }
+}
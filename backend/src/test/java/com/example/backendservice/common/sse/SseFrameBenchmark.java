@@ -0,0 +1,124 @@
+package com.example.backendservice.common.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares per-recipient serialization (previous behaviour) with serialize-once frames
+ * for a 10k-recipient sendToAll. Run with: mvn test -Pbenchmark -Dtest=SseFrameBenchmark
+ */
+@Tag("benchmark")
+class SseFrameBenchmark {
+
+    private static final int RECIPIENTS = 10_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final ObjectMapper OBJECT_MAPPER = SseServiceTest.OBJECT_MAPPER;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Emitter that writes what it receives to a null sink the way Spring's
+     * message converters would: byte[] as-is, Strings as UTF-8, objects through Jackson.
+     */
+    static class ConvertingSinkEmitter extends SseEmitter {
+
+        private final OutputStream sink = OutputStream.nullOutputStream();
+
+        @Override
+        public void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            for (ResponseBodyEmitter.DataWithMediaType item : items) {
+                Object data = item.getData();
+                if (data instanceof byte[] bytes) {
+                    sink.write(bytes);
+                } else if (data instanceof String text) {
+                    sink.write(text.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    OBJECT_MAPPER.writeValue(sink, data);
+                }
+            }
+        }
+    }
+
+    private static SseEventData notification() {
+        Map<String, Object> payload = Map.of(
+                "id", "7f1c2e3a-8a0b-4a55-9a4e-5d1a2b3c4d5e",
+                "title", "Lịch thu gom rác thay đổi",
+                "content", "Lịch thu gom rác tại Quận 1 sẽ thay đổi từ thứ Hai tuần sau. ".repeat(4),
+                "type", "Schedule",
+                "priority", "High",
+                "targetAudience", "All",
+                "createdAt", LocalDateTime.now().toString());
+        return SseEventData.notification(payload, "All");
+    }
+
+    private record Measurement(double cpuMillis, double allocatedMb) {
+    }
+
+    private static Measurement measure(Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long threadId = Thread.currentThread().threadId();
+        long cpuBefore = THREADS.getCurrentThreadCpuTime();
+        long allocBefore = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            round.run();
+        }
+        long cpu = THREADS.getCurrentThreadCpuTime() - cpuBefore;
+        long alloc = THREADS.getThreadAllocatedBytes(threadId) - allocBefore;
+        return new Measurement(cpu / 1e6 / MEASURED_ROUNDS, alloc / 1024.0 / 1024.0 / MEASURED_ROUNDS);
+    }
+
+    @Test
+    @DisplayName("Serialize-once frames use less CPU and allocate less than per-recipient serialization")
+    void sendToAll_10kRecipients() {
+        SseEventData event = notification();
+
+        List<SseEmitter> legacyEmitters = new ArrayList<>(RECIPIENTS);
+        SseService sseService = new SseService(OBJECT_MAPPER, new InMemorySseBroadcastBus(), new SimpleMeterRegistry(),
+                SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 100, 100, 5, 30000, 1000, "");
+        for (int i = 0; i < RECIPIENTS; i++) {
+            legacyEmitters.add(new ConvertingSinkEmitter());
+            sseService.register(String.valueOf(i), "Citizen", new ConvertingSinkEmitter(), null);
+        }
+
+        Measurement perRecipient = measure(() -> {
+            for (SseEmitter emitter : legacyEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(event.getEventType()).data(event));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        Measurement frames = measure(() -> sseService.sendToAll(event));
+
+        System.out.printf("sendToAll x %d recipients (avg of %d rounds)%n", RECIPIENTS, MEASURED_ROUNDS);
+        System.out.printf("  per-recipient serialization: %8.2f ms CPU, %8.2f MB allocated%n",
+                perRecipient.cpuMillis(), perRecipient.allocatedMb());
+        System.out.printf("  serialize-once frames:       %8.2f ms CPU, %8.2f MB allocated%n",
+                frames.cpuMillis(), frames.allocatedMb());
+
+        assertThat(frames.allocatedMb()).isLessThan(perRecipient.allocatedMb());
+    }
+}
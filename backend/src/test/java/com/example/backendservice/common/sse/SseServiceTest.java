@@ -0,0 +1,544 @@
+package com.example.backendservice.common.sse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SseServiceTest {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private SseService sseService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sseService = new SseService(OBJECT_MAPPER, new InMemorySseBroadcastBus(), meterRegistry,
+                SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 4, 100, 2, 30000, 1000, "");
+    }
+
+    private static SseEventData event(String type, String audience) {
+        return SseEventData.builder()
+                .eventType(type)
+                .payload("payload")
+                .timestamp(LocalDateTime.now())
+                .targetAudience(audience)
+                .build();
+    }
+
+    /**
+     * Emitter that records the frames and event names it was asked to write
+     */
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> names = new ArrayList<>();
+        final List<Object> frames = new ArrayList<>();
+        boolean failOnSend;
+
+        @Override
+        public synchronized void send(Set<ResponseBodyEmitter.DataWithMediaType> items) throws IOException {
+            if (failOnSend) {
+                throw new IOException("Broken pipe");
+            }
+            Object data = items.iterator().next().getData();
+            String text = data instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : data.toString();
+            int start = text.indexOf("event:") + 6;
+            frames.add(data);
+            names.add(text.substring(start, text.indexOf('\n', start)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Broadcast Tests")
+    class BroadcastTests {
+
+        @Test
+        @DisplayName("Should deliver role broadcast only to connections of that role")
+        void sendToRole_OnlyMatchingRole() {
+            RecordingEmitter citizen = new RecordingEmitter();
+            RecordingEmitter admin = new RecordingEmitter();
+            sseService.register("1", "Citizen", citizen, null);
+            sseService.register("2", "Admin", admin, null);
+
+            sseService.sendEvent(event("NEW_COMPLAINT", "Admin"));
+
+            assertThat(admin.names).containsExactly("NEW_COMPLAINT");
+            assertThat(citizen.names).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should remove connection when send fails")
+        void sendToAll_RemovesBrokenConnection() {
+            RecordingEmitter healthy = new RecordingEmitter();
+            RecordingEmitter broken = new RecordingEmitter();
+            broken.failOnSend = true;
+            sseService.register("1", "Citizen", healthy, null);
+            sseService.register("2", "Citizen", broken, null);
+
+            sseService.sendToAll(event("NOTIFICATION", "All"));
+
+            assertThat(healthy.names).containsExactly("NOTIFICATION");
+            assertThat(sseService.getActiveConnectionCount()).isEqualTo(1);
+            assertThat(sseService.getConnectionCountByRole()).containsEntry("All", 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Multiple Connections Per User Tests")
+    class MultipleConnectionsTests {
+
+        @Test
+        @DisplayName("Should deliver to every connection of a user")
+        void sendToUser_AllConnections() {
+            RecordingEmitter tab = new RecordingEmitter();
+            RecordingEmitter phone = new RecordingEmitter();
+            sseService.register("1", "Citizen", tab, null);
+            sseService.register("1", "Citizen", phone, null);
+
+            sseService.sendEvent(event("COMPLAINT_UPDATE", "1"));
+
+            assertThat(tab.names).containsExactly("COMPLAINT_UPDATE");
+            assertThat(phone.names).containsExactly("COMPLAINT_UPDATE");
+            assertThat(sseService.getActiveConnectionCount()).isEqualTo(2);
+            assertThat(sseService.getConnectedUserCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should keep other connections when one of them closes")
+        void removeOne_KeepsOthers() {
+            RecordingEmitter broken = new RecordingEmitter();
+            RecordingEmitter healthy = new RecordingEmitter();
+            sseService.register("1", "Citizen", broken, null);
+            sseService.register("1", "Citizen", healthy, null);
+            broken.failOnSend = true;
+
+            sseService.sendToUser("1", event("E1", "1"));
+            sseService.sendToUser("1", event("E2", "1"));
+
+            assertThat(healthy.names).containsExactly("E1", "E2");
+            assertThat(sseService.getActiveConnectionCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should evict the oldest connection beyond the per-user cap")
+        void overCap_EvictsOldest() {
+            RecordingEmitter oldest = new RecordingEmitter();
+            RecordingEmitter second = new RecordingEmitter();
+            RecordingEmitter newest = new RecordingEmitter();
+            sseService.register("1", "Citizen", oldest, null);
+            sseService.register("1", "Citizen", second, null);
+            sseService.register("1", "Citizen", newest, null);
+
+            sseService.sendToAll(event("NOTIFICATION", "All"));
+
+            assertThat(oldest.names).containsExactly("evicted");
+            assertThat(second.names).containsExactly("NOTIFICATION");
+            assertThat(newest.names).containsExactly("NOTIFICATION");
+            assertThat(sseService.getConnectionCountByRole()).containsEntry("Citizen", 2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Frame Encoding Tests")
+    class FrameEncodingTests {
+
+        @Test
+        @DisplayName("Should write the same pre-encoded bytes to every recipient")
+        void sendToAll_SharesOneFrame() {
+            RecordingEmitter first = new RecordingEmitter();
+            RecordingEmitter second = new RecordingEmitter();
+            sseService.register("1", "Citizen", first, null);
+            sseService.register("2", "Collector", second, null);
+
+            sseService.sendToAll(event("NOTIFICATION", "All"));
+
+            assertThat(first.frames).hasSize(1);
+            assertThat(first.frames.get(0)).isSameAs(second.frames.get(0));
+        }
+
+        @Test
+        @DisplayName("Should encode id, event name and one data field per line")
+        void of_EncodesWireFormat() {
+            SseFrame frame = SseFrame.of("42", "NOTIFICATION", "line1\nline2");
+
+            byte[] bytes = (byte[]) frame.getPayload().iterator().next().getData();
+
+            assertThat(new String(bytes, StandardCharsets.UTF_8))
+                    .isEqualTo("id:42\nevent:NOTIFICATION\ndata:line1\ndata:line2\n\n");
+            assertThat(frame.getSizeInBytes()).isEqualTo(bytes.length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Replay Tests")
+    class ReplayTests {
+
+        private String lastId(RecordingEmitter emitter) {
+            String text = new String((byte[]) emitter.frames.get(emitter.frames.size() - 1), StandardCharsets.UTF_8);
+            return text.substring(3, text.indexOf('\n'));
+        }
+
+        @Test
+        @DisplayName("Should replay only events missed since Last-Event-ID")
+        void reconnect_ReplaysMissedEvents() {
+            RecordingEmitter first = new RecordingEmitter();
+            sseService.register("1", "Citizen", first, null);
+            sseService.sendToAll(event("E1", "All"));
+            String seen = lastId(first);
+
+            sseService.sendToAll(event("E2", "All"));
+            sseService.sendToRole("Citizen", event("E3", "Citizen"));
+            sseService.sendToRole("Admin", event("OTHER_ROLE", "Admin"));
+            sseService.sendToUser("1", event("E4", "1"));
+
+            RecordingEmitter reconnected = new RecordingEmitter();
+            sseService.register("1", "Citizen", reconnected, Long.parseLong(seen));
+
+            assertThat(reconnected.names).containsExactly("E2", "E3", "E4");
+        }
+
+        @Test
+        @DisplayName("Should signal incomplete replay when history was evicted")
+        void reconnect_SignalsGap() {
+            RecordingEmitter first = new RecordingEmitter();
+            sseService.register("1", "Citizen", first, null);
+            sseService.sendToAll(event("E0", "All"));
+            long seen = Long.parseLong(lastId(first));
+
+            for (int i = 1; i <= 6; i++) {
+                sseService.sendToAll(event("E" + i, "All"));
+            }
+
+            RecordingEmitter reconnected = new RecordingEmitter();
+            sseService.register("2", "Citizen", reconnected, seen);
+
+            assertThat(reconnected.names).containsExactly("replay-incomplete", "E3", "E4", "E5", "E6");
+        }
+
+        @Test
+        @DisplayName("Should signal incomplete replay when the user's history was evicted")
+        void reconnect_SignalsEvictedUserHistory() {
+            sseService = new SseService(OBJECT_MAPPER, new InMemorySseBroadcastBus(), meterRegistry,
+                    SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 4, 1, 2, 30000, 1000, "");
+            RecordingEmitter first = new RecordingEmitter();
+            sseService.register("1", "Citizen", first, null);
+            sseService.sendToUser("1", event("E1", "1"));
+            long seen = Long.parseLong(lastId(first));
+
+            sseService.sendToUser("1", event("E2", "1"));
+            // A second user's ring pushes user 1's out of the buffer
+            sseService.sendToUser("2", event("OTHER_USER", "2"));
+
+            RecordingEmitter reconnected = new RecordingEmitter();
+            sseService.register("1", "Citizen", reconnected, seen);
+
+            assertThat(reconnected.names).containsExactly("replay-incomplete");
+        }
+    }
+
+    @Nested
+    @DisplayName("Topic Subscription Tests")
+    class TopicSubscriptionTests {
+
+        private final SseTopic area = new SseTopic(SseTopicType.AREA, "district-1");
+        private final SseTopic request = new SseTopic(SseTopicType.COLLECTION_REQUEST, "r-42");
+
+        @Test
+        @DisplayName("Should deliver topic events only to subscribers, once per connection")
+        void sendToTopics_SubscribersOnceEach() {
+            RecordingEmitter both = new RecordingEmitter();
+            RecordingEmitter areaOnly = new RecordingEmitter();
+            RecordingEmitter none = new RecordingEmitter();
+            sseService.register("c1", "1", "Citizen", both, null, List.of(area, request));
+            sseService.register("c2", "2", "Enterprise", areaOnly, null, List.of(area));
+            sseService.register("3", "Citizen", none, null);
+
+            sseService.sendToTopics(List.of(area, request), event("TASK_UPDATE", request.toString()));
+
+            assertThat(both.names).containsExactly("TASK_UPDATE");
+            assertThat(areaOnly.names).containsExactly("TASK_UPDATE");
+            assertThat(none.names).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should route targetAudience by topic, UUID user id and role")
+        void sendEvent_RoutesWithoutRegex() {
+            String userId = "7f1c2e3a-8a0b-4a55-9a4e-5d1a2b3c4d5e";
+            RecordingEmitter user = new RecordingEmitter();
+            sseService.register("c1", userId, "Citizen", user, null, List.of(area));
+
+            sseService.sendEvent(event("BY_TOPIC", "area:district-1"));
+            sseService.sendEvent(event("BY_USER", userId));
+            sseService.sendEvent(event("BY_ROLE", "Citizen"));
+
+            assertThat(user.names).containsExactly("BY_TOPIC", "BY_USER", "BY_ROLE");
+        }
+
+        @Test
+        @DisplayName("Should stop delivering after unsubscribe and drop the index entry on disconnect")
+        void unsubscribe_AndRemove_CleanIndex() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            sseService.register("c1", "1", "Citizen", emitter, null, List.of());
+            assertThat(sseService.subscribe("c1", area)).isTrue();
+            assertThat(sseService.subscribe("missing", area)).isFalse();
+
+            sseService.sendToTopic(area, event("E1", area.toString()));
+            sseService.unsubscribe("c1", area);
+            sseService.sendToTopic(area, event("E2", area.toString()));
+            assertThat(emitter.names).containsExactly("E1");
+
+            sseService.subscribe("c1", request);
+            assertThat(sseService.getActiveTopicCount()).isEqualTo(1);
+            emitter.failOnSend = true;
+            sseService.sendToTopic(request, event("E3", request.toString()));
+            assertThat(sseService.getActiveTopicCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should replay missed topic events on reconnect")
+        void reconnect_ReplaysTopicEvents() {
+            RecordingEmitter first = new RecordingEmitter();
+            sseService.register("c1", "1", "Citizen", first, null, List.of(area));
+            sseService.sendToTopic(area, event("E1", area.toString()));
+            String text = new String((byte[]) first.frames.get(0), StandardCharsets.UTF_8);
+            long seen = Long.parseLong(text.substring(3, text.indexOf('\n')));
+
+            sseService.sendToTopic(area, event("E2", area.toString()));
+            sseService.sendToTopic(request, event("NOT_SUBSCRIBED", request.toString()));
+
+            RecordingEmitter reconnected = new RecordingEmitter();
+            sseService.register("c2", "1", "Citizen", reconnected, seen, List.of(area));
+
+            assertThat(reconnected.names).containsExactly("E2");
+        }
+    }
+
+    @Nested
+    @DisplayName("Conflation Tests")
+    class ConflationTests {
+
+        private SseService conflating;
+
+        @BeforeEach
+        void setUp() {
+            conflating = new SseService(OBJECT_MAPPER, new InMemorySseBroadcastBus(), new SimpleMeterRegistry(),
+                    SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 4, 100, 2, 30000, 1000, "NOTIFICATION_UPDATE=60000");
+        }
+
+        private SseEventData update(String title) {
+            return SseEventData.builder()
+                    .eventType("NOTIFICATION_UPDATE")
+                    .payload(title)
+                    .timestamp(LocalDateTime.now())
+                    .targetAudience("All")
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should deliver only the latest event per key within the window and count the rest")
+        void sameKey_OnlyLatestDelivered() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            conflating.register("1", "Citizen", emitter, null);
+
+            conflating.sendEvent(update("v1"), "n-1");
+            conflating.sendEvent(update("v2"), "n-1");
+            conflating.sendEvent(update("v3"), "n-1");
+            conflating.sendEvent(update("other"), "n-2");
+            assertThat(emitter.names).isEmpty();
+
+            conflating.flushCoalesced();
+
+            assertThat(emitter.names).containsExactly("NOTIFICATION_UPDATE", "NOTIFICATION_UPDATE");
+            String delivered = emitter.frames.stream()
+                    .map(frame -> new String((byte[]) frame, StandardCharsets.UTF_8))
+                    .reduce("", String::concat);
+            assertThat(delivered).contains("v3", "other").doesNotContain("v1", "v2");
+            assertThat(conflating.getConflatedEventCounts()).containsEntry("NOTIFICATION_UPDATE", 2L);
+        }
+
+        @Test
+        @DisplayName("Should publish immediately for event types without a window or without a key")
+        void unconfigured_PublishedImmediately() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            conflating.register("1", "Citizen", emitter, null);
+
+            conflating.sendEvent(event("NOTIFICATION", "All"), "n-1");
+            conflating.sendEvent(update("no-key"), null);
+
+            assertThat(emitter.names).containsExactly("NOTIFICATION", "NOTIFICATION_UPDATE");
+            assertThat(conflating.getConflatedEventCounts()).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests {
+
+        @Test
+        @DisplayName("Should record sends, fan-out and one disconnect per failed connection by reason and role")
+        void failedSend_CountedOnceByReasonAndRole() {
+            RecordingEmitter healthy = new RecordingEmitter();
+            RecordingEmitter broken = new RecordingEmitter();
+            broken.failOnSend = true;
+            sseService.register("1", "Citizen", healthy, null);
+            sseService.register("2", "Collector", broken, null);
+
+            sseService.sendToAll(event("E1", "All"));
+            sseService.sendToAll(event("E2", "All"));
+
+            assertThat(meterRegistry.get("sse.send").timer().count()).isEqualTo(2);
+            assertThat(meterRegistry.get("sse.send.failures").tag("exception", "IOException").counter().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("sse.fanout").tag("audience", "ROLE").timer().count()).isEqualTo(2);
+            assertThat(meterRegistry.get("sse.disconnects")
+                    .tags("reason", "SEND_FAILED", "role", "Collector").counter().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("sse.connections.active").gauge().value()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should expose queue depth and eviction disconnects in stats")
+        void stats_IncludeQueueDepthAndEvictions() {
+            SseConnection held = sseService.register("1", "Citizen", new RecordingEmitter(), null);
+            sseService.register("1", "Citizen", new RecordingEmitter(), null);
+            sseService.register("1", "Citizen", new RecordingEmitter(), null);
+
+            Map<String, Object> stats = sseService.getStats();
+
+            assertThat(held.isClosed()).isTrue();
+            assertThat(stats).containsEntry("totalConnections", 2).containsKeys("queueDepthMax", "send", "fanOut");
+            assertThat(stats.get("disconnects")).isEqualTo(Map.of("EVICTED", Map.of("Citizen", 1.0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Broadcast Bus Tests")
+    class BroadcastBusTests {
+
+        @Test
+        @DisplayName("Should deliver events published on one node to connections on another")
+        void publish_ReachesOtherNode() {
+            InMemorySseBroadcastBus bus = new InMemorySseBroadcastBus();
+            SseService nodeA = new SseService(OBJECT_MAPPER, bus, new SimpleMeterRegistry(),
+                    SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 4, 100, 2, 30000, 1000, "");
+            SseService nodeB = new SseService(OBJECT_MAPPER, bus, new SimpleMeterRegistry(),
+                    SseDispatchMode.SYNC, 16, SseOverflowPolicy.DROP_OLDEST, 4, 100, 2, 30000, 1000, "");
+            RecordingEmitter onA = new RecordingEmitter();
+            RecordingEmitter onB = new RecordingEmitter();
+            nodeA.register("1", "Citizen", onA, null);
+            nodeB.register("2", "Citizen", onB, null);
+
+            nodeA.sendEvent(event("NOTIFICATION", "Citizen"));
+            nodeB.sendEvent(event("COMPLAINT_UPDATE", "1"));
+
+            assertThat(onA.names).containsExactly("NOTIFICATION", "COMPLAINT_UPDATE");
+            assertThat(onB.names).containsExactly("NOTIFICATION");
+        }
+    }
+
+    @Nested
+    @DisplayName("Heartbeat Wheel Tests")
+    class HeartbeatWheelTests {
+
+        private SseConnection connection(RecordingEmitter emitter) {
+            SseConnection connection = new SseConnection("1", "Citizen", emitter,
+                    16, SseOverflowPolicy.DROP_OLDEST, Runnable::run, c -> {
+                    });
+            connection.start(List.of());
+            return connection;
+        }
+
+        @Test
+        @DisplayName("Should ping an idle connection once per interval")
+        void idleConnection_PingedOncePerInterval() {
+            SseHeartbeatWheel wheel = new SseHeartbeatWheel(1000, 100);
+            RecordingEmitter emitter = new RecordingEmitter();
+            long base = System.currentTimeMillis();
+            wheel.add(connection(emitter), base);
+
+            for (long now = base; now <= base + 2100; now += 100) {
+                wheel.tick(now, () -> SseFrame.of(null, "HEARTBEAT", "ping"));
+            }
+
+            assertThat(emitter.names).containsExactly("HEARTBEAT", "HEARTBEAT");
+        }
+
+        @Test
+        @DisplayName("Should spread pings across the interval instead of one burst")
+        void manyConnections_SpreadAcrossTicks() {
+            SseHeartbeatWheel wheel = new SseHeartbeatWheel(1000, 100);
+            long base = System.currentTimeMillis();
+            for (int i = 0; i < 100; i++) {
+                wheel.add(connection(new RecordingEmitter()), base);
+            }
+
+            int total = 0;
+            int maxPerTick = 0;
+            for (long now = base + 1000; now < base + 2000; now += 100) {
+                int pings = wheel.tick(now, () -> SseFrame.of(null, "HEARTBEAT", "ping"));
+                total += pings;
+                maxPerTick = Math.max(maxPerTick, pings);
+            }
+
+            assertThat(total).isEqualTo(100);
+            assertThat(maxPerTick).isLessThan(40);
+        }
+    }
+
+    @Nested
+    @DisplayName("Overflow Policy Tests")
+    class OverflowPolicyTests {
+
+        @Test
+        @DisplayName("Should drop oldest events when queue is full")
+        void dropOldest_KeepsNewestEvents() {
+            // Writer that never runs, so the queue only fills up
+            SseConnection connection = new SseConnection("1", "Citizen", new RecordingEmitter(),
+                    2, SseOverflowPolicy.DROP_OLDEST, task -> {
+                    }, c -> {
+                    });
+
+            assertThat(connection.enqueue(SseFrame.of(null, "E1", "1"))).isTrue();
+            assertThat(connection.enqueue(SseFrame.of(null, "E2", "2"))).isTrue();
+            assertThat(connection.enqueue(SseFrame.of(null, "E3", "3"))).isTrue();
+
+            assertThat(connection.getQueueDepth()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should disconnect when queue is full")
+        void disconnect_ClosesConnection() {
+            AtomicInteger failures = new AtomicInteger();
+            SseConnection connection = new SseConnection("1", "Citizen", new RecordingEmitter(),
+                    1, SseOverflowPolicy.DISCONNECT, task -> {
+                    }, c -> failures.incrementAndGet());
+
+            assertThat(connection.enqueue(SseFrame.of(null, "E1", "1"))).isTrue();
+            assertThat(connection.enqueue(SseFrame.of(null, "E2", "2"))).isFalse();
+            assertThat(connection.enqueue(SseFrame.of(null, "E3", "3"))).isFalse();
+
+            assertThat(failures.get()).isEqualTo(1);
+            assertThat(connection.getQueueDepth()).isZero();
+        }
+    }
+}
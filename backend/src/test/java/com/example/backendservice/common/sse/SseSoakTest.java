@@ -0,0 +1,153 @@
+package com.example.backendservice.common.sse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Soak test of the real ASYNC dispatcher with 1k / 10k / 50k synthetic connections,
+ * one percent of which are slow clients. Reports broadcast throughput, publish-to-write
+ * latency percentiles of the fast clients, heap per connection and connect/disconnect cost.
+ * Run with: mvn test -Pbenchmark -Dtest=SseSoakTest
+ */
+@Tag("benchmark")
+class SseSoakTest {
+
+    private static final int BROADCASTS = 50;
+    private static final int SLOW_EVERY = 100;
+    private static final long SLOW_WRITE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    // Deep enough that fast clients never drop a burst; slow ones may still overflow
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    // Publish time of each broadcast; the n-th frame a client receives belongs to broadcast n
+    private static final long[] publishedAt = new long[BROADCASTS];
+
+    /**
+     * Fast clients record publish-to-write latency; slow clients stall on every write
+     */
+    static class SyntheticEmitter extends SseEmitter {
+
+        private final boolean slow;
+        private final long[] latencies;
+        private final CountDownLatch delivered;
+        private int received;
+
+        SyntheticEmitter(boolean slow, CountDownLatch delivered) {
+            this.slow = slow;
+            this.latencies = slow ? null : new long[BROADCASTS];
+            this.delivered = delivered;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (slow) {
+                LockSupport.parkNanos(SLOW_WRITE_NANOS);
+                return;
+            }
+            if (received < BROADCASTS) {
+                latencies[received] = System.nanoTime() - publishedAt[received];
+                received++;
+                delivered.countDown();
+            }
+        }
+    }
+
+    private static SseService newService() {
+        return new SseService(SseServiceTest.OBJECT_MAPPER, new InMemorySseBroadcastBus(), new SimpleMeterRegistry(),
+                SseDispatchMode.ASYNC, QUEUE_CAPACITY, SseOverflowPolicy.DROP_OLDEST, 100, 100, 5, 30000, 1000, "");
+    }
+
+    private static long usedHeapAfterGc() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    @ParameterizedTest(name = "{0} connections")
+    @ValueSource(ints = {1_000, 10_000, 50_000})
+    @DisplayName("Broadcast throughput, tail latency, heap per connection and churn")
+    void soak(int connections) throws InterruptedException {
+        SseService sseService = newService();
+        int slowCount = connections / SLOW_EVERY;
+        int fastCount = connections - slowCount;
+        CountDownLatch delivered = new CountDownLatch(fastCount * BROADCASTS);
+        List<SyntheticEmitter> fast = new ArrayList<>(fastCount);
+
+        // Heap per connection
+        long heapBefore = usedHeapAfterGc();
+        for (int i = 0; i < connections; i++) {
+            SyntheticEmitter emitter = new SyntheticEmitter(i % SLOW_EVERY == 0, delivered);
+            if (!emitter.slow) {
+                fast.add(emitter);
+            }
+            sseService.register(String.valueOf(i), "Citizen", emitter, null);
+        }
+        long heapPerConnection = (usedHeapAfterGc() - heapBefore) / connections;
+
+        // Broadcast throughput and latency, with slow clients in the audience
+        SseEventData event = SseEventData.notification(Map.of("title", "Soak", "content", "x".repeat(200)), "Citizen");
+        long start = System.nanoTime();
+        for (int i = 0; i < BROADCASTS; i++) {
+            publishedAt[i] = System.nanoTime();
+            sseService.sendToRole("Citizen", event);
+        }
+        long publishNanos = System.nanoTime() - start;
+        boolean complete = delivered.await(2, TimeUnit.MINUTES);
+        long totalNanos = System.nanoTime() - start;
+
+        long[] latencies = fast.stream().flatMapToLong(emitter -> Arrays.stream(emitter.latencies)).sorted().toArray();
+
+        // Connect/disconnect churn on a registry that already holds every connection
+        int churn = Math.min(connections, 10_000);
+        long churnStart = System.nanoTime();
+        for (int i = 0; i < churn; i++) {
+            SseConnection connection = sseService.register("churn-" + i, "Citizen",
+                    new SyntheticEmitter(false, new CountDownLatch(0)), null);
+            sseService.removeEmitter(connection, SseDisconnectReason.COMPLETED);
+        }
+        long churnNanos = System.nanoTime() - churnStart;
+
+        System.out.printf("%n%d connections (%d slow), %d broadcasts%n", connections, slowCount, BROADCASTS);
+        System.out.printf("  heap per connection:      %,d bytes%n", heapPerConnection);
+        System.out.printf("  publish (enqueue) time:   %.2f ms total, %.1f us per broadcast%n",
+                publishNanos / 1e6, publishNanos / 1e3 / BROADCASTS);
+        System.out.printf("  fast deliveries:          %,.0f events/s%n",
+                (double) fastCount * BROADCASTS / (totalNanos / 1e9));
+        System.out.printf("  fast client latency:      p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.99), percentile(latencies, 0.999),
+                latencies.length > 0 ? latencies[latencies.length - 1] / 1e6 : 0.0);
+        System.out.printf("  connect + disconnect:     %.2f us%n", churnNanos / 1e3 / churn);
+        System.out.printf("  dropped on overflow:      %.0f%n", sseService.getStats().get("droppedOnOverflow"));
+
+        sseService.shutdown();
+        assertThat(complete).as("every fast client received every broadcast").isTrue();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+}
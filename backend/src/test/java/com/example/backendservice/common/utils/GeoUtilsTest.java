@@ -0,0 +1,58 @@
+package com.example.backendservice.common.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoUtilsTest {
+
+    @Test
+    @DisplayName("Should measure great-circle distances")
+    void haversine() {
+        assertThat(GeoUtils.haversineKm(10.0, 106.0, 11.0, 106.0)).isCloseTo(111.195, within(0.001));
+        assertThat(GeoUtils.haversineKm(0.0, 179.5, 0.0, -179.5)).isCloseTo(111.195, within(0.001));
+        // Ho Chi Minh City to Hanoi
+        assertThat(GeoUtils.haversineKm(10.7769, 106.7009, 21.0285, 105.8542)).isCloseTo(1143.5, within(1.0));
+    }
+
+    @Test
+    @DisplayName("Should give nearby points cells sharing a prefix")
+    void cellOrder() {
+        long cell = GeoUtils.cellOf(10.7769, 106.7009);
+        long neighbour = GeoUtils.cellOf(10.77691, 106.70091);
+        long far = GeoUtils.cellOf(21.0285, 105.8542);
+
+        assertThat(Long.numberOfLeadingZeros(cell ^ neighbour)).isGreaterThan(Long.numberOfLeadingZeros(cell ^ far));
+        assertThat(GeoUtils.cellOf(-90, -180)).isZero();
+        assertThat(GeoUtils.cellOf(90, 180)).isEqualTo((1L << 2 * GeoUtils.CELL_BITS) - 1);
+    }
+
+    @Test
+    @DisplayName("Should cover every point within the radius by the search cells and box")
+    void searchAreaCoversCircle() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            double lat = random.nextDouble() * 160 - 80;
+            double lng = random.nextDouble() * 340 - 170;
+            double radiusKm = 0.05 + random.nextDouble() * 50;
+            GeoUtils.SearchArea area = GeoUtils.searchArea(lat, lng, radiusKm);
+            assertThat(area.cells()).hasSize(4);
+
+            double bearing = random.nextDouble() * 2 * Math.PI;
+            double distance = radiusKm * random.nextDouble();
+            double pointLat = lat + Math.cos(bearing) * distance / GeoUtils.KM_PER_DEGREE;
+            double pointLng = lng + Math.sin(bearing) * distance
+                    / (GeoUtils.KM_PER_DEGREE * Math.cos(Math.toRadians(pointLat)));
+            if (GeoUtils.haversineKm(lat, lng, pointLat, pointLng) > radiusKm) {
+                continue;
+            }
+            long cell = GeoUtils.cellOf(pointLat, pointLng);
+            assertThat(area.contains(pointLat, pointLng)).isTrue();
+            assertThat(area.cells()).anyMatch(range -> cell >= range.start() && cell <= range.end());
+        }
+    }
+}
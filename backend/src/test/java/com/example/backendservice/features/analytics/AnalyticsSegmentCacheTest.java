@@ -0,0 +1,192 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.analytics.dto.DailyRollupRow;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.analytics.service.AnalyticsSegmentCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsSegmentCacheTest {
+
+    private static final UUID NONE = EnterpriseDailyStatsId.NONE;
+
+    private AnalyticsSegmentCache cache;
+    private UUID enterpriseId;
+    private LocalDate today;
+    private List<LocalDate[]> loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new AnalyticsSegmentCache(100, 600_000);
+        enterpriseId = UUID.randomUUID();
+        today = DateUtils.businessToday();
+        loads = new ArrayList<>();
+    }
+
+    private static DailyRollupRow row(LocalDate date, long tasks) {
+        return new DailyRollupRow(date, NONE, null, NONE, null, tasks, tasks, 0, 0, 0, 0.0, 0);
+    }
+
+    // One row per day of the requested range, recording each call
+    private List<DailyRollupRow> load(UUID id, LocalDate start, LocalDate end) {
+        loads.add(new LocalDate[]{start, end});
+        List<DailyRollupRow> rows = new ArrayList<>();
+        for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+            rows.add(row(day, 1));
+        }
+        return rows;
+    }
+
+    private List<DailyRollupRow> read(LocalDate start, LocalDate end) {
+        return cache.rows(enterpriseId, start, end, this::load);
+    }
+
+    @Nested
+    @DisplayName("Segment Reuse Tests")
+    class ReuseTests {
+
+        @Test
+        @DisplayName("Should serve closed days from memory on the second read")
+        void rows_ClosedDaysCached() {
+            LocalDate start = today.minusDays(10);
+            LocalDate end = today.minusDays(1);
+
+            read(start, end);
+            List<DailyRollupRow> second = read(start, end);
+
+            assertThat(second).hasSize(10);
+            assertThat(loads).hasSize(1);
+            assertThat(cache.getCachedSegmentCount()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should reload only today when the range ends today")
+        void rows_TodayAlwaysReloaded() {
+            LocalDate start = today.minusDays(89);
+
+            read(start, today);
+            List<DailyRollupRow> second = read(start, today);
+
+            assertThat(second).hasSize(90);
+            assertThat(loads).hasSize(2);
+            assertThat(loads.get(1)).containsExactly(today, today);
+        }
+
+        @Test
+        @DisplayName("Should cover a gap between cached days with one load")
+        void rows_OneLoadForMissingSpan() {
+            read(today.minusDays(5), today.minusDays(5));
+            read(today.minusDays(2), today.minusDays(2));
+            loads.clear();
+
+            List<DailyRollupRow> rows = read(today.minusDays(6), today.minusDays(1));
+
+            assertThat(rows).hasSize(6);
+            assertThat(loads).hasSize(1);
+            assertThat(loads.get(0)).containsExactly(today.minusDays(6), today.minusDays(1));
+        }
+
+        @Test
+        @DisplayName("Should cache a closed day that has no rows")
+        void rows_EmptyDayCached() {
+            LocalDate day = today.minusDays(3);
+            cache.rows(enterpriseId, day, day, (id, start, end) -> {
+                loads.add(new LocalDate[]{start, end});
+                return List.of();
+            });
+
+            assertThat(read(day, day)).isEmpty();
+            assertThat(loads).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should bypass the cache when it is disabled")
+        void rows_Disabled() {
+            cache = new AnalyticsSegmentCache(0, 600_000);
+            LocalDate day = today.minusDays(3);
+
+            read(day, day);
+            read(day, day);
+
+            assertThat(loads).hasSize(2);
+            assertThat(cache.getCachedSegmentCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Should reload a day after a task of that day changed")
+        void invalidate_ReloadsDay() {
+            LocalDate start = today.minusDays(10);
+            LocalDate changed = today.minusDays(4);
+            read(start, today.minusDays(1));
+
+            cache.invalidateAfterCommit(enterpriseId, changed);
+            read(start, today.minusDays(1));
+
+            assertThat(loads).hasSize(2);
+            assertThat(loads.get(1)).containsExactly(changed, changed);
+        }
+
+        @Test
+        @DisplayName("Should not cache what a read saw when a write committed during it")
+        void invalidate_DuringLoadNotCached() {
+            LocalDate day = today.minusDays(2);
+            cache.rows(enterpriseId, day, day, (id, start, end) -> {
+                cache.invalidateAfterCommit(enterpriseId, day);
+                return List.of(row(day, 1));
+            });
+
+            read(day, day);
+
+            assertThat(loads).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should leave other enterprises cached")
+        void invalidate_OtherEnterpriseUntouched() {
+            LocalDate day = today.minusDays(2);
+            read(day, day);
+
+            cache.invalidateAfterCommit(UUID.randomUUID(), day);
+            read(day, day);
+
+            assertThat(loads).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("Should drop every segment when the rollup is rebuilt")
+        void clear_DropsEverything() {
+            read(today.minusDays(5), today.minusDays(1));
+
+            cache.clearAfterCommit();
+
+            assertThat(cache.getCachedSegmentCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reload segments older than the TTL")
+        void rows_ExpiredSegmentReloaded() {
+            cache = new AnalyticsSegmentCache(100, 0);
+            LocalDate day = today.minusDays(2);
+
+            read(day, day);
+            read(day, day);
+
+            assertThat(loads).hasSize(2);
+        }
+    }
+}
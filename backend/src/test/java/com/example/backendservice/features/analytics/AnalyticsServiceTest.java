@@ -0,0 +1,338 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.analytics.service.AnalyticsSegmentCache;
+import com.example.backendservice.features.analytics.service.AnalyticsServiceImpl;
+import com.example.backendservice.features.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    private static final UUID NONE = EnterpriseDailyStatsId.NONE;
+
+    @Mock
+    private EnterpriseDailyStatsRepository dailyStatsRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private AnalyticsSegmentCache segmentCache = new AnalyticsSegmentCache(100, 600_000);
+
+    @InjectMocks
+    private AnalyticsServiceImpl analyticsService;
+
+    private UUID enterpriseId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private UUID plastic;
+    private UUID paper;
+    private UUID district1;
+
+    @BeforeEach
+    void setUp() {
+        enterpriseId = UUID.randomUUID();
+        startDate = LocalDate.of(2025, 3, 1);
+        endDate = LocalDate.of(2025, 3, 3);
+        plastic = UUID.randomUUID();
+        paper = UUID.randomUUID();
+        district1 = UUID.randomUUID();
+    }
+
+    private DailyRollupRow row(int dayOfMonth, UUID areaId, String areaName, UUID wasteTypeId, String wasteTypeName,
+                               long tasks, long pending, long completed, long cancelled, long completedSameDay,
+                               double weightKg, long points) {
+        return new DailyRollupRow(LocalDate.of(2025, 3, dayOfMonth), areaId, areaName, wasteTypeId, wasteTypeName,
+                tasks, pending, completed, cancelled, completedSameDay, weightKg, points);
+    }
+
+    private void givenRollup() {
+        when(dailyStatsRepository.findRows(eq(enterpriseId), any(), any())).thenReturn(List.of(
+                row(1, district1, "District 1", plastic, "Plastic", 2, 0, 2, 0, 1, 30.0, 20),
+                row(1, district1, "District 1", paper, "Paper", 1, 1, 0, 0, 0, 0.0, 0),
+                row(3, NONE, null, paper, "Paper", 1, 0, 1, 0, 1, 10.0, 5),
+                row(3, district1, "District 1", NONE, null, 1, 0, 0, 1, 0, 0.0, 0)));
+    }
+
+    @Nested
+    @DisplayName("Enterprise Summary Tests")
+    class SummaryTests {
+
+        @Test
+        @DisplayName("Should sum the rollup rows of the requested date range")
+        void getEnterpriseSummary_FromRollup() {
+            givenRollup();
+
+            EnterpriseSummaryDTO summary = analyticsService.getEnterpriseSummary(enterpriseId, startDate, endDate);
+
+            assertThat(summary.getTotalTasks()).isEqualTo(5);
+            assertThat(summary.getPendingTasks()).isEqualTo(1);
+            assertThat(summary.getCompletedTasks()).isEqualTo(3);
+            assertThat(summary.getCancelledTasks()).isEqualTo(1);
+            assertThat(summary.getTotalWeightCollectedKg()).isEqualTo(40.0);
+            assertThat(summary.getAverageWeightPerTaskKg()).isEqualTo(40.0 / 3);
+            assertThat(summary.getTotalPointsAwarded()).isEqualTo(25);
+            verify(dailyStatsRepository).findRows(enterpriseId, startDate, endDate);
+        }
+
+        @Test
+        @DisplayName("Should return zeros when the enterprise has no tasks in range")
+        void getEnterpriseSummary_NoTasks() {
+            when(dailyStatsRepository.findRows(eq(enterpriseId), any(), any())).thenReturn(List.of());
+
+            EnterpriseSummaryDTO summary = analyticsService.getEnterpriseSummary(enterpriseId, startDate, endDate);
+
+            assertThat(summary.getTotalTasks()).isZero();
+            assertThat(summary.getAverageWeightPerTaskKg()).isEqualTo(0.0);
+            assertThat(summary.getTotalPointsAwarded()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Breakdown Tests")
+    class BreakdownTests {
+
+        @Test
+        @DisplayName("Should merge rows per waste type, compute percentages and sort by weight")
+        void getWasteTypeBreakdown_PercentagesSorted() {
+            givenRollup();
+
+            List<WasteTypeSummaryDTO> result = analyticsService.getWasteTypeBreakdown(enterpriseId, startDate, endDate);
+
+            assertThat(result).extracting(WasteTypeSummaryDTO::getWasteTypeName).containsExactly("Plastic", "Paper");
+            assertThat(result.get(0).getPercentageOfTotal()).isEqualTo(75.0);
+            assertThat(result.get(1).getTaskCount()).isEqualTo(2);
+            assertThat(result.get(1).getPointsAwarded()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Should leave tasks without an area out of the area breakdown")
+        void getAreaBreakdown_SkipsNoArea() {
+            givenRollup();
+
+            List<AreaSummaryDTO> result = analyticsService.getAreaBreakdown(enterpriseId, startDate, endDate);
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getAreaName()).isEqualTo("District 1");
+            assertThat(result.get(0).getTaskCount()).isEqualTo(4);
+            assertThat(result.get(0).getCompletedTasks()).isEqualTo(2);
+            assertThat(result.get(0).getPercentageOfTotal()).isEqualTo(100.0);
+        }
+
+        @Test
+        @DisplayName("Should fill days without tasks with zeros")
+        void getDailyStats_GapFilled() {
+            givenRollup();
+
+            List<DailyStatDTO> result = analyticsService.getDailyStats(enterpriseId, startDate, endDate);
+
+            assertThat(result).extracting(DailyStatDTO::getDate).containsExactly(
+                    LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 2), LocalDate.of(2025, 3, 3));
+            assertThat(result).extracting(DailyStatDTO::getTasksCreated).containsExactly(3L, 0L, 2L);
+            assertThat(result).extracting(DailyStatDTO::getTasksCompleted).containsExactly(1L, 0L, 1L);
+            assertThat(result.get(2).getWeightCollectedKg()).isEqualTo(10.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Enterprise Dashboard Tests")
+    class DashboardTests {
+
+        @Test
+        @DisplayName("Should build every section from one rollup read")
+        void getEnterpriseAnalytics_SingleRead() {
+            givenRollup();
+
+            EnterpriseAnalyticsResponse response = analyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate);
+
+            assertThat(response.getSummary().getTotalTasks()).isEqualTo(5);
+            assertThat(response.getByWasteType()).hasSize(2);
+            assertThat(response.getByArea()).hasSize(1);
+            assertThat(response.getDailyStats()).hasSize(3);
+            verify(dailyStatsRepository).findRows(enterpriseId, startDate, endDate);
+            verifyNoMoreInteractions(dailyStatsRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Time Series Tests")
+    class TimeSeriesTests {
+
+        private Object[] bucket(LocalDateTime start, long created, long completed, double weight, long points) {
+            return new Object[]{Timestamp.valueOf(start), created, completed, weight, points};
+        }
+
+        @Test
+        @DisplayName("Should gap-fill days the database returned no bucket for")
+        void getTimeSeries_DayGapFill() {
+            when(dailyStatsRepository.findDailySeries(enterpriseId, startDate, endDate)).thenReturn(List.of(
+                    bucket(LocalDate.of(2025, 3, 3).atStartOfDay(), 2, 1, 10.0, 5),
+                    bucket(LocalDate.of(2025, 3, 1).atStartOfDay(), 3, 2, 30.0, 20)));
+
+            List<TimeBucketStatDTO> series = analyticsService.getTimeSeries(
+                    enterpriseId, startDate, endDate, AnalyticsGranularity.DAY);
+
+            assertThat(series).extracting(TimeBucketStatDTO::getBucketStart).containsExactly(
+                    LocalDate.of(2025, 3, 1).atStartOfDay(),
+                    LocalDate.of(2025, 3, 2).atStartOfDay(),
+                    LocalDate.of(2025, 3, 3).atStartOfDay());
+            assertThat(series).extracting(TimeBucketStatDTO::getTasksCreated).containsExactly(3L, 0L, 2L);
+            assertThat(series.get(2).getWeightCollectedKg()).isEqualTo(10.0);
+        }
+
+        @Test
+        @DisplayName("Should start weekly buckets on the Monday before startDate")
+        void getTimeSeries_Week() {
+            LocalDate start = LocalDate.of(2025, 3, 5);
+            LocalDate end = LocalDate.of(2025, 3, 20);
+            when(dailyStatsRepository.findWeeklySeries(enterpriseId, start, end)).thenReturn(List.<Object[]>of(
+                    bucket(LocalDateTime.of(2025, 3, 10, 0, 0), 4, 1, 0.0, 0)));
+
+            List<TimeBucketStatDTO> series = analyticsService.getTimeSeries(
+                    enterpriseId, start, end, AnalyticsGranularity.WEEK);
+
+            assertThat(series).extracting(TimeBucketStatDTO::getBucketStart).containsExactly(
+                    LocalDateTime.of(2025, 3, 3, 0, 0),
+                    LocalDateTime.of(2025, 3, 10, 0, 0),
+                    LocalDateTime.of(2025, 3, 17, 0, 0));
+            assertThat(series).extracting(TimeBucketStatDTO::getTasksCreated).containsExactly(0L, 4L, 0L);
+        }
+
+        @Test
+        @DisplayName("Should bucket a year by month")
+        void getTimeSeries_Month() {
+            LocalDate start = LocalDate.of(2025, 1, 1);
+            LocalDate end = LocalDate.of(2025, 12, 31);
+            when(dailyStatsRepository.findMonthlySeries(enterpriseId, start, end)).thenReturn(List.<Object[]>of(
+                    bucket(LocalDateTime.of(2025, 6, 1, 0, 0), 7, 3, 12.5, 9)));
+
+            List<TimeBucketStatDTO> series = analyticsService.getTimeSeries(
+                    enterpriseId, start, end, AnalyticsGranularity.MONTH);
+
+            assertThat(series).hasSize(12);
+            assertThat(series.get(5).getTasksCreated()).isEqualTo(7);
+            assertThat(series.get(5).getPointsAwarded()).isEqualTo(9);
+        }
+
+        @Test
+        @DisplayName("Should read hours from tasks over the business-day range")
+        void getTimeSeries_Hour() {
+            when(taskRepository.findHourlySeries(eq(enterpriseId), any(), any(), eq("Asia/Ho_Chi_Minh")))
+                    .thenReturn(List.<Object[]>of(bucket(LocalDateTime.of(2025, 3, 2, 7, 0), 1, 0, 0.0, 0)));
+
+            List<TimeBucketStatDTO> series = analyticsService.getTimeSeries(
+                    enterpriseId, startDate, endDate, AnalyticsGranularity.HOUR);
+
+            assertThat(series).hasSize(72);
+            assertThat(series.get(24 + 7).getTasksCreated()).isEqualTo(1);
+            verifyNoInteractions(dailyStatsRepository);
+        }
+
+        @Test
+        @DisplayName("Should reject a range with too many buckets")
+        void getTimeSeries_TooManyBuckets() {
+            assertThatThrownBy(() -> analyticsService.getTimeSeries(
+                    enterpriseId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), AnalyticsGranularity.HOUR))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(taskRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Period Comparison Tests")
+    class ComparisonTests {
+
+        private PeriodComparisonRow comparisonRow(long tasks, double weight, long points,
+                                                  long baselineTasks, double baselineWeight, long baselinePoints) {
+            return new PeriodComparisonRow(tasks, tasks / 2, 0L, weight, points,
+                    baselineTasks, baselineTasks / 2, 0L, baselineWeight, baselinePoints);
+        }
+
+        @Test
+        @DisplayName("Should compare a week with the seven days before it in one query")
+        void getPeriodComparison_PreviousPeriod() {
+            LocalDate start = LocalDate.of(2025, 3, 10);
+            LocalDate end = LocalDate.of(2025, 3, 16);
+            when(dailyStatsRepository.findPeriodComparison(enterpriseId, start, end,
+                    LocalDate.of(2025, 3, 3), LocalDate.of(2025, 3, 9)))
+                    .thenReturn(comparisonRow(12, 150.0, 60, 8, 200.0, 60));
+
+            PeriodComparisonDTO comparison = analyticsService.getPeriodComparison(
+                    enterpriseId, start, end, ComparisonBaseline.PREVIOUS_PERIOD);
+
+            assertThat(comparison.getBaselineStart()).isEqualTo(LocalDate.of(2025, 3, 3));
+            assertThat(comparison.getBaselineEnd()).isEqualTo(LocalDate.of(2025, 3, 9));
+            assertThat(comparison.getTotalTasks().getCurrent()).isEqualTo(12.0);
+            assertThat(comparison.getTotalTasks().getDelta()).isEqualTo(4.0);
+            assertThat(comparison.getTotalTasks().getGrowthPercent()).isEqualTo(50.0);
+            assertThat(comparison.getWeightCollectedKg().getDelta()).isEqualTo(-50.0);
+            assertThat(comparison.getWeightCollectedKg().getGrowthPercent()).isEqualTo(-25.0);
+            assertThat(comparison.getPointsAwarded().getGrowthPercent()).isEqualTo(0.0);
+            verify(dailyStatsRepository, never()).findRows(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should compare a month with the same month last year, clamping 29 February")
+        void getPeriodComparison_PreviousYear() {
+            LocalDate start = LocalDate.of(2024, 2, 1);
+            LocalDate end = LocalDate.of(2024, 2, 29);
+            when(dailyStatsRepository.findPeriodComparison(enterpriseId, start, end,
+                    LocalDate.of(2023, 2, 1), LocalDate.of(2023, 2, 28)))
+                    .thenReturn(comparisonRow(5, 10.0, 5, 4, 8.0, 4));
+
+            PeriodComparisonDTO comparison = analyticsService.getPeriodComparison(
+                    enterpriseId, start, end, ComparisonBaseline.PREVIOUS_YEAR);
+
+            assertThat(comparison.getBaselineEnd()).isEqualTo(LocalDate.of(2023, 2, 28));
+            assertThat(comparison.getTotalTasks().getGrowthPercent()).isEqualTo(25.0);
+        }
+
+        @Test
+        @DisplayName("Should report zeros and no growth rate when there is nothing to compare with")
+        void getPeriodComparison_EmptyBaseline() {
+            when(dailyStatsRepository.findPeriodComparison(eq(enterpriseId), eq(startDate), eq(endDate), any(), any()))
+                    .thenReturn(new PeriodComparisonRow(3L, 1L, 0L, 10.0, 5L, null, null, null, null, null));
+
+            PeriodComparisonDTO comparison = analyticsService.getPeriodComparison(
+                    enterpriseId, startDate, endDate, ComparisonBaseline.PREVIOUS_PERIOD);
+
+            assertThat(comparison.getTotalTasks().getBaseline()).isEqualTo(0.0);
+            assertThat(comparison.getTotalTasks().getDelta()).isEqualTo(3.0);
+            assertThat(comparison.getTotalTasks().getGrowthPercent()).isNull();
+            assertThat(comparison.getCancelledTasks().getGrowthPercent()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject an end date before the start date")
+        void getPeriodComparison_InvalidRange() {
+            assertThatThrownBy(() -> analyticsService.getPeriodComparison(
+                    enterpriseId, endDate, startDate, ComparisonBaseline.PREVIOUS_PERIOD))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(dailyStatsRepository);
+        }
+    }
+}
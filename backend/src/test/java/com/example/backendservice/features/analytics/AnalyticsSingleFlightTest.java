@@ -0,0 +1,205 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.common.exception.ServiceUnavailableException;
+import com.example.backendservice.features.analytics.service.AnalyticsSingleFlight;
+import com.example.backendservice.features.analytics.service.AnalyticsSingleFlight.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnalyticsSingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnalyticsSingleFlight singleFlight;
+    private ExecutorService executor;
+    private UUID enterpriseId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new AnalyticsSingleFlight(meterRegistry, 5_000, "");
+        executor = Executors.newCachedThreadPool();
+        enterpriseId = UUID.randomUUID();
+        startDate = LocalDate.of(2025, 3, 1);
+        endDate = LocalDate.of(2025, 3, 31);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double calls(Operation operation, String role) {
+        return meterRegistry.get("analytics.singleflight.calls")
+                .tag("operation", operation.name()).tag("role", role).counter().count();
+    }
+
+    // Starts a leader that blocks until release is counted down, and waits until it holds the flight
+    private Future<String> blockedLeader(CountDownLatch release, AtomicInteger runs, Object... args) throws Exception {
+        Future<String> leader = executor.submit(() -> singleFlight.execute(Operation.SUMMARY, () -> {
+            runs.incrementAndGet();
+            await(release);
+            return "result";
+        }, args));
+        while (singleFlight.getInFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+        return leader;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Nested
+    @DisplayName("Coalescing Tests")
+    class CoalescingTests {
+
+        @Test
+        @DisplayName("Should run identical concurrent calls once and share the result")
+        void execute_SharesResult() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            Future<String> leader = blockedLeader(release, runs, enterpriseId, startDate, endDate);
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute(Operation.SUMMARY, () -> {
+                    runs.incrementAndGet();
+                    return "own";
+                }, enterpriseId, startDate, endDate)));
+            }
+            while (calls(Operation.SUMMARY, "follower") < 10) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThat(leader.get()).isEqualTo("result");
+            for (Future<String> follower : followers) {
+                assertThat(follower.get()).isEqualTo("result");
+            }
+            assertThat(runs).hasValue(1);
+            assertThat(calls(Operation.SUMMARY, "leader")).isEqualTo(1);
+            assertThat(singleFlight.getInFlightCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should not coalesce calls with different arguments or operations")
+        void execute_DifferentKeys() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            Future<String> leader = blockedLeader(release, runs, enterpriseId, startDate, endDate);
+
+            String otherRange = singleFlight.execute(Operation.SUMMARY, () -> "other range",
+                    enterpriseId, startDate, endDate.minusDays(1));
+            String otherOperation = singleFlight.execute(Operation.AREAS, () -> "areas",
+                    enterpriseId, startDate, endDate);
+            release.countDown();
+
+            assertThat(otherRange).isEqualTo("other range");
+            assertThat(otherOperation).isEqualTo("areas");
+            assertThat(leader.get()).isEqualTo("result");
+        }
+
+        @Test
+        @DisplayName("Should not keep results once the flight lands")
+        void execute_NoCaching() {
+            AtomicInteger runs = new AtomicInteger();
+
+            singleFlight.execute(Operation.DAILY, runs::incrementAndGet, enterpriseId);
+            singleFlight.execute(Operation.DAILY, runs::incrementAndGet, enterpriseId);
+
+            assertThat(runs).hasValue(2);
+        }
+
+        @Test
+        @DisplayName("Should give followers the leader's exception")
+        void execute_SharesFailure() throws Exception {
+            CountDownLatch leaderStarted = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Future<Object> leader = executor.submit(() -> singleFlight.execute(Operation.SERIES, () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new BadRequestException("Range too long");
+            }, enterpriseId));
+            await(leaderStarted);
+
+            Future<Object> follower = executor.submit(() -> singleFlight.execute(Operation.SERIES, () -> "own", enterpriseId));
+            while (calls(Operation.SERIES, "follower") < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertThatThrownBy(follower::get).hasCauseInstanceOf(BadRequestException.class);
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(BadRequestException.class);
+            assertThat(singleFlight.getInFlightCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Timeout Tests")
+    class TimeoutTests {
+
+        @Test
+        @DisplayName("Should fail a follower with 503 once the flight's deadline passes")
+        void execute_FollowerTimesOut() throws Exception {
+            singleFlight = new AnalyticsSingleFlight(meterRegistry = new SimpleMeterRegistry(), 5_000, "SUMMARY=50");
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            Future<String> leader = blockedLeader(release, runs, enterpriseId);
+
+            assertThatThrownBy(() -> singleFlight.execute(Operation.SUMMARY, () -> "own", enterpriseId))
+                    .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                            e -> assertThat(e.getRetryAfterSeconds()).isEqualTo(1L));
+            assertThat(meterRegistry.get("analytics.singleflight.timeouts")
+                    .tag("operation", "SUMMARY").counter().count()).isEqualTo(1);
+            release.countDown();
+            assertThat(leader.get()).isEqualTo("result");
+        }
+
+        @Test
+        @DisplayName("Should start a new flight when the one in progress is past its deadline")
+        void execute_ExpiredFlightReplaced() throws Exception {
+            singleFlight = new AnalyticsSingleFlight(meterRegistry = new SimpleMeterRegistry(), 5_000, "SUMMARY=20");
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicInteger runs = new AtomicInteger();
+            Future<String> stuck = blockedLeader(release, runs, enterpriseId);
+            Thread.sleep(40);
+
+            String fresh = singleFlight.execute(Operation.SUMMARY, () -> "fresh", enterpriseId);
+            release.countDown();
+
+            assertThat(fresh).isEqualTo("fresh");
+            assertThat(stuck.get()).isEqualTo("result");
+            assertThat(calls(Operation.SUMMARY, "leader")).isEqualTo(2);
+            assertThat(singleFlight.getInFlightCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject a malformed timeout override")
+        void constructor_InvalidOverride() {
+            assertThatThrownBy(() -> new AnalyticsSingleFlight(new SimpleMeterRegistry(), 5_000, "SUMMARY"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
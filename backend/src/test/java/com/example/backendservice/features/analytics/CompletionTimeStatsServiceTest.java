@@ -0,0 +1,243 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.features.analytics.dto.CompletionSample;
+import com.example.backendservice.features.analytics.dto.CompletionTimePercentilesDTO;
+import com.example.backendservice.features.analytics.entity.CompletionTimeDimension;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketch;
+import com.example.backendservice.features.analytics.entity.CompletionTimeSketchId;
+import com.example.backendservice.features.analytics.repository.CompletionTimeSketchRepository;
+import com.example.backendservice.features.analytics.service.CompletionTimeStatsServiceImpl;
+import com.example.backendservice.features.analytics.service.QuantileSketch;
+import com.example.backendservice.features.collector.entity.CollectionRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CompletionTimeStatsServiceTest {
+
+    @Mock
+    private CompletionTimeSketchRepository sketchRepository;
+
+    @InjectMocks
+    private CompletionTimeStatsServiceImpl completionTimeStatsService;
+
+    private UUID collectorId;
+    private UUID enterpriseId;
+    private UUID areaId;
+    private UUID reportId;
+    private Instant assignedAt;
+
+    @BeforeEach
+    void setUp() {
+        collectorId = UUID.randomUUID();
+        enterpriseId = UUID.randomUUID();
+        areaId = UUID.randomUUID();
+        reportId = UUID.randomUUID();
+        assignedAt = Instant.parse("2025-03-01T02:00:00Z");
+    }
+
+    private CollectionRequest collected(Duration took) {
+        return CollectionRequest.builder()
+                .id(UUID.randomUUID())
+                .collectorId(collectorId)
+                .enterpriseId(enterpriseId)
+                .reportId(reportId)
+                .status("COLLECTED")
+                .assignedAt(assignedAt)
+                .collectedAt(assignedAt.plus(took))
+                .build();
+    }
+
+    private static CompletionTimeSketch stored(CompletionTimeSketchId id, double... seconds) {
+        QuantileSketch sketch = new QuantileSketch();
+        for (double value : seconds) {
+            sketch.add(value);
+        }
+        return CompletionTimeSketch.builder().id(id).sampleCount(sketch.getCount()).sketch(sketch.toBytes()).build();
+    }
+
+    // Samples held for a key with nothing stored for it: the unflushed ones
+    private long samples(CompletionTimeDimension dimension, UUID id) {
+        return completionTimeStatsService.getPercentiles(dimension, id).getSampleCount();
+    }
+
+    @Nested
+    @DisplayName("Record Completion Tests")
+    class RecordTests {
+
+        @Test
+        @DisplayName("Should count a completion for its collector, enterprise and area")
+        void recordCompletion_AllDimensions() {
+            completionTimeStatsService.recordCompletion(collected(Duration.ofMinutes(30)), areaId);
+
+            assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isEqualTo(1);
+            assertThat(samples(CompletionTimeDimension.ENTERPRISE, enterpriseId)).isEqualTo(1);
+            CompletionTimePercentilesDTO area = completionTimeStatsService
+                    .getPercentiles(CompletionTimeDimension.AREA, areaId);
+            assertThat(area.getSampleCount()).isEqualTo(1);
+            assertThat(area.getP50Minutes()).isCloseTo(30.0, within(0.3));
+        }
+
+        @Test
+        @DisplayName("Should only count the completion once its transaction commits")
+        void recordCompletion_AfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                completionTimeStatsService.recordCompletion(collected(Duration.ofMinutes(30)), null);
+
+                assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isZero();
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isEqualTo(1);
+            assertThat(samples(CompletionTimeDimension.ENTERPRISE, enterpriseId)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should ignore a request without an assigned time")
+        void recordCompletion_NoAssignedAt() {
+            CollectionRequest request = collected(Duration.ofMinutes(30));
+            request.setAssignedAt(null);
+
+            completionTimeStatsService.recordCompletion(request, null);
+
+            verifyNoInteractions(sketchRepository);
+            assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Percentile Tests")
+    class PercentileTests {
+
+        @Test
+        @DisplayName("Should merge the stored sketch with unflushed completions")
+        void getPercentiles_StoredPlusPending() {
+            CompletionTimeSketchId id = new CompletionTimeSketchId(CompletionTimeDimension.COLLECTOR, collectorId);
+            when(sketchRepository.findById(id)).thenReturn(Optional.of(stored(id, 600, 600, 600, 600)));
+            completionTimeStatsService.recordCompletion(collected(Duration.ofDays(3)), null);
+
+            CompletionTimePercentilesDTO result = completionTimeStatsService
+                    .getPercentiles(CompletionTimeDimension.COLLECTOR, collectorId);
+
+            assertThat(result.getSampleCount()).isEqualTo(5);
+            assertThat(result.getP50Minutes()).isCloseTo(10.0, within(0.1));
+            assertThat(result.getP99Minutes()).isCloseTo(10.0, within(0.1));
+            assertThat(result.getAverageMinutes()).isCloseTo(872.0, within(0.1));
+        }
+
+        @Test
+        @DisplayName("Should return null percentiles when nothing was collected")
+        void getPercentiles_Empty() {
+            when(sketchRepository.findById(any())).thenReturn(Optional.empty());
+
+            CompletionTimePercentilesDTO result = completionTimeStatsService
+                    .getPercentiles(CompletionTimeDimension.ENTERPRISE, enterpriseId);
+
+            assertThat(result.getSampleCount()).isZero();
+            assertThat(result.getP50Minutes()).isNull();
+            assertThat(result.getAverageMinutes()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Flush and Rebuild Tests")
+    class FlushTests {
+
+        @Test
+        @DisplayName("Should merge pending completions into the stored sketches and clear them")
+        void flush_MergesIntoStored() {
+            CompletionTimeSketchId collectorKey = new CompletionTimeSketchId(CompletionTimeDimension.COLLECTOR, collectorId);
+            when(sketchRepository.findForUpdate(any())).thenReturn(Optional.empty());
+            when(sketchRepository.findForUpdate(collectorKey)).thenReturn(Optional.of(stored(collectorKey, 60, 120)));
+            completionTimeStatsService.recordCompletion(collected(Duration.ofMinutes(3)), null);
+
+            int written = completionTimeStatsService.flush();
+
+            assertThat(written).isEqualTo(2);
+            assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isZero();
+            ArgumentCaptor<CompletionTimeSketch> saved = ArgumentCaptor.forClass(CompletionTimeSketch.class);
+            verify(sketchRepository, times(2)).save(saved.capture());
+            CompletionTimeSketch collectorRow = saved.getAllValues().stream()
+                    .filter(row -> row.getId().equals(collectorKey)).findFirst().orElseThrow();
+            assertThat(collectorRow.getSampleCount()).isEqualTo(3);
+            assertThat(QuantileSketch.fromBytes(collectorRow.getSketch()).quantile(1)).isCloseTo(180, within(1.8));
+        }
+
+        @Test
+        @DisplayName("Should keep the completions for the next flush when the flush rolls back")
+        void flush_RestoredOnRollback() {
+            when(sketchRepository.findForUpdate(any())).thenThrow(new IllegalStateException("lock timeout"));
+            completionTimeStatsService.recordCompletion(collected(Duration.ofMinutes(3)), null);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                assertThatThrownBy(() -> completionTimeStatsService.flush()).hasMessage("lock timeout");
+                TransactionSynchronizationManager.getSynchronizations().forEach(sync ->
+                        sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            assertThat(samples(CompletionTimeDimension.COLLECTOR, collectorId)).isEqualTo(1);
+            assertThat(samples(CompletionTimeDimension.ENTERPRISE, enterpriseId)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should do nothing when there is nothing to flush")
+        void flush_Empty() {
+            assertThat(completionTimeStatsService.flush()).isZero();
+            verifyNoInteractions(sketchRepository);
+        }
+
+        @Test
+        @DisplayName("Should rebuild one sketch per collector, enterprise and area and drop the rest")
+        @SuppressWarnings("unchecked")
+        void rebuild_FromSamples() {
+            UUID otherCollector = UUID.randomUUID();
+            CompletionTimeSketch staleRow = stored(
+                    new CompletionTimeSketchId(CompletionTimeDimension.COLLECTOR, UUID.randomUUID()), 60);
+            when(sketchRepository.findAll()).thenReturn(List.of(staleRow));
+            when(sketchRepository.streamCompletionSamples()).thenReturn(Stream.of(
+                    new CompletionSample(collectorId, enterpriseId, areaId, assignedAt, assignedAt.plusSeconds(600)),
+                    new CompletionSample(otherCollector, enterpriseId, null, assignedAt, assignedAt.plusSeconds(1200))));
+
+            int written = completionTimeStatsService.rebuild();
+
+            assertThat(written).isEqualTo(4);
+            ArgumentCaptor<List<CompletionTimeSketch>> saved = ArgumentCaptor.forClass(List.class);
+            verify(sketchRepository).deleteAll(argThat(rows -> List.copyOf((Collection<CompletionTimeSketch>) rows)
+                    .equals(List.of(staleRow))));
+            verify(sketchRepository).saveAll(saved.capture());
+            assertThat(saved.getValue())
+                    .filteredOn(row -> row.getId().getDimension() == CompletionTimeDimension.ENTERPRISE)
+                    .singleElement()
+                    .extracting(CompletionTimeSketch::getSampleCount).isEqualTo(2L);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.common.benchmark.H2TcpBenchmarkSupport;
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.analytics.service.AnalyticsSegmentCache;
+import com.example.backendservice.features.analytics.service.AnalyticsServiceImpl;
+import com.example.backendservice.features.analytics.service.EnterpriseDailyStatsServiceImpl;
+import com.example.backendservice.features.enterprise.entity.Enterprise;
+import com.example.backendservice.features.location.entity.ServiceArea;
+import com.example.backendservice.features.task.entity.Task;
+import com.example.backendservice.features.task.repository.TaskRepository;
+import com.example.backendservice.features.waste.entity.WasteType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Compares the enterprise dashboard built by loading tasks and grouping them in memory with
+ * the dashboard read from the enterprise_daily_stats rollup, at 20k tasks and again at 100k tasks
+ * over the same 90 days. Reports statements executed, bytes allocated on the calling thread and
+ * wall time; the rollup read should cost the same at both sizes.
+ * Run with: mvn test -Pbenchmark -Dtest=EnterpriseAnalyticsBenchmark
+ */
+class EnterpriseAnalyticsBenchmark extends H2TcpBenchmarkSupport {
+
+    private static final int TASKS = 20_000;
+    private static final int MORE_TASKS = 80_000;
+    private static final int DAYS = 90;
+    private static final int AREAS = 10;
+    private static final int WASTE_TYPES = 6;
+    private static final String[] STATUSES = {"PENDING", "ASSIGNED", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnterpriseDailyStatsRepository dailyStatsRepository;
+
+    private AnalyticsServiceImpl analyticsService;
+    private AnalyticsServiceImpl cachedAnalyticsService;
+    private EnterpriseDailyStatsServiceImpl dailyStatsService;
+    private Random random;
+    private List<UUID> areaIds;
+    private List<UUID> wasteTypeIds;
+    private Statistics statistics;
+    private UUID enterpriseId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws SQLException {
+        // H2 casts TIMESTAMP WITH TIME ZONE to DATE in the session zone rather than the value's own,
+        // unlike Postgres, so run the server on the business clock for day-bucket queries to agree
+        TimeZone.setDefault(TimeZone.getTimeZone(DateUtils.BUSINESS_ZONE));
+        startH2(registry, "analytics");
+    }
+
+    @BeforeEach
+    void setUp() {
+        AnalyticsSegmentCache segmentCache = new AnalyticsSegmentCache(100, 600_000);
+        analyticsService = new AnalyticsServiceImpl(dailyStatsRepository, new AnalyticsSegmentCache(0, 0),
+                taskRepository);
+        cachedAnalyticsService = new AnalyticsServiceImpl(dailyStatsRepository, segmentCache, taskRepository);
+        dailyStatsService = new EnterpriseDailyStatsServiceImpl(dailyStatsRepository, segmentCache);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        Enterprise enterprise = new Enterprise();
+        enterprise.setName("Benchmark Enterprise");
+        entityManager.persist(enterprise);
+        areaIds = new ArrayList<>();
+        for (int i = 0; i < AREAS; i++) {
+            ServiceArea area = new ServiceArea();
+            area.setName("Area " + i);
+            entityManager.persist(area);
+            areaIds.add(area.getId());
+        }
+        wasteTypeIds = new ArrayList<>();
+        for (int i = 0; i < WASTE_TYPES; i++) {
+            WasteType wasteType = new WasteType();
+            wasteType.setName("Type " + i);
+            entityManager.persist(wasteType);
+            wasteTypeIds.add(wasteType.getId());
+        }
+        entityManager.flush();
+        enterpriseId = enterprise.getId();
+
+        // Ends today, so the cached read still has one open day to load
+        endDate = DateUtils.businessToday();
+        startDate = endDate.minusDays(DAYS - 1);
+        random = new Random(42);
+        insertTasks(TASKS);
+    }
+
+    // createdAt is a creation timestamp, so tasks are inserted directly to spread them over the period
+    private void insertTasks(int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            boolean completed = "COMPLETED".equals(status);
+            // Business-clock times stored as the server writes them
+            LocalDateTime createdAt = DateUtils.fromBusinessTime(
+                    startDate.plusDays(random.nextInt(DAYS)).atTime(random.nextInt(24), random.nextInt(60)));
+            rows.add(new Object[]{
+                    UUID.randomUUID(), enterpriseId,
+                    random.nextInt(20) == 0 ? null : areaIds.get(random.nextInt(AREAS)),
+                    wasteTypeIds.get(random.nextInt(WASTE_TYPES)),
+                    status,
+                    completed ? 1 + random.nextDouble() * 20 : null,
+                    completed ? random.nextInt(100) : null,
+                    Timestamp.valueOf(createdAt),
+                    completed ? Timestamp.valueOf(createdAt.plusHours(random.nextInt(48))) : null});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tasks (id, enterprise_id, area_id, waste_type_id, status, priority, " +
+                "actual_weight_kg, points_awarded, created_at, completed_at) " +
+                "VALUES (?, ?, ?, ?, ?, 'NORMAL', ?, ?, ?, ?)", rows);
+        dailyStatsService.rebuild();
+    }
+
+    @Test
+    @DisplayName("Rollup read costs one query and the same at any task count")
+    void compare() {
+        Supplier<Object> perTask = this::perTaskDashboard;
+        Supplier<Object> rollup = () -> analyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate);
+
+        Result loaded = measure(perTask, 2, 5);
+        Result rollupSmall = measure(rollup, WARMUP, ITERATIONS);
+        long rowsSmall = dailyStatsRepository.count();
+
+        insertTasks(MORE_TASKS);
+        Result rollupLarge = measure(rollup, WARMUP, ITERATIONS);
+        long rowsLarge = dailyStatsRepository.count();
+
+        System.out.printf("%n%d days, %d areas, %d waste types%n", DAYS, AREAS, WASTE_TYPES);
+        System.out.printf("  %-34s %8s %14s %10s%n", "", "queries", "alloc/call", "ms/call");
+        print("load tasks, " + TASKS + " tasks", loaded);
+        print("rollup, " + TASKS + " tasks (" + rowsSmall + " rows)", rollupSmall);
+        print("rollup, " + (TASKS + MORE_TASKS) + " tasks (" + rowsLarge + " rows)", rollupLarge);
+
+        // The rollup agrees with the tasks it was built from
+        EnterpriseAnalyticsResponse fromRollup = analyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate);
+        EnterpriseAnalyticsResponse fromTasks = perTaskDashboard();
+        assertThat(fromRollup.getSummary().getTotalTasks()).isEqualTo(TASKS + MORE_TASKS);
+        assertThat(fromRollup.getSummary().getTotalWeightCollectedKg())
+                .isCloseTo(fromTasks.getSummary().getTotalWeightCollectedKg(), within(1e-6));
+
+        assertThat(rollupSmall.queries).isEqualTo(1);
+        assertThat(rollupSmall.bytes).isLessThan(loaded.bytes);
+        // Bounded by days x areas x waste types, not by tasks
+        assertThat(rowsLarge).isLessThanOrEqualTo((long) DAYS * (AREAS + 1) * WASTE_TYPES);
+        assertThat(rollupLarge.bytes).isLessThan(rollupSmall.bytes * 2);
+    }
+
+    @Test
+    @DisplayName("A warm 90-day read costs about the same as a 1-day read")
+    void segmentCache() {
+        Supplier<Object> quarter = () -> cachedAnalyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate);
+        Supplier<Object> day = () -> cachedAnalyticsService.getEnterpriseAnalytics(enterpriseId, endDate, endDate);
+        Supplier<Object> uncached = () -> analyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate);
+
+        Result cold = measure(uncached, WARMUP, ITERATIONS);
+        Result warmQuarter = measure(quarter, WARMUP, ITERATIONS);
+        Result warmDay = measure(day, WARMUP, ITERATIONS);
+
+        System.out.printf("%n%d tasks over %d days%n", TASKS, DAYS);
+        System.out.printf("  %-34s %8s %14s %10s%n", "", "queries", "alloc/call", "ms/call");
+        print(DAYS + " days, uncached", cold);
+        print(DAYS + " days, closed days cached", warmQuarter);
+        print("1 day (today)", warmDay);
+
+        // Only today goes to the database, and the answer is the same
+        assertThat(warmQuarter.queries).isEqualTo(1);
+        assertThat(cachedAnalyticsService.getEnterpriseAnalytics(enterpriseId, startDate, endDate).getSummary().getTotalTasks())
+                .isEqualTo(TASKS);
+        assertThat(warmQuarter.bytes).isLessThan(cold.bytes);
+    }
+
+    @Test
+    @DisplayName("Series are bucketed in the database at every granularity and agree with each other")
+    void series() {
+        EnterpriseSummaryDTO summary = analyticsService.getEnterpriseSummary(enterpriseId, startDate, endDate);
+
+        System.out.printf("%n%d tasks over %d days, series by granularity%n", TASKS, DAYS);
+        System.out.printf("  %-34s %8s %14s %10s%n", "", "queries", "alloc/call", "ms/call");
+        for (AnalyticsGranularity granularity : AnalyticsGranularity.values()) {
+            Supplier<Object> series = () -> analyticsService.getTimeSeries(enterpriseId, startDate, endDate, granularity);
+            Result result = measure(series, WARMUP, ITERATIONS);
+            List<TimeBucketStatDTO> buckets = analyticsService.getTimeSeries(enterpriseId, startDate, endDate, granularity);
+            print(granularity + " (" + buckets.size() + " buckets)", result);
+
+            assertThat(result.queries).isEqualTo(1);
+            // Hours come from tasks and the rest from the rollup; both count on the business clock
+            assertThat(buckets.stream().mapToLong(TimeBucketStatDTO::getTasksCreated).sum())
+                    .isEqualTo(summary.getTotalTasks());
+            assertThat(buckets.stream().mapToDouble(TimeBucketStatDTO::getWeightCollectedKg).sum())
+                    .isCloseTo(summary.getTotalWeightCollectedKg(), within(1e-6));
+        }
+    }
+
+    /**
+     * The dashboard as built before aggregation moved into SQL: every section loads the
+     * enterprise's tasks and groups them in memory
+     */
+    private EnterpriseAnalyticsResponse perTaskDashboard() {
+        LocalDateTime start = DateUtils.fromBusinessTime(startDate.atStartOfDay());
+        LocalDateTime end = DateUtils.fromBusinessTime(endDate.plusDays(1).atStartOfDay());
+        Supplier<List<Task>> load = () -> taskRepository.findByEnterpriseId(enterpriseId, Pageable.unpaged())
+                .getContent().stream()
+                .filter(t -> !t.getCreatedAt().isBefore(start) && t.getCreatedAt().isBefore(end))
+                .collect(Collectors.toList());
+
+        List<Task> tasks = load.get();
+        long completed = tasks.stream().filter(t -> "COMPLETED".equals(t.getStatus())).count();
+        double weight = tasks.stream().filter(t -> t.getActualWeightKg() != null)
+                .mapToDouble(Task::getActualWeightKg).sum();
+        EnterpriseSummaryDTO summary = EnterpriseSummaryDTO.builder()
+                .totalTasks((long) tasks.size())
+                .completedTasks(completed)
+                .totalWeightCollectedKg(weight)
+                .build();
+
+        List<WasteTypeSummaryDTO> byWasteType = load.get().stream()
+                .filter(t -> t.getWasteType() != null)
+                .collect(Collectors.groupingBy(t -> t.getWasteType().getId()))
+                .values().stream()
+                .map(group -> WasteTypeSummaryDTO.builder()
+                        .wasteTypeName(group.get(0).getWasteType().getName())
+                        .taskCount((long) group.size())
+                        .build())
+                .collect(Collectors.toList());
+
+        List<AreaSummaryDTO> byArea = load.get().stream()
+                .filter(t -> t.getArea() != null)
+                .collect(Collectors.groupingBy(t -> t.getArea().getId()))
+                .values().stream()
+                .map(group -> AreaSummaryDTO.builder()
+                        .areaName(group.get(0).getArea().getName())
+                        .taskCount((long) group.size())
+                        .build())
+                .collect(Collectors.toList());
+
+        Map<LocalDate, List<Task>> byDate = load.get().stream()
+                .collect(Collectors.groupingBy(t -> t.getCreatedAt().toLocalDate()));
+        List<DailyStatDTO> daily = byDate.entrySet().stream()
+                .map(entry -> DailyStatDTO.builder()
+                        .date(entry.getKey())
+                        .tasksCreated((long) entry.getValue().size())
+                        .build())
+                .collect(Collectors.toList());
+
+        return EnterpriseAnalyticsResponse.builder()
+                .summary(summary).byWasteType(byWasteType).byArea(byArea).dailyStats(daily)
+                .build();
+    }
+
+    private record Result(long queries, long bytes, double millis) {
+    }
+
+    private Result measure(Supplier<Object> dashboard, int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            reset();
+            dashboard.get();
+        }
+        statistics.clear();
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            reset();
+            long bytesBefore = THREADS.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            dashboard.get();
+            nanos += System.nanoTime() - start;
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - bytesBefore;
+        }
+        return new Result(statistics.getPrepareStatementCount() / iterations, bytes / iterations,
+                nanos / 1e6 / iterations);
+    }
+
+    // Every call starts from an empty persistence context, and H2 answers a repeated query
+    // from its result cache until the table changes
+    private void reset() {
+        entityManager.clear();
+        jdbcTemplate.update("UPDATE tasks SET notes = NULL WHERE id = (SELECT MIN(id) FROM tasks)");
+    }
+
+    private static void print(String label, Result result) {
+        System.out.printf("  %-34s %8d %,12d B %10.2f%n", label, result.queries, result.bytes, result.millis);
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.analytics.service.AnalyticsSegmentCache;
+import com.example.backendservice.features.analytics.service.EnterpriseDailyStatsServiceImpl;
+import com.example.backendservice.features.analytics.service.TaskStatsContribution;
+import com.example.backendservice.features.enterprise.entity.Enterprise;
+import com.example.backendservice.features.location.entity.ServiceArea;
+import com.example.backendservice.features.task.entity.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EnterpriseDailyStatsServiceTest {
+
+    @Mock
+    private EnterpriseDailyStatsRepository dailyStatsRepository;
+
+    @Mock
+    private AnalyticsSegmentCache segmentCache;
+
+    @InjectMocks
+    private EnterpriseDailyStatsServiceImpl dailyStatsService;
+
+    private UUID enterpriseId;
+    private UUID areaId;
+    private LocalDate day;
+    private Task task;
+
+    @BeforeEach
+    void setUp() {
+        enterpriseId = UUID.randomUUID();
+        areaId = UUID.randomUUID();
+        day = LocalDate.of(2025, 3, 1);
+        task = Task.builder()
+                .id(UUID.randomUUID())
+                .enterprise(Enterprise.builder().id(enterpriseId).build())
+                .area(ServiceArea.builder().id(areaId).build())
+                .status("PENDING")
+                .createdAt(DateUtils.fromBusinessTime(day.atTime(9, 0)))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Incremental Update Tests")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("Should add a new task as one pending task on its created day")
+        void recordTaskChange_NewTask() {
+            dailyStatsService.recordTaskChange(null, task);
+
+            verify(dailyStatsRepository).upsertDelta(enterpriseId, day, areaId, EnterpriseDailyStatsId.NONE,
+                    1, 1, 0, 0, 0, 0.0, 0);
+            verify(segmentCache).invalidateAfterCommit(enterpriseId, day);
+        }
+
+        @Test
+        @DisplayName("Should apply only the difference when a task is completed")
+        void recordTaskChange_Completed() {
+            task.setStatus("IN_PROGRESS");
+            TaskStatsContribution before = TaskStatsContribution.of(task);
+            task.setStatus("COMPLETED");
+            task.setActualWeightKg(12.5);
+            task.setCompletedAt(DateUtils.fromBusinessTime(day.atTime(17, 0)));
+
+            dailyStatsService.recordTaskChange(before, task);
+
+            verify(dailyStatsRepository).upsertDelta(enterpriseId, day, areaId, EnterpriseDailyStatsId.NONE,
+                    0, 0, 1, 0, 1, 12.5, 0);
+        }
+
+        @Test
+        @DisplayName("Should move pending to cancelled when a pending task is cancelled")
+        void recordTaskChange_Cancelled() {
+            TaskStatsContribution before = TaskStatsContribution.of(task);
+            task.setStatus("CANCELLED");
+
+            dailyStatsService.recordTaskChange(before, task);
+
+            verify(dailyStatsRepository).upsertDelta(enterpriseId, day, areaId, EnterpriseDailyStatsId.NONE,
+                    0, -1, 0, 1, 0, 0.0, 0);
+        }
+
+        @Test
+        @DisplayName("Should not touch the rollup when no counted field changed")
+        void recordTaskChange_NoDelta() {
+            task.setStatus("ASSIGNED");
+            TaskStatsContribution before = TaskStatsContribution.of(task);
+            task.setStatus("IN_PROGRESS");
+
+            dailyStatsService.recordTaskChange(before, task);
+
+            verifyNoInteractions(dailyStatsRepository, segmentCache);
+        }
+
+        @Test
+        @DisplayName("Should move the task between rows when its area changes")
+        void recordTaskChange_KeyChanged() {
+            TaskStatsContribution before = TaskStatsContribution.of(task);
+            UUID newAreaId = UUID.randomUUID();
+            task.setArea(ServiceArea.builder().id(newAreaId).build());
+
+            dailyStatsService.recordTaskChange(before, task);
+
+            verify(dailyStatsRepository).upsertDelta(enterpriseId, day, areaId, EnterpriseDailyStatsId.NONE,
+                    -1, -1, 0, 0, 0, -0.0, 0);
+            verify(dailyStatsRepository).upsertDelta(enterpriseId, day, newAreaId, EnterpriseDailyStatsId.NONE,
+                    1, 1, 0, 0, 0, 0.0, 0);
+        }
+
+        @Test
+        @DisplayName("Should not count a completion on a later day as same-day")
+        void contribution_CompletedLaterDay() {
+            task.setStatus("COMPLETED");
+            task.setCompletedAt(DateUtils.fromBusinessTime(LocalDateTime.of(2025, 3, 2, 8, 0)));
+
+            TaskStatsContribution contribution = TaskStatsContribution.of(task);
+
+            assertThat(contribution.completedCount()).isEqualTo(1);
+            assertThat(contribution.completedSameDayCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should count days on the Asia/Ho_Chi_Minh clock")
+        void contribution_BusinessDay() {
+            task.setCreatedAt(DateUtils.fromBusinessTime(day.atTime(23, 50)));
+            task.setStatus("COMPLETED");
+            task.setCompletedAt(DateUtils.fromBusinessTime(day.plusDays(1).atTime(0, 10)));
+
+            TaskStatsContribution contribution = TaskStatsContribution.of(task);
+
+            assertThat(contribution.key().getStatDate()).isEqualTo(day);
+            assertThat(contribution.completedSameDayCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuild Tests")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should replace every row with a recomputation from tasks")
+        void rebuild_ReplacesRows() {
+            when(dailyStatsRepository.deleteAllRows()).thenReturn(10);
+            when(dailyStatsRepository.insertFromTasks("Asia/Ho_Chi_Minh")).thenReturn(12);
+
+            int written = dailyStatsService.rebuild();
+
+            assertThat(written).isEqualTo(12);
+            var order = inOrder(dailyStatsRepository);
+            order.verify(dailyStatsRepository).deleteAllRows();
+            order.verify(dailyStatsRepository).insertFromTasks("Asia/Ho_Chi_Minh");
+            verify(segmentCache).clearAfterCommit();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.features.analytics.dto.*;
+import com.example.backendservice.features.analytics.entity.EnterpriseDailyStatsId;
+import com.example.backendservice.features.analytics.repository.EnterpriseDailyStatsRepository;
+import com.example.backendservice.features.analytics.service.PlatformAnalyticsServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlatformAnalyticsServiceTest {
+
+    @Mock
+    private EnterpriseDailyStatsRepository dailyStatsRepository;
+
+    private PlatformAnalyticsServiceImpl platformAnalyticsService;
+
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private UUID enterpriseA;
+    private UUID enterpriseB;
+    private UUID enterpriseC;
+    private UUID district1;
+    private UUID district3;
+
+    @BeforeEach
+    void setUp() {
+        startDate = LocalDate.of(2025, 3, 1);
+        endDate = LocalDate.of(2025, 3, 31);
+        enterpriseA = UUID.randomUUID();
+        enterpriseB = UUID.randomUUID();
+        enterpriseC = UUID.randomUUID();
+        district1 = UUID.randomUUID();
+        district3 = UUID.randomUUID();
+        platformAnalyticsService = new PlatformAnalyticsServiceImpl(dailyStatsRepository, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        platformAnalyticsService.shutdown();
+    }
+
+    private PlatformPartitionRow row(UUID enterpriseId, UUID areaId, String areaName,
+                                     long tasks, long completed, double weightKg) {
+        return new PlatformPartitionRow(enterpriseId, "Enterprise", areaId, areaName,
+                tasks, tasks - completed, completed, 0L, weightKg, completed * 10);
+    }
+
+    // A, B and C in two partitions of at most two enterprises
+    private void givenPlatform() {
+        when(dailyStatsRepository.findEnterpriseIds(startDate, endDate))
+                .thenReturn(List.of(enterpriseA, enterpriseB, enterpriseC));
+        when(dailyStatsRepository.findPartitionTotals(anyCollection(), eq(startDate), eq(endDate)))
+                .thenAnswer(invocation -> {
+                    Collection<UUID> ids = invocation.getArgument(0);
+                    List<PlatformPartitionRow> rows = new ArrayList<>();
+                    if (ids.contains(enterpriseA)) {
+                        rows.add(row(enterpriseA, district1, "District 1", 4, 2, 20.0));
+                        rows.add(row(enterpriseA, EnterpriseDailyStatsId.NONE, null, 1, 1, 5.0));
+                    }
+                    if (ids.contains(enterpriseB)) {
+                        rows.add(row(enterpriseB, district1, "District 1", 2, 2, 10.0));
+                    }
+                    if (ids.contains(enterpriseC)) {
+                        rows.add(row(enterpriseC, district3, "District 3", 3, 1, 30.0));
+                    }
+                    return rows;
+                });
+    }
+
+    private List<PlatformAnalyticsLine> stream() {
+        List<PlatformAnalyticsLine> lines = new ArrayList<>();
+        platformAnalyticsService.streamPlatformAnalytics(startDate, endDate, lines::add);
+        return lines;
+    }
+
+    @Nested
+    @DisplayName("Merge Tests")
+    class MergeTests {
+
+        @Test
+        @DisplayName("Should stream enterprises, then areas, then the platform summary")
+        void stream_LineOrder() {
+            givenPlatform();
+
+            List<PlatformAnalyticsLine> lines = stream();
+
+            assertThat(lines).extracting(PlatformAnalyticsLine::getType).containsExactly(
+                    "enterprise", "enterprise", "enterprise", "area", "area", "platform");
+            verify(dailyStatsRepository, times(2)).findPartitionTotals(anyCollection(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should add up an enterprise's areas and merge areas across partitions")
+        void stream_Totals() {
+            givenPlatform();
+
+            List<PlatformAnalyticsLine> lines = stream();
+
+            EnterpriseTotalsDTO a = lines.stream()
+                    .filter(line -> line.getData() instanceof EnterpriseTotalsDTO totals
+                            && totals.getEnterpriseId().equals(enterpriseA))
+                    .map(line -> (EnterpriseTotalsDTO) line.getData())
+                    .findFirst().orElseThrow();
+            assertThat(a.getTotalTasks()).isEqualTo(5);
+            assertThat(a.getTotalWeightKg()).isEqualTo(25.0);
+
+            AreaSummaryDTO district1Summary = (AreaSummaryDTO) lines.stream()
+                    .filter(line -> line.getData() instanceof AreaSummaryDTO area && area.getAreaId().equals(district1))
+                    .findFirst().orElseThrow().getData();
+            assertThat(district1Summary.getTaskCount()).isEqualTo(6);
+            assertThat(district1Summary.getCompletedTasks()).isEqualTo(4);
+
+            EnterpriseSummaryDTO platform = (EnterpriseSummaryDTO) lines.get(lines.size() - 1).getData();
+            assertThat(platform.getTotalTasks()).isEqualTo(10);
+            assertThat(platform.getCompletedTasks()).isEqualTo(6);
+            assertThat(platform.getTotalWeightCollectedKg()).isEqualTo(65.0);
+        }
+
+        @Test
+        @DisplayName("Should stream only an empty summary when no enterprise has data")
+        void stream_Empty() {
+            when(dailyStatsRepository.findEnterpriseIds(startDate, endDate)).thenReturn(List.of());
+
+            List<PlatformAnalyticsLine> lines = stream();
+
+            assertThat(lines).extracting(PlatformAnalyticsLine::getType).containsExactly("platform");
+            verify(dailyStatsRepository, never()).findPartitionTotals(anyCollection(), any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("Concurrency Tests")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("Should never run more partition queries at once than the connection cap")
+        void stream_ConnectionCap() {
+            platformAnalyticsService.shutdown();
+            platformAnalyticsService = new PlatformAnalyticsServiceImpl(dailyStatsRepository, 1, 2);
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            when(dailyStatsRepository.findEnterpriseIds(startDate, endDate)).thenReturn(ids);
+            when(dailyStatsRepository.findPartitionTotals(anyCollection(), eq(startDate), eq(endDate)))
+                    .thenAnswer(invocation -> {
+                        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        running.decrementAndGet();
+                        UUID id = invocation.<Collection<UUID>>getArgument(0).iterator().next();
+                        return List.of(row(id, district1, "District 1", 1, 1, 1.0));
+                    });
+
+            List<PlatformAnalyticsLine> lines = stream();
+
+            assertThat(lines).filteredOn(line -> "enterprise".equals(line.getType())).hasSize(20);
+            assertThat(maxRunning.get()).isBetween(1, 2);
+            assertThat(platformAnalyticsService.getAvailableDbPermits()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should stream a merged partition before the slower partitions finish")
+        void stream_FirstPartitionStreamedEarly() {
+            CountDownLatch firstLine = new CountDownLatch(1);
+            AtomicBoolean streamedEarly = new AtomicBoolean();
+            when(dailyStatsRepository.findEnterpriseIds(startDate, endDate))
+                    .thenReturn(List.of(enterpriseA, enterpriseB, enterpriseC));
+            when(dailyStatsRepository.findPartitionTotals(anyCollection(), eq(startDate), eq(endDate)))
+                    .thenAnswer(invocation -> {
+                        Collection<UUID> ids = invocation.getArgument(0);
+                        if (ids.contains(enterpriseC)) {
+                            // The last partition only returns once the first one is on the wire
+                            streamedEarly.set(firstLine.await(5, TimeUnit.SECONDS));
+                            return List.of(row(enterpriseC, district3, "District 3", 3, 1, 30.0));
+                        }
+                        return List.of(row(enterpriseA, district1, "District 1", 4, 2, 20.0),
+                                row(enterpriseB, district1, "District 1", 2, 2, 10.0));
+                    });
+
+            List<PlatformAnalyticsLine> lines = new ArrayList<>();
+            platformAnalyticsService.streamPlatformAnalytics(startDate, endDate, line -> {
+                lines.add(line);
+                firstLine.countDown();
+            });
+
+            assertThat(streamedEarly).isTrue();
+            assertThat(lines).extracting(PlatformAnalyticsLine::getType)
+                    .startsWith("enterprise", "enterprise", "enterprise")
+                    .endsWith("platform");
+        }
+
+        @Test
+        @DisplayName("Should fail the stream when a partition query fails")
+        void stream_PartitionFails() {
+            when(dailyStatsRepository.findEnterpriseIds(startDate, endDate)).thenReturn(List.of(enterpriseA));
+            when(dailyStatsRepository.findPartitionTotals(anyCollection(), eq(startDate), eq(endDate)))
+                    .thenThrow(new IllegalArgumentException("boom"));
+
+            assertThatThrownBy(this::streamAll)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("boom");
+            assertThat(platformAnalyticsService.getAvailableDbPermits()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should stop when the sink fails, as when the client disconnects")
+        void stream_SinkFails() {
+            givenPlatform();
+
+            assertThatThrownBy(() -> platformAnalyticsService.streamPlatformAnalytics(startDate, endDate, line -> {
+                throw new IllegalStateException("client gone");
+            })).hasMessage("client gone");
+        }
+
+        private void streamAll() {
+            stream();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.backendservice.features.analytics;
+
+import com.example.backendservice.features.analytics.service.QuantileSketch;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class QuantileSketchTest {
+
+    private static double exact(double[] sorted, double q) {
+        return sorted[(int) Math.floor(q * (sorted.length - 1))];
+    }
+
+    // Log-normal completion times in seconds, with a few jobs stuck for days
+    private static double[] samples(Random random, int n) {
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextInt(100) == 0
+                    ? 86_400 * (1 + random.nextInt(5))
+                    : Math.exp(7 + random.nextGaussian());
+        }
+        return values;
+    }
+
+    @Nested
+    @DisplayName("Accuracy Tests")
+    class AccuracyTests {
+
+        @Test
+        @DisplayName("Should answer p50/p90/p99 within the relative accuracy")
+        void quantile_WithinRelativeError() {
+            double[] values = samples(new Random(7), 50_000);
+            QuantileSketch sketch = new QuantileSketch();
+            for (double value : values) {
+                sketch.add(value);
+            }
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+
+            for (double q : new double[]{0.5, 0.9, 0.99}) {
+                double expected = exact(sorted, q);
+                assertThat(sketch.quantile(q)).isCloseTo(expected, within(expected * QuantileSketch.RELATIVE_ACCURACY));
+            }
+            assertThat(sketch.getCount()).isEqualTo(50_000);
+        }
+
+        @Test
+        @DisplayName("Should not let stuck jobs move the median")
+        void quantile_StuckJobsOnlyInTail() {
+            QuantileSketch sketch = new QuantileSketch();
+            for (int i = 0; i < 95; i++) {
+                sketch.add(600);
+            }
+            for (int i = 0; i < 5; i++) {
+                sketch.add(30 * 86_400);
+            }
+
+            assertThat(sketch.quantile(0.5)).isCloseTo(600, within(6.0));
+            assertThat(sketch.quantile(0.99)).isGreaterThan(86_400);
+            assertThat(sketch.getSum() / sketch.getCount()).isGreaterThan(100_000);
+        }
+
+        @Test
+        @DisplayName("Should count zero and negative durations as zero")
+        void quantile_ZeroBucket() {
+            QuantileSketch sketch = new QuantileSketch();
+            sketch.add(0);
+            sketch.add(-5);
+            sketch.add(100);
+
+            assertThat(sketch.quantile(0.5)).isZero();
+            assertThat(sketch.quantile(1)).isCloseTo(100, within(1.0));
+        }
+
+        @Test
+        @DisplayName("Should return null for an empty sketch and reject quantiles outside 0..1")
+        void quantile_EmptyAndInvalid() {
+            QuantileSketch sketch = new QuantileSketch();
+
+            assertThat(sketch.quantile(0.5)).isNull();
+            assertThatThrownBy(() -> sketch.quantile(1.5)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Merge and Storage Tests")
+    class MergeTests {
+
+        @Test
+        @DisplayName("Should give the same quantiles merged from parts as built from everything")
+        void merge_EqualsWhole() {
+            double[] values = samples(new Random(11), 10_000);
+            QuantileSketch whole = new QuantileSketch();
+            QuantileSketch low = new QuantileSketch();
+            QuantileSketch high = new QuantileSketch();
+            for (int i = 0; i < values.length; i++) {
+                whole.add(values[i]);
+                (i % 2 == 0 ? low : high).add(values[i]);
+            }
+
+            QuantileSketch merged = new QuantileSketch().merge(high).merge(low);
+
+            assertThat(merged.getCount()).isEqualTo(whole.getCount());
+            for (double q : new double[]{0, 0.5, 0.9, 0.99, 1}) {
+                assertThat(merged.quantile(q)).isEqualTo(whole.quantile(q));
+            }
+        }
+
+        @Test
+        @DisplayName("Should round-trip through its stored form")
+        void bytes_RoundTrip() {
+            QuantileSketch sketch = new QuantileSketch();
+            for (double value : samples(new Random(3), 5_000)) {
+                sketch.add(value);
+            }
+            sketch.add(0);
+
+            byte[] bytes = sketch.toBytes();
+            QuantileSketch restored = QuantileSketch.fromBytes(bytes);
+
+            assertThat(restored.getCount()).isEqualTo(sketch.getCount());
+            assertThat(restored.getSum()).isEqualTo(sketch.getSum());
+            for (double q : new double[]{0, 0.5, 0.9, 0.99, 1}) {
+                assertThat(restored.quantile(q)).isEqualTo(sketch.quantile(q));
+            }
+            assertThat(bytes.length).isLessThan(2_048);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.backendservice.features.collector;
+
+import com.example.backendservice.common.sse.SseService;
+import com.example.backendservice.common.sse.SseTopic;
+import com.example.backendservice.common.sse.SseTopicType;
+import com.example.backendservice.features.analytics.service.CompletionTimeStatsService;
+import com.example.backendservice.features.collector.dto.UpdateTaskStatusRequest;
+import com.example.backendservice.features.collector.entity.CollectionRequest;
+import com.example.backendservice.features.collector.repository.CollectionRequestRepository;
+import com.example.backendservice.features.collector.repository.StatusHistoryRepository;
+import com.example.backendservice.features.collector.service.CollectorTaskServiceImpl;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CollectorTaskServiceTest {
+
+    @Mock
+    private CollectionRequestRepository collectionRequestRepository;
+    @Mock
+    private StatusHistoryRepository statusHistoryRepository;
+    @Mock
+    private WasteReportRepository wasteReportRepository;
+    @Mock
+    private SseService sseService;
+    @Mock
+    private CompletionTimeStatsService completionTimeStatsService;
+
+    @InjectMocks
+    private CollectorTaskServiceImpl collectorTaskService;
+
+    private CollectionRequest task;
+    private UUID collectorId;
+    private UUID reportId;
+
+    @BeforeEach
+    void setUp() {
+        collectorId = UUID.randomUUID();
+        reportId = UUID.randomUUID();
+        task = CollectionRequest.builder()
+                .id(UUID.randomUUID())
+                .collectorId(collectorId)
+                .enterpriseId(UUID.randomUUID())
+                .reportId(reportId)
+                .status("ON_THE_WAY")
+                .assignedAt(Instant.now().minusSeconds(1800))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("Update Status Tests")
+    class UpdateStatusTests {
+
+        @Test
+        @DisplayName("Should record the completion and notify the report's area once collected")
+        void updateTaskStatus_Collected() {
+            UUID areaId = UUID.randomUUID();
+            when(collectionRequestRepository.findById(task.getId())).thenReturn(Optional.of(task));
+            when(wasteReportRepository.findAreaIdByReportId(reportId)).thenReturn(Optional.of(areaId));
+
+            collectorTaskService.updateTaskStatus(task.getId(), collectorId,
+                    UpdateTaskStatusRequest.builder().status("COLLECTED").build());
+
+            assertThat(task.getCollectedAt()).isNotNull();
+            verify(completionTimeStatsService).recordCompletion(task, areaId);
+            verify(wasteReportRepository).findAreaIdByReportId(reportId);
+            verify(sseService).sendToTopics(argThat((Collection<SseTopic> topics) -> topics.containsAll(List.of(
+                    SseTopic.of(SseTopicType.COLLECTION_REQUEST, task.getId()),
+                    SseTopic.of(SseTopicType.COLLECTOR, collectorId),
+                    SseTopic.of(SseTopicType.AREA, areaId)))), any());
+        }
+
+        @Test
+        @DisplayName("Should not record a completion for a failed collection")
+        void updateTaskStatus_Failed() {
+            when(collectionRequestRepository.findById(task.getId())).thenReturn(Optional.of(task));
+            when(wasteReportRepository.findAreaIdByReportId(reportId)).thenReturn(Optional.empty());
+
+            collectorTaskService.updateTaskStatus(task.getId(), collectorId,
+                    UpdateTaskStatusRequest.builder().status("FAILED").note("Nobody home").build());
+
+            assertThat(task.getCollectedAt()).isNull();
+            verifyNoInteractions(completionTimeStatsService);
+            verify(sseService).sendToTopics(argThat((Collection<SseTopic> topics) -> topics.stream()
+                    .noneMatch(topic -> topic.type() == SseTopicType.AREA)), any());
+        }
+
+        @Test
+        @DisplayName("Should only notify subscribers once the update commits")
+        void updateTaskStatus_NotifiesAfterCommit() {
+            when(collectionRequestRepository.findById(task.getId())).thenReturn(Optional.of(task));
+            when(wasteReportRepository.findAreaIdByReportId(reportId)).thenReturn(Optional.empty());
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                collectorTaskService.updateTaskStatus(task.getId(), collectorId,
+                        UpdateTaskStatusRequest.builder().status("CANCELLED").build());
+
+                verifyNoInteractions(sseService);
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(sseService).sendToTopics(any(), any());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.backendservice.features.location;
+
+import com.example.backendservice.features.location.entity.ServiceArea;
+import com.example.backendservice.features.location.service.ServiceAreaIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceAreaIndexTest {
+
+    private ServiceAreaIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ServiceAreaIndex(new ObjectMapper());
+    }
+
+    private static ServiceArea area(String boundaryGeoJson, Double centerLat, Double centerLng, Double radiusKm) {
+        return ServiceArea.builder()
+                .id(UUID.randomUUID())
+                .name("Area")
+                .boundaryGeoJson(boundaryGeoJson)
+                .centerLat(centerLat)
+                .centerLng(centerLng)
+                .radiusKm(radiusKm)
+                .status("ACTIVE")
+                .build();
+    }
+
+    // Axis-aligned rectangle as a GeoJSON polygon ring, [lng, lat] positions
+    private static String ring(double minLat, double minLng, double maxLat, double maxLng) {
+        return "[[" + minLng + "," + minLat + "],[" + maxLng + "," + minLat + "],[" + maxLng + "," + maxLat + "],["
+                + minLng + "," + maxLat + "],[" + minLng + "," + minLat + "]]";
+    }
+
+    @Test
+    @DisplayName("Should resolve points inside a polygon and outside its hole")
+    void polygonWithHole() {
+        ServiceArea district = area("{\"type\": \"Polygon\", \"coordinates\": ["
+                + ring(10.70, 106.60, 10.90, 106.80) + "," + ring(10.79, 106.69, 10.81, 106.71) + "]}", null, null, null);
+        index.rebuild(() -> List.of(district));
+
+        assertThat(index.resolve(10.75, 106.65)).isEqualTo(district.getId());
+        assertThat(index.resolve(10.80, 106.70)).isNull();
+        assertThat(index.resolve(10.95, 106.65)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should read MultiPolygon features and prefer the smaller of overlapping areas")
+    void multiPolygonAndOverlap() {
+        ServiceArea islands = area("{\"type\": \"FeatureCollection\", \"features\": [{\"type\": \"Feature\", "
+                + "\"geometry\": {\"type\": \"MultiPolygon\", \"coordinates\": [[" + ring(10.0, 106.0, 10.1, 106.1)
+                + "], [" + ring(10.5, 106.5, 10.6, 106.6) + "]]}}]}", null, null, null);
+        ServiceArea city = area("{\"type\": \"Polygon\", \"coordinates\": [" + ring(9.0, 105.0, 11.0, 107.0) + "]}",
+                null, null, null);
+        index.rebuild(() -> List.of(city, islands));
+
+        assertThat(index.resolve(10.05, 106.05)).isEqualTo(islands.getId());
+        assertThat(index.resolve(10.55, 106.55)).isEqualTo(islands.getId());
+        assertThat(index.resolve(10.30, 106.30)).isEqualTo(city.getId());
+    }
+
+    @Test
+    @DisplayName("Should fall back to the center and radius, behind any boundary")
+    void circleFallback() {
+        ServiceArea circle = area(null, 10.7769, 106.7009, 2.0);
+        ServiceArea invalid = area("not json", 10.7769, 106.7009, 1.0);
+        index.rebuild(() -> List.of(circle, invalid));
+
+        assertThat(index.resolve(10.7769, 106.7009)).isEqualTo(invalid.getId());
+        assertThat(index.resolve(10.7769 + 0.0135, 106.7009)).isEqualTo(circle.getId());
+        assertThat(index.resolve(10.7769 + 0.0200, 106.7009)).isNull();
+
+        ServiceArea boundary = area("{\"type\": \"Polygon\", \"coordinates\": [" + ring(10.7, 106.6, 10.9, 106.8) + "]}",
+                null, null, null);
+        index.put(boundary);
+        assertThat(index.resolve(10.7769, 106.7009)).isEqualTo(boundary.getId());
+    }
+
+    @Test
+    @DisplayName("Should follow updates, deactivation and removal")
+    void updates() {
+        ServiceArea area = area(null, 10.7769, 106.7009, 2.0);
+        index.put(area);
+        assertThat(index.resolve(10.7769, 106.7009)).isEqualTo(area.getId());
+
+        area.setCenterLat(21.0285);
+        area.setCenterLng(105.8542);
+        index.put(area);
+        assertThat(index.resolve(10.7769, 106.7009)).isNull();
+        assertThat(index.resolve(21.0285, 105.8542)).isEqualTo(area.getId());
+
+        area.setStatus("INACTIVE");
+        index.put(area);
+        assertThat(index.size()).isZero();
+
+        area.setStatus("ACTIVE");
+        index.put(area);
+        index.remove(area.getId());
+        assertThat(index.resolve(21.0285, 105.8542)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should keep changes made while a rebuild reads the database")
+    void rebuild_ReplaysConcurrentChanges() {
+        ServiceArea kept = area(null, 10.7769, 106.7009, 2.0);
+        ServiceArea deactivatedDuringLoad = area(null, 21.0285, 105.8542, 2.0);
+        ServiceArea createdDuringLoad = area(null, 16.0544, 108.2022, 2.0);
+
+        index.rebuild(() -> {
+            // Committed after the loader's snapshot was taken
+            index.remove(deactivatedDuringLoad.getId());
+            index.put(createdDuringLoad);
+            return List.of(kept, deactivatedDuringLoad);
+        });
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.resolve(10.7769, 106.7009)).isEqualTo(kept.getId());
+        assertThat(index.resolve(21.0285, 105.8542)).isNull();
+        assertThat(index.resolve(16.0544, 108.2022)).isEqualTo(createdDuringLoad.getId());
+    }
+
+    @Test
+    @DisplayName("Should find areas too large for the grid")
+    void largeArea() {
+        ServiceArea country = area("{\"type\": \"Polygon\", \"coordinates\": [" + ring(8.0, 102.0, 23.5, 110.0) + "]}",
+                null, null, null);
+        ServiceArea district = area("{\"type\": \"Polygon\", \"coordinates\": [" + ring(10.7, 106.6, 10.9, 106.8) + "]}",
+                null, null, null);
+        index.rebuild(() -> List.of(country, district));
+
+        assertThat(index.resolve(16.0, 108.0)).isEqualTo(country.getId());
+        assertThat(index.resolve(10.7769, 106.7009)).isEqualTo(district.getId());
+    }
+}
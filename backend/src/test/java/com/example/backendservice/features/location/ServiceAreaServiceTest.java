@@ -1,10 +1,13 @@
 package com.example.backendservice.features.location;
 
+import com.example.backendservice.common.exception.BadRequestException;
 import com.example.backendservice.features.location.dto.CreateServiceAreaRequest;
 import com.example.backendservice.features.location.dto.ServiceAreaResponse;
 import com.example.backendservice.features.location.entity.ServiceArea;
 import com.example.backendservice.features.location.repository.ServiceAreaRepository;
+import com.example.backendservice.features.location.service.ServiceAreaIndex;
 import com.example.backendservice.features.location.service.ServiceAreaServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -34,6 +38,8 @@ class ServiceAreaServiceTest {
 
     @Mock
     private ServiceAreaRepository serviceAreaRepository;
+    @Spy
+    private ServiceAreaIndex serviceAreaIndex = new ServiceAreaIndex(new ObjectMapper());
 
     @InjectMocks
     private ServiceAreaServiceImpl serviceAreaService;
@@ -79,6 +85,22 @@ class ServiceAreaServiceTest {
             assertThat(response).isNotNull();
             assertThat(response.getName()).isEqualTo(sampleArea.getName());
             verify(serviceAreaRepository, times(1)).save(any(ServiceArea.class));
+            verify(serviceAreaIndex).put(sampleArea);
+        }
+
+        @Test
+        @DisplayName("Should reject a boundary that is not a GeoJSON polygon")
+        void createServiceArea_InvalidBoundary() {
+            CreateServiceAreaRequest request = CreateServiceAreaRequest.builder()
+                    .name("New Area")
+                    .boundaryGeoJson("{\"type\": \"Point\", \"coordinates\": [106.7, 10.8]}")
+                    .build();
+
+            assertThatThrownBy(() -> serviceAreaService.createServiceArea(request))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("unsupported GeoJSON type 'Point'");
+            verifyNoInteractions(serviceAreaRepository);
+            verify(serviceAreaIndex, never()).put(any());
         }
     }
 
@@ -0,0 +1,185 @@
+package com.example.backendservice.features.task;
+
+import com.example.backendservice.common.utils.DateUtils;
+import com.example.backendservice.features.enterprise.entity.Enterprise;
+import com.example.backendservice.features.location.entity.ServiceArea;
+import com.example.backendservice.features.task.dto.TaskExportFormat;
+import com.example.backendservice.features.task.entity.Task;
+import com.example.backendservice.features.task.repository.TaskRepository;
+import com.example.backendservice.features.task.service.TaskExportServiceImpl;
+import com.example.backendservice.features.waste.entity.WasteReport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private ObjectMapper objectMapper;
+    private TaskExportServiceImpl taskExportService;
+
+    private UUID enterpriseId;
+    private Enterprise enterprise;
+    private ServiceArea area;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        taskExportService = new TaskExportServiceImpl(taskRepository, entityManager, objectMapper);
+        enterpriseId = UUID.randomUUID();
+        enterprise = new Enterprise();
+        enterprise.setId(enterpriseId);
+        enterprise.setName("Green City");
+        area = new ServiceArea();
+        area.setId(UUID.randomUUID());
+        area.setName("Quận 1");
+        startDate = LocalDate.of(2025, 3, 1);
+        endDate = LocalDate.of(2025, 3, 31);
+    }
+
+    private Task task(String notes) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .enterprise(enterprise)
+                .area(area)
+                .status("COMPLETED")
+                .priority("NORMAL")
+                .actualWeightKg(12.5)
+                .pointsAwarded(40)
+                .notes(notes)
+                .createdAt(LocalDateTime.of(2025, 3, 2, 8, 30))
+                .build();
+    }
+
+    private void givenTasks(Task... tasks) {
+        when(taskRepository.streamForExport(eq(enterpriseId), any(), any(), any())).thenReturn(Stream.of(tasks));
+    }
+
+    private String export(TaskExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.exportTasks(enterpriseId, startDate, endDate, null, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Nested
+    @DisplayName("CSV Tests")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Should write a header and one row per task")
+        void export_Csv() throws IOException {
+            Task task = task("ok");
+            givenTasks(task);
+
+            String[] lines = export(TaskExportFormat.CSV).split("\r\n");
+
+            assertThat(lines).hasSize(2);
+            assertThat(lines[0]).startsWith("\uFEFFid,wasteReportId,enterpriseId,enterpriseName");
+            assertThat(lines[1]).startsWith(task.getId() + ",," + enterpriseId + ",Green City," + area.getId() + ",Quận 1,");
+            assertThat(lines[1]).contains(",12.5,", ",COMPLETED,NORMAL,", ",40,2025-03-02T08:30");
+        }
+
+        @Test
+        @DisplayName("Should quote commas, quotes and line breaks and defuse formulas")
+        void export_CsvEscaping() throws IOException {
+            givenTasks(task("bags, \"heavy\"\nside gate"), task("=HYPERLINK(\"x\")"));
+
+            String csv = export(TaskExportFormat.CSV);
+
+            assertThat(csv).contains(",\"bags, \"\"heavy\"\"\nside gate\",");
+            assertThat(csv).contains(",\"'=HYPERLINK(\"\"x\"\")\",");
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON Tests")
+    class NdjsonTests {
+
+        @Test
+        @DisplayName("Should write one JSON object per line with TaskResponse fields")
+        void export_Ndjson() throws IOException {
+            givenTasks(task("a"), task("b"));
+
+            String[] lines = export(TaskExportFormat.NDJSON).split("\n");
+
+            assertThat(lines).hasSize(2);
+            JsonNode first = objectMapper.readTree(lines[0]);
+            assertThat(first.get("enterpriseName").asText()).isEqualTo("Green City");
+            assertThat(first.get("actualWeightKg").asDouble()).isEqualTo(12.5);
+            assertThat(first.get("createdAt").asText()).isEqualTo("2025-03-02T08:30:00");
+            assertThat(first.get("wasteReportId").isNull()).isTrue();
+            assertThat(objectMapper.readTree(lines[1]).get("notes").asText()).isEqualTo("b");
+        }
+    }
+
+    @Nested
+    @DisplayName("Cursor Tests")
+    class CursorTests {
+
+        @Test
+        @DisplayName("Should detach every task and its report proxy once written")
+        void export_DetachesTasks() throws IOException {
+            WasteReport report = new WasteReport();
+            Task withReport = task("a");
+            withReport.setWasteReport(report);
+            Task withoutReport = task("b");
+            givenTasks(withReport, withoutReport);
+
+            export(TaskExportFormat.CSV);
+
+            verify(entityManager).detach(withReport);
+            verify(entityManager).detach(report);
+            verify(entityManager).detach(withoutReport);
+        }
+
+        @Test
+        @DisplayName("Should read business days as server-local bounds and close the cursor")
+        void export_BoundsAndClose() throws IOException {
+            AtomicBoolean closed = new AtomicBoolean();
+            when(taskRepository.streamForExport(any(), any(), any(), any()))
+                    .thenReturn(Stream.of(task("a")).onClose(() -> closed.set(true)));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long written = taskExportService.exportTasks(enterpriseId, startDate, endDate, "COMPLETED",
+                    TaskExportFormat.NDJSON, out);
+
+            assertThat(written).isEqualTo(1);
+            assertThat(closed).isTrue();
+            verify(taskRepository).streamForExport(enterpriseId,
+                    DateUtils.fromBusinessTime(startDate.atStartOfDay()),
+                    DateUtils.fromBusinessTime(endDate.plusDays(1).atStartOfDay()),
+                    "COMPLETED");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backendservice.features.task;
 
+import com.example.backendservice.features.analytics.service.EnterpriseDailyStatsService;
 import com.example.backendservice.features.enterprise.entity.Enterprise;
 import com.example.backendservice.features.enterprise.repository.EnterpriseRepository;
 import com.example.backendservice.features.location.entity.ServiceArea;
@@ -36,6 +37,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +56,8 @@ class TaskServiceTest {
     private WasteTypeRepository wasteTypeRepository;
     @Mock
     private CollectorProfileRepository collectorProfileRepository;
+    @Mock
+    private EnterpriseDailyStatsService dailyStatsService;
 
     @InjectMocks
     private TaskServiceImpl taskService;
@@ -136,6 +141,7 @@ class TaskServiceTest {
             assertThat(response.getEnterpriseName()).isEqualTo("Green Recycling Co.");
             assertThat(response.getStatus()).isEqualTo("PENDING");
             verify(taskRepository, times(1)).save(any(Task.class));
+            verify(dailyStatsService).recordTaskChange(null, sampleTask);
         }
 
         @Test
@@ -193,6 +199,8 @@ class TaskServiceTest {
             assertThat(response.getStatus()).isEqualTo("COMPLETED");
             assertThat(sampleTask.getActualWeightKg()).isEqualTo(24.5);
             assertThat(sampleTask.getCompletedAt()).isNotNull();
+            verify(dailyStatsService).recordTaskChange(
+                    argThat(before -> before.completedCount() == 0), eq(sampleTask));
         }
     }
 
@@ -0,0 +1,70 @@
+package com.example.backendservice.features.waste;
+
+import com.example.backendservice.common.utils.GeoUtils;
+import com.example.backendservice.features.waste.dto.NearbyReportRow;
+import com.example.backendservice.features.waste.repository.WasteReportRepository;
+import com.example.backendservice.features.waste.service.DuplicateReportDetector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DuplicateReportDetectorTest {
+
+    private static final double LAT = 10.7769;
+    private static final double LNG = 106.7009;
+
+    @Mock
+    private WasteReportRepository wasteReportRepository;
+
+    private NearbyReportRow row(UUID id, double lat, double lng) {
+        return NearbyReportRow.builder().reportId(id).lat(lat).lng(lng).status("PENDING").build();
+    }
+
+    @Test
+    @DisplayName("Should pick the oldest open report within the distance and window")
+    void findOriginal() {
+        DuplicateReportDetector detector =
+                new DuplicateReportDetector(wasteReportRepository, DuplicateReportDetector.Mode.FLAG, 50, 72);
+        LocalDateTime now = LocalDateTime.of(2025, 3, 10, 9, 0);
+        UUID original = UUID.randomUUID();
+        // Candidates come oldest first; the first is in the box but about 64 m away
+        when(wasteReportRepository.findRecentCandidates(
+                eq(List.of("PENDING", "ACCEPTED", "ASSIGNED")), eq(now.minusHours(72)), any(GeoUtils.SearchArea.class)))
+                .thenReturn(List.of(
+                        row(UUID.randomUUID(), LAT + 0.0004, LNG + 0.0004),
+                        row(original, LAT + 0.0003, LNG),
+                        row(UUID.randomUUID(), LAT, LNG)));
+
+        assertThat(detector.findOriginal(LAT, LNG, now)).isEqualTo(original);
+        assertThat(detector.linksDuplicates()).isFalse();
+        verify(wasteReportRepository).findRecentCandidates(any(), any(), argThat((GeoUtils.SearchArea area) ->
+                area.contains(LAT + 0.00044, LNG) && !area.contains(LAT + 0.00046, LNG)));
+    }
+
+    @Test
+    @DisplayName("Should not look for duplicates when off or without coordinates")
+    void skipped() {
+        DuplicateReportDetector off =
+                new DuplicateReportDetector(wasteReportRepository, DuplicateReportDetector.Mode.OFF, 50, 72);
+        DuplicateReportDetector link =
+                new DuplicateReportDetector(wasteReportRepository, DuplicateReportDetector.Mode.LINK, 50, 72);
+
+        assertThat(off.findOriginal(LAT, LNG, LocalDateTime.now())).isNull();
+        assertThat(link.findOriginal(null, LNG, LocalDateTime.now())).isNull();
+        assertThat(link.linksDuplicates()).isTrue();
+        verifyNoInteractions(wasteReportRepository);
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.backendservice.features.waste;
+
+import com.example.backendservice.features.waste.dto.SuggestedReportRow;
+import com.example.backendservice.features.waste.service.SuggestedReportIndex;
+import com.example.backendservice.features.waste.service.SuggestedReportIndex.Ranked;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SuggestedReportIndexTest {
+
+    private static final String[] PRIORITIES = {"LOW", "NORMAL", "HIGH", "URGENT"};
+
+    private SuggestedReportIndex index;
+    private LocalDateTime now;
+    private UUID district1;
+    private UUID district3;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestedReportIndex(true);
+        now = LocalDateTime.of(2025, 3, 10, 9, 0);
+        district1 = UUID.randomUUID();
+        district3 = UUID.randomUUID();
+    }
+
+    private SuggestedReportRow row(UUID areaId, double weight, String priority, Double basePointsPerKg,
+                                   LocalDateTime createdAt) {
+        return SuggestedReportRow.builder()
+                .reportId(UUID.randomUUID())
+                .citizenFirstName("Nguyen")
+                .citizenLastName("Van A")
+                .areaId(areaId)
+                .estimatedWeightKg(weight)
+                .priority(priority)
+                .basePointsPerKg(basePointsPerKg)
+                .status("PENDING")
+                .createdAt(createdAt)
+                .build();
+    }
+
+    // The score the database query gives, evaluated directly
+    private static double expectedScore(SuggestedReportRow row, LocalDateTime at) {
+        double score = Math.min(row.getEstimatedWeightKg() / 50.0 * 100, 100) * 0.30;
+        score += switch (row.getPriority()) {
+            case "URGENT" -> 100;
+            case "HIGH" -> 75;
+            case "LOW" -> 25;
+            default -> 50;
+        } * 0.25;
+        if (row.getCreatedAt() != null) {
+            long seconds = java.time.Duration.between(row.getCreatedAt(), at).getSeconds();
+            score += Math.min(seconds / 604_800.0 * 100, 100) * 0.25;
+        }
+        if (row.getBasePointsPerKg() != null) {
+            score += Math.min(row.getBasePointsPerKg() * 5, 100) * 0.20;
+        }
+        return score;
+    }
+
+    private List<SuggestedReportRow> randomRows(int count, Random random) {
+        List<SuggestedReportRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(row(random.nextBoolean() ? district1 : district3, random.nextDouble() * 60,
+                    PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    random.nextInt(5) == 0 ? null : 5.0 + random.nextInt(20),
+                    random.nextInt(50) == 0 ? null : now.minusSeconds(random.nextInt(10 * 24 * 3600))));
+        }
+        return rows;
+    }
+
+    @Nested
+    @DisplayName("Ranking Tests")
+    class RankingTests {
+
+        @Test
+        @DisplayName("Should return the same top K as scoring every report, as reports age past 7 days")
+        void top_MatchesFullScan() {
+            List<SuggestedReportRow> rows = randomRows(2_000, new Random(42));
+            index.rebuild(() -> rows);
+
+            for (LocalDateTime at : List.of(now, now.plusHours(30), now.plusDays(4), now.plusDays(12))) {
+                List<Double> expected = rows.stream()
+                        .map(row -> expectedScore(row, at))
+                        .sorted(Comparator.reverseOrder())
+                        .limit(25)
+                        .toList();
+
+                List<Ranked> top = index.top(null, 25, at);
+
+                assertThat(top).hasSize(25);
+                for (int i = 0; i < 25; i++) {
+                    assertThat(top.get(i).score()).isCloseTo(expected.get(i), within(1e-6));
+                    assertThat(top.get(i).score()).isCloseTo(expectedScore(top.get(i).row(), at), within(1e-6));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Should rank within one area only")
+        void top_Area() {
+            SuggestedReportRow heavy = row(district3, 50, "URGENT", 20.0, now.minusDays(8));
+            SuggestedReportRow light = row(district1, 1, "LOW", null, now);
+            SuggestedReportRow medium = row(district1, 20, "NORMAL", 10.0, now.minusDays(1));
+            index.rebuild(() -> List.of(heavy, light, medium));
+
+            assertThat(index.top(district1, 10, now)).extracting(ranked -> ranked.row().getReportId())
+                    .containsExactly(medium.getReportId(), light.getReportId());
+            assertThat(index.top(null, 1, now).get(0).row().getReportId()).isEqualTo(heavy.getReportId());
+            assertThat(index.top(UUID.randomUUID(), 10, now)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should rank an older report first when scores tie")
+        void top_TieBreak() {
+            SuggestedReportRow newer = row(district1, 50, "URGENT", 20.0, now.minusDays(9));
+            SuggestedReportRow older = row(district1, 50, "URGENT", 20.0, now.minusDays(20));
+            index.rebuild(() -> List.of(newer, older));
+
+            List<Ranked> top = index.top(district1, 2, now);
+
+            assertThat(top).extracting(Ranked::score).containsExactly(100.0, 100.0);
+            assertThat(top.get(0).row().getReportId()).isEqualTo(older.getReportId());
+        }
+    }
+
+    @Nested
+    @DisplayName("Maintenance Tests")
+    class MaintenanceTests {
+
+        @Test
+        @DisplayName("Should replace a report on put and drop it on remove")
+        void putAndRemove() {
+            SuggestedReportRow report = row(district1, 5, "LOW", null, now);
+            index.rebuild(List::of);
+            index.put(report);
+            index.put(row(district1, 10, "NORMAL", null, now));
+
+            SuggestedReportRow updated = SuggestedReportRow.builder()
+                    .reportId(report.getReportId()).areaId(district3).estimatedWeightKg(50.0)
+                    .priority("URGENT").status("PENDING").createdAt(now).build();
+            index.put(updated);
+
+            assertThat(index.size()).isEqualTo(2);
+            assertThat(index.top(district1, 10, now)).hasSize(1);
+            assertThat(index.top(district3, 10, now).get(0).row().getEstimatedWeightKg()).isEqualTo(50.0);
+
+            index.remove(report.getReportId());
+            index.remove(UUID.randomUUID());
+
+            assertThat(index.size()).isEqualTo(1);
+            assertThat(index.top(district3, 10, now)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should keep changes made while a rebuild reads the database")
+        void rebuild_ReplaysConcurrentChanges() {
+            SuggestedReportRow kept = row(district1, 5, "LOW", null, now);
+            SuggestedReportRow acceptedDuringLoad = row(district1, 10, "NORMAL", null, now);
+            SuggestedReportRow createdDuringLoad = row(district1, 20, "HIGH", null, now);
+
+            index.rebuild(() -> {
+                // Committed after the loader's snapshot was taken
+                index.remove(acceptedDuringLoad.getReportId());
+                index.put(createdDuringLoad);
+                return List.of(kept, acceptedDuringLoad);
+            });
+
+            assertThat(index.top(district1, 10, now)).extracting(ranked -> ranked.row().getReportId())
+                    .containsExactly(createdDuringLoad.getReportId(), kept.getReportId());
+        }
+
+        @Test
+        @DisplayName("Should not be ready until loaded, and never when disabled")
+        void ready() {
+            assertThat(index.isReady()).isFalse();
+            index.rebuild(List::of);
+            assertThat(index.isReady()).isTrue();
+
+            SuggestedReportIndex disabled = new SuggestedReportIndex(false);
+            disabled.rebuild(List::of);
+            assertThat(disabled.isReady()).isFalse();
+        }
+    }
+}
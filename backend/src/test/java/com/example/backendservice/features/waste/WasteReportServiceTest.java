@@ -1,16 +1,27 @@
 package com.example.backendservice.features.waste;
 
+import com.example.backendservice.common.exception.BadRequestException;
+import com.example.backendservice.common.utils.GeoUtils;
 import com.example.backendservice.features.location.entity.ServiceArea;
 import com.example.backendservice.features.location.repository.ServiceAreaRepository;
-import com.example.backendservice.features.user.entity.Citizen;
+import com.example.backendservice.features.location.service.ServiceAreaIndex;
+import com.example.backendservice.features.user.entity.CitizenProfile;
 import com.example.backendservice.features.user.entity.User;
-import com.example.backendservice.features.user.repository.CitizenRepository;
+import com.example.backendservice.features.user.repository.CitizenProfileRepository;
 import com.example.backendservice.features.waste.dto.CreateWasteReportRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsRequest;
+import com.example.backendservice.features.waste.dto.MergeReportsResponse;
+import com.example.backendservice.features.waste.dto.NearbyReportDTO;
+import com.example.backendservice.features.waste.dto.NearbyReportRow;
+import com.example.backendservice.features.waste.dto.SuggestedReportDTO;
+import com.example.backendservice.features.waste.dto.SuggestedReportRow;
 import com.example.backendservice.features.waste.dto.WasteReportResponse;
 import com.example.backendservice.features.waste.entity.WasteReport;
 import com.example.backendservice.features.waste.entity.WasteType;
 import com.example.backendservice.features.waste.repository.WasteReportRepository;
 import com.example.backendservice.features.waste.repository.WasteTypeRepository;
+import com.example.backendservice.features.waste.service.DuplicateReportDetector;
+import com.example.backendservice.features.waste.service.SuggestedReportIndex;
 import com.example.backendservice.features.waste.service.WasteReportServiceImpl;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,6 +45,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,17 +55,23 @@ class WasteReportServiceTest {
     @Mock
     private WasteReportRepository wasteReportRepository;
     @Mock
-    private CitizenRepository citizenRepository;
+    private CitizenProfileRepository citizenProfileRepository;
     @Mock
     private ServiceAreaRepository serviceAreaRepository;
     @Mock
     private WasteTypeRepository wasteTypeRepository;
+    @Mock
+    private SuggestedReportIndex suggestedReportIndex;
+    @Mock
+    private ServiceAreaIndex serviceAreaIndex;
+    @Mock
+    private DuplicateReportDetector duplicateReportDetector;
 
     @InjectMocks
     private WasteReportServiceImpl wasteReportService;
 
     private WasteReport sampleReport;
-    private Citizen sampleCitizen;
+    private CitizenProfile sampleCitizen;
     private ServiceArea sampleArea;
     private WasteType sampleWasteType;
     private UUID reportId;
@@ -73,7 +92,7 @@ class WasteReportServiceTest {
                 .lastName("Van A")
                 .build();
 
-        sampleCitizen = Citizen.builder()
+        sampleCitizen = CitizenProfile.builder()
                 .id(citizenId)
                 .user(citizenUser)
                 .currentPoints(100)
@@ -125,7 +144,7 @@ class WasteReportServiceTest {
                     .priority("NORMAL")
                     .build();
 
-            when(citizenRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
+            when(citizenProfileRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
             when(serviceAreaRepository.findById(areaId)).thenReturn(Optional.of(sampleArea));
             when(wasteTypeRepository.findById(wasteTypeId)).thenReturn(Optional.of(sampleWasteType));
             when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
@@ -138,6 +157,25 @@ class WasteReportServiceTest {
             verify(wasteReportRepository, times(1)).save(any(WasteReport.class));
         }
 
+        @Test
+        @DisplayName("Should assign the area containing the coordinates when none is given")
+        void createReport_ResolvesArea() {
+            CreateWasteReportRequest request = CreateWasteReportRequest.builder()
+                    .citizenId(citizenId)
+                    .lat(10.78)
+                    .lng(106.69)
+                    .build();
+
+            when(citizenProfileRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
+            when(serviceAreaIndex.resolve(10.78, 106.69)).thenReturn(areaId);
+            when(serviceAreaRepository.findById(areaId)).thenReturn(Optional.of(sampleArea));
+            when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
+
+            wasteReportService.createReport(request);
+
+            verify(wasteReportRepository).save(argThat(report -> report.getArea() == sampleArea));
+        }
+
         @Test
         @DisplayName("Should throw exception when citizen not found")
         void createReport_CitizenNotFound() {
@@ -145,7 +183,7 @@ class WasteReportServiceTest {
                     .citizenId(UUID.randomUUID())
                     .build();
 
-            when(citizenRepository.findById(any())).thenReturn(Optional.empty());
+            when(citizenProfileRepository.findById(any())).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> wasteReportService.createReport(request))
                     .isInstanceOf(EntityNotFoundException.class)
@@ -257,6 +295,63 @@ class WasteReportServiceTest {
             assertThat(sampleReport.getLocationText()).isEqualTo("Updated location");
         }
 
+        @Test
+        @DisplayName("Should resolve the area again when the coordinates move")
+        void updateReport_MovedResolvesArea() {
+            ServiceArea hanoi = ServiceArea.builder().id(UUID.randomUUID()).name("Hoan Kiem").status("ACTIVE").build();
+            CreateWasteReportRequest request = CreateWasteReportRequest.builder()
+                    .lat(21.03)
+                    .lng(105.85)
+                    .build();
+
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            when(serviceAreaIndex.resolve(21.03, 105.85)).thenReturn(hanoi.getId());
+            when(serviceAreaRepository.findById(hanoi.getId())).thenReturn(Optional.of(hanoi));
+            when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
+
+            wasteReportService.updateReport(reportId, request);
+
+            assertThat(sampleReport.getArea()).isSameAs(hanoi);
+        }
+
+        @Test
+        @DisplayName("Should keep the area when the coordinates do not move")
+        void updateReport_SameCoordinatesKeepArea() {
+            CreateWasteReportRequest request = CreateWasteReportRequest.builder()
+                    .lat(10.78)
+                    .lng(106.69)
+                    .description("More bottles")
+                    .build();
+
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
+
+            wasteReportService.updateReport(reportId, request);
+
+            assertThat(sampleReport.getArea()).isSameAs(sampleArea);
+            verifyNoInteractions(serviceAreaIndex, serviceAreaRepository);
+        }
+
+        @Test
+        @DisplayName("Should use the area the client pins instead of resolving one")
+        void updateReport_PinnedArea() {
+            ServiceArea pinned = ServiceArea.builder().id(UUID.randomUUID()).name("District 3").status("ACTIVE").build();
+            CreateWasteReportRequest request = CreateWasteReportRequest.builder()
+                    .lat(21.03)
+                    .lng(105.85)
+                    .areaId(pinned.getId())
+                    .build();
+
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            when(serviceAreaRepository.findById(pinned.getId())).thenReturn(Optional.of(pinned));
+            when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
+
+            wasteReportService.updateReport(reportId, request);
+
+            assertThat(sampleReport.getArea()).isSameAs(pinned);
+            verifyNoInteractions(serviceAreaIndex);
+        }
+
         @Test
         @DisplayName("Should fail to update non-pending report")
         void updateReport_InvalidStatus() {
@@ -272,4 +367,272 @@ class WasteReportServiceTest {
                     .hasMessageContaining("Only PENDING reports can be updated");
         }
     }
+
+    @Nested
+    @DisplayName("Suggested Reports Tests")
+    class SuggestedReportsTests {
+
+        private SuggestedReportRow row(UUID id, double weight, String priority, LocalDateTime createdAt,
+                                       Double basePointsPerKg, double score) {
+            return new SuggestedReportRow(id, "Nguyen", "Van A", areaId, "District 1", "Plastic", basePointsPerKg,
+                    weight, "Apartment 502", priority, "PENDING", createdAt, score);
+        }
+
+        @Test
+        @DisplayName("Should answer from the index without the database once it is loaded")
+        void getSuggestedReports_FromIndex() {
+            UUID id = UUID.randomUUID();
+            when(suggestedReportIndex.isReady()).thenReturn(true);
+            when(suggestedReportIndex.top(eq(areaId), eq(5), any(LocalDateTime.class))).thenReturn(List.of(
+                    new SuggestedReportIndex.Ranked(row(id, 10.0, "NORMAL", LocalDateTime.now(), 10.0, 0), 31.234)));
+
+            List<SuggestedReportDTO> suggestions = wasteReportService.getSuggestedReports(null, areaId, 5);
+
+            assertThat(suggestions).extracting(SuggestedReportDTO::getReportId).containsExactly(id);
+            assertThat(suggestions.get(0).getPriorityScore()).isEqualTo(31.23);
+            verifyNoInteractions(wasteReportRepository);
+        }
+
+        @Test
+        @DisplayName("Should index a new report and drop it from the index once accepted")
+        void indexMaintenance() {
+            CreateWasteReportRequest request = CreateWasteReportRequest.builder()
+                    .citizenId(citizenId)
+                    .estimatedWeightKg(15.0)
+                    .build();
+            when(citizenProfileRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
+            when(wasteReportRepository.save(any(WasteReport.class))).thenReturn(sampleReport);
+
+            wasteReportService.createReport(request);
+
+            verify(suggestedReportIndex).put(argThat(row -> row.getReportId().equals(reportId)
+                    && row.getAreaId().equals(areaId) && row.getBasePointsPerKg() == 10.0));
+
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            wasteReportService.acceptReport(reportId);
+
+            verify(suggestedReportIndex).remove(reportId);
+        }
+
+        @Test
+        @DisplayName("Should ask the database for exactly limit rows and keep its order")
+        void getSuggestedReports_TopK() {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            when(wasteReportRepository.findSuggested(eq(areaId), any(LocalDateTime.class), eq(PageRequest.of(0, 2))))
+                    .thenReturn(List.of(
+                            row(first, 40.0, "URGENT", LocalDateTime.now().minusDays(3), 20.0, 88.456),
+                            row(second, 5.0, "NORMAL", LocalDateTime.now(), null, 15.5)));
+
+            List<SuggestedReportDTO> suggestions = wasteReportService.getSuggestedReports(null, areaId, 2);
+
+            assertThat(suggestions).extracting(SuggestedReportDTO::getReportId).containsExactly(first, second);
+            assertThat(suggestions.get(0).getPriorityScore()).isEqualTo(88.46);
+            assertThat(suggestions.get(0).getCitizenName()).isEqualTo("Nguyen Van A");
+            assertThat(suggestions.get(0).getPriorityReason())
+                    .isEqualTo("Khối lượng lớn, Ưu tiên cao từ người dùng, Chờ xử lý > 48h, Loại rác có giá trị cao");
+            assertThat(suggestions.get(1).getPriorityReason()).isEqualTo("Tiêu chuẩn");
+            verify(wasteReportRepository, never()).findByStatusIn(any());
+            verify(wasteReportRepository, never()).findByAreaIdAndStatus(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Should reject a limit outside 1..100")
+        void getSuggestedReports_InvalidLimit() {
+            assertThatThrownBy(() -> wasteReportService.getSuggestedReports(null, null, 0))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> wasteReportService.getSuggestedReports(null, null, 101))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(wasteReportRepository);
+        }
+
+        @Test
+        @DisplayName("Should score a single report with the same formula")
+        void calculatePriorityScore_Success() {
+            sampleReport.setEstimatedWeightKg(25.0);
+            sampleReport.setPriority("HIGH");
+            sampleReport.setCreatedAt(LocalDateTime.now().minusDays(14));
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+
+            // 50 * 0.30 + 75 * 0.25 + 100 * 0.25 + 50 * 0.20
+            assertThat(wasteReportService.calculatePriorityScore(reportId)).isEqualTo(68.75);
+        }
+    }
+
+    @Nested
+    @DisplayName("Nearby Reports Tests")
+    class NearbyReportsTests {
+
+        private static final double LAT = 10.7769;
+        private static final double LNG = 106.7009;
+
+        private NearbyReportRow row(UUID id, double lat, double lng) {
+            return new NearbyReportRow(id, lat, lng, "District 1", "Plastic", 10.0, "Apartment 502",
+                    "NORMAL", "PENDING", LocalDateTime.now());
+        }
+
+        @Test
+        @DisplayName("Should keep candidates within the radius, closest first")
+        void getNearbyReports_WithinRadius() {
+            UUID near = UUID.randomUUID();
+            UUID closer = UUID.randomUUID();
+            UUID corner = UUID.randomUUID();
+            when(wasteReportRepository.findNearbyCandidates(any(GeoUtils.SearchArea.class))).thenReturn(List.of(
+                    row(near, LAT + 0.0072, LNG),
+                    // Inside the bounding box but about 1.27 km away
+                    row(corner, LAT + 0.0081, LNG + 0.0082),
+                    row(closer, LAT, LNG + 0.0030)));
+
+            List<NearbyReportDTO> nearby = wasteReportService.getNearbyReports(LAT, LNG, 1.0, 10);
+
+            assertThat(nearby).extracting(NearbyReportDTO::getReportId).containsExactly(closer, near);
+            assertThat(nearby.get(0).getDistanceKm()).isEqualTo(0.328);
+            assertThat(nearby.get(1).getDistanceKm()).isEqualTo(0.801);
+            verify(wasteReportRepository).findNearbyCandidates(argThat((GeoUtils.SearchArea area) ->
+                    area.contains(LAT + 0.0089, LNG) && !area.contains(LAT + 0.0091, LNG)));
+        }
+
+        @Test
+        @DisplayName("Should widen the search without a radius until it finds limit reports")
+        void getNearbyReports_Nearest() {
+            UUID first = UUID.randomUUID();
+            UUID second = UUID.randomUUID();
+            List<NearbyReportRow> reports = List.of(
+                    row(first, LAT + 0.0027, LNG),
+                    row(second, LAT - 0.027, LNG),
+                    row(UUID.randomUUID(), LAT + 0.09, LNG));
+            when(wasteReportRepository.findNearbyCandidates(any(GeoUtils.SearchArea.class))).thenAnswer(invocation -> {
+                GeoUtils.SearchArea area = invocation.getArgument(0);
+                return reports.stream().filter(report -> area.contains(report.getLat(), report.getLng())).toList();
+            });
+
+            List<NearbyReportDTO> nearby = wasteReportService.getNearbyReports(LAT, LNG, null, 2);
+
+            // 1 km, 2 km, then 4 km holds the report 3 km away
+            assertThat(nearby).extracting(NearbyReportDTO::getReportId).containsExactly(first, second);
+            verify(wasteReportRepository, times(3)).findNearbyCandidates(any(GeoUtils.SearchArea.class));
+        }
+
+        @Test
+        @DisplayName("Should reject invalid coordinates, radius or limit")
+        void getNearbyReports_Invalid() {
+            assertThatThrownBy(() -> wasteReportService.getNearbyReports(91, LNG, 1.0, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> wasteReportService.getNearbyReports(LAT, LNG, 0.0, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> wasteReportService.getNearbyReports(LAT, LNG, 51.0, 10))
+                    .isInstanceOf(BadRequestException.class);
+            assertThatThrownBy(() -> wasteReportService.getNearbyReports(LAT, LNG, 1.0, 0))
+                    .isInstanceOf(BadRequestException.class);
+            verifyNoInteractions(wasteReportRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("Duplicate Reports Tests")
+    class DuplicateReportsTests {
+
+        private WasteReport pendingReport() {
+            return WasteReport.builder()
+                    .id(UUID.randomUUID())
+                    .citizen(sampleCitizen)
+                    .status("PENDING")
+                    .build();
+        }
+
+        private CreateWasteReportRequest request() {
+            return CreateWasteReportRequest.builder()
+                    .citizenId(citizenId)
+                    .areaId(areaId)
+                    .lat(10.78)
+                    .lng(106.69)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("Should flag a new report near an open one and keep it PENDING")
+        void createReport_FlagsDuplicate() {
+            WasteReport original = pendingReport();
+            when(citizenProfileRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
+            when(serviceAreaRepository.findById(areaId)).thenReturn(Optional.of(sampleArea));
+            when(duplicateReportDetector.findOriginal(eq(10.78), eq(106.69), any(LocalDateTime.class)))
+                    .thenReturn(original.getId());
+            when(wasteReportRepository.getReferenceById(original.getId())).thenReturn(original);
+            when(wasteReportRepository.save(any(WasteReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            WasteReportResponse response = wasteReportService.createReport(request());
+
+            assertThat(response.getStatus()).isEqualTo("PENDING");
+            assertThat(response.getDuplicateOfId()).isEqualTo(original.getId());
+        }
+
+        @Test
+        @DisplayName("Should merge a new duplicate straight away in LINK mode")
+        void createReport_LinksDuplicate() {
+            WasteReport original = pendingReport();
+            when(citizenProfileRepository.findById(citizenId)).thenReturn(Optional.of(sampleCitizen));
+            when(serviceAreaRepository.findById(areaId)).thenReturn(Optional.of(sampleArea));
+            when(duplicateReportDetector.findOriginal(eq(10.78), eq(106.69), any(LocalDateTime.class)))
+                    .thenReturn(original.getId());
+            when(duplicateReportDetector.linksDuplicates()).thenReturn(true);
+            when(wasteReportRepository.getReferenceById(original.getId())).thenReturn(original);
+            when(wasteReportRepository.save(any(WasteReport.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+            WasteReportResponse response = wasteReportService.createReport(request());
+
+            assertThat(response.getStatus()).isEqualTo("DUPLICATE");
+            assertThat(response.getDuplicateOfId()).isEqualTo(original.getId());
+            verify(suggestedReportIndex, never()).put(any());
+        }
+
+        @Test
+        @DisplayName("Should merge reports into the target and relink reports flagged against them")
+        void mergeReports_Success() {
+            WasteReport first = pendingReport();
+            WasteReport second = pendingReport();
+            // The target itself was flagged against one of the reports it absorbs
+            sampleReport.setDuplicateOf(first);
+            List<UUID> ids = List.of(first.getId(), second.getId());
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            when(wasteReportRepository.findAllById(ids)).thenReturn(List.of(first, second));
+            when(wasteReportRepository.relinkDuplicates(ids, sampleReport)).thenReturn(3);
+
+            MergeReportsResponse response = wasteReportService.mergeReports(MergeReportsRequest.builder()
+                    .targetReportId(reportId)
+                    .duplicateReportIds(List.of(first.getId(), second.getId(), first.getId()))
+                    .build());
+
+            assertThat(response.getMergedReportIds()).containsExactly(first.getId(), second.getId());
+            assertThat(response.getRelinkedCount()).isEqualTo(3);
+            assertThat(first.getStatus()).isEqualTo("DUPLICATE");
+            assertThat(second.getDuplicateOf()).isSameAs(sampleReport);
+            assertThat(sampleReport.getDuplicateOf()).isNull();
+            verify(wasteReportRepository).saveAll(List.of(first, second));
+            verify(suggestedReportIndex).remove(first.getId());
+            verify(suggestedReportIndex).remove(second.getId());
+        }
+
+        @Test
+        @DisplayName("Should refuse to merge a report into itself or reports that are not PENDING")
+        void mergeReports_Invalid() {
+            assertThatThrownBy(() -> wasteReportService.mergeReports(MergeReportsRequest.builder()
+                    .targetReportId(reportId)
+                    .duplicateReportIds(List.of(reportId))
+                    .build()))
+                    .isInstanceOf(BadRequestException.class);
+
+            WasteReport accepted = pendingReport();
+            accepted.setStatus("ACCEPTED");
+            when(wasteReportRepository.findById(reportId)).thenReturn(Optional.of(sampleReport));
+            when(wasteReportRepository.findAllById(List.of(accepted.getId()))).thenReturn(List.of(accepted));
+
+            assertThatThrownBy(() -> wasteReportService.mergeReports(MergeReportsRequest.builder()
+                    .targetReportId(reportId)
+                    .duplicateReportIds(List.of(accepted.getId()))
+                    .build()))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasMessageContaining("Only PENDING reports can be merged");
+            verify(wasteReportRepository, never()).saveAll(any());
+        }
+    }
 }